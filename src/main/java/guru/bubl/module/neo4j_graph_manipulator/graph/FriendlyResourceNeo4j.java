@@ -14,6 +14,10 @@ import guru.bubl.module.model.graph.FriendlyResourceOperator;
 import guru.bubl.module.model.graph.FriendlyResourcePojo;
 import guru.bubl.module.model.notification.NotificationOperator;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.UserGraphNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.QueryTemplates;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphTombstones;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.notification.NotificationOutboxNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.image.ImageFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.image.ImagesNeo4j;
 import org.apache.commons.lang.StringUtils;
@@ -28,10 +32,17 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.chrono.ChronoLocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
 import static org.neo4j.driver.Values.parameters;
 
 
@@ -43,14 +54,29 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
         comment,
         creation_date,
         last_modification_date,
+        last_change_date,
         owner
     }
 
+    /*
+    every write sets last_change_date so delta loads find what changed, last_modification_date is left to
+    the edits that notify the copies
+     */
+    public static String changeQueryPart(String variableName) {
+        return String.format(
+                " %s.%s=timestamp() ",
+                variableName,
+                props.last_change_date
+        );
+    }
+
+    public static final String CHANGE_QUERY_PART = changeQueryPart("n");
+
     public static final String LAST_MODIFICATION_QUERY_PART = String.format(
-            " n.%s=$%s ",
+            " n.%s=$%s,",
             props.last_modification_date,
             props.last_modification_date
-    );
+    ) + CHANGE_QUERY_PART;
 
     public static Map<String, Object> addUpdatedLastModificationDate(Map<String, Object> map) {
         map.put(
@@ -65,16 +91,50 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
 
     protected Driver driver;
 
+    protected NotificationOutboxNeo4j notificationOutbox;
+
+    protected SubGraphCacheNeo4j subGraphCache;
+
+    protected FriendlyResourceSnapshot snapshot;
+
     public static Boolean haveElementWithUri(URI uri, Driver driver) {
         String query = "MATCH(n:Resource{uri:$uri}) RETURN n.uri as uri";
-        try (Session session = driver.session()) {
-            return session.run(
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> tx.run(
                     query,
                     parameters(
                             "uri",
                             uri.toString()
                     )
-            ).hasNext();
+            ).hasNext());
+        }
+    }
+
+    public static Set<URI> existingUris(Collection<URI> uris, Driver driver) {
+        if (uris.isEmpty()) {
+            return new HashSet<>();
+        }
+        List<String> urisAsString = new ArrayList<>();
+        for (URI uri : uris) {
+            urisAsString.add(uri.toString());
+        }
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Set<URI> existing = new HashSet<>();
+                Result rs = tx.run(
+                        "UNWIND $uris as uri MATCH(n:Resource{uri:uri}) RETURN n.uri as uri",
+                        parameters(
+                                "uris",
+                                urisAsString
+                        )
+                );
+                while (rs.hasNext()) {
+                    existing.add(URI.create(
+                            rs.next().get("uri").asString()
+                    ));
+                }
+                return existing;
+            });
         }
     }
 
@@ -82,10 +142,14 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
     protected FriendlyResourceNeo4j(
             ImageFactoryNeo4j imageFactory,
             Driver driver,
+            NotificationOutboxNeo4j notificationOutbox,
+            SubGraphCacheNeo4j subGraphCache,
             @Assisted URI uri
     ) {
         this.images = imageFactory.forResource(this);
         this.driver = driver;
+        this.notificationOutbox = notificationOutbox;
+        this.subGraphCache = subGraphCache;
         if (StringUtils.isEmpty(uri.toString())) {
             throw new RuntimeException("uri for friendly resource is mandatory");
         }
@@ -96,11 +160,15 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
     protected FriendlyResourceNeo4j(
             ImageFactoryNeo4j imageFactory,
             Driver driver,
+            NotificationOutboxNeo4j notificationOutbox,
+            SubGraphCacheNeo4j subGraphCache,
             @Assisted FriendlyResourcePojo pojo
     ) {
 
         this.images = imageFactory.forResource(this);
         this.driver = driver;
+        this.notificationOutbox = notificationOutbox;
+        this.subGraphCache = subGraphCache;
         this.uri = pojo.uri();
         createUsingInitialValues(
                 RestApiUtilsNeo4j.map(
@@ -120,72 +188,122 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
         return !label().isEmpty();
     }
 
+    /*
+    one read for all the properties, served until this operator writes again
+     */
+    public FriendlyResourceSnapshot loadSnapshot() {
+        try (Session session = driver.session(READ)) {
+            snapshot = session.readTransaction(tx -> FriendlyResourceSnapshot.fromRecord(
+                    tx.run(
+                            queryPrefix() + FriendlyResourceSnapshot.RETURN_QUERY_PART,
+                            parameters(
+                                    "uri", uri.toString()
+                            )
+                    ).single()
+            ));
+        }
+        return snapshot;
+    }
+
+    public FriendlyResourceSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public void invalidateSnapshot() {
+        snapshot = null;
+    }
+
     @Override
     public String label() {
+        if (snapshot != null) {
+            return snapshot.getLabel();
+        }
         String query = String.format(
                 "%sRETURN n.label as label",
                 queryPrefix()
         );
-        try (Session session = driver.session()) {
-            Result rs = session.run(
-                    query,
-                    parameters(
-                            "uri", uri.toString()
-                    )
-            );
-            Record record = rs.single();
-            return record.get("label").asObject() == null ?
-                    "" : record.get("label").asString();
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Result rs = tx.run(
+                        query,
+                        parameters(
+                                "uri", uri.toString()
+                        )
+                );
+                Record record = rs.single();
+                return record.get("label").asObject() == null ?
+                        "" : record.get("label").asString();
+            });
         }
     }
 
     @Override
     public void label(String label) {
-        addUpdateNotifications("label");
-        String query = String.format(
-                "%s SET n.label=$label, %s",
-                queryPrefix(),
-                LAST_MODIFICATION_QUERY_PART
+        invalidateSnapshot();
+        updateAndNotify(
+                RestApiUtilsNeo4j.map(
+                        props.label.name(), label
+                ),
+                Collections.singletonList("label")
+        );
+    }
+
+    /*
+    the "modified more than a day ago" check and the property change are done in one statement,
+    the notifications for copies are left to the outbox
+     */
+    public void updateAndNotify(Map<String, Object> properties, List<String> actions) {
+        Map<String, Object> props = new HashMap<>(properties);
+        if (!actions.isEmpty()) {
+            addUpdatedLastModificationDate(props);
+        }
+        String query = QueryTemplates.get(
+                () -> queryPrefix() +
+                        "WITH n, n.last_modification_date < $notifyIfModifiedBefore as notify " +
+                        "SET n += $props," + CHANGE_QUERY_PART +
+                        "RETURN notify",
+                "FriendlyResourceNeo4j.updateAndNotify",
+                getClass()
         );
+        Boolean notify;
         try (Session session = driver.session()) {
-            session.run(
-                    query,
-                    parameters(
-                            "uri",
-                            uri.toString(),
-                            "label",
-                            label,
-                            "last_modification_date",
-                            new Date().getTime()
-                    )
+            notify = session.writeTransaction(tx -> {
+                Result rs = tx.run(
+                        query,
+                        parameters(
+                                "uri", uri.toString(),
+                                "props", props,
+                                "notifyIfModifiedBefore", new DateTime().minusDays(1).getMillis()
+                        )
+                );
+                return rs.hasNext() && rs.next().get("notify").asBoolean(false);
+            });
+        }
+        subGraphCache.invalidate(uri);
+        if (notify) {
+            notificationOutbox.enqueue(
+                    uri,
+                    getOwnerUsername(),
+                    actions
             );
         }
     }
 
     public void addUpdateNotifications(String action) {
-        if (!lastModificationIsLongEnoughForUpdate()) {
+        addUpdateNotifications(
+                Collections.singletonList(action)
+        );
+    }
+
+    public void addUpdateNotifications(List<String> actions) {
+        if (actions.isEmpty() || !lastModificationIsLongEnoughForUpdate()) {
             return;
         }
-        try (Session session = driver.session()) {
-            String query = "MATCH (ge:Resource{copied_from_uri:$uri}) WHERE ge.owner<>$owner " +
-                    "CREATE (n:Resource:Notification { " +
-                    "uri:'/service/users/' + ge.owner + '/notification/' + apoc.create.uuid()," +
-                    "owner: ge.owner," +
-                    "watchUri: $uri," +
-                    "watchLabel : ge.label," +
-                    "rootUri: ge.copied_root_uri," +
-                    "action:$action," +
-                    "creationDate:timestamp()" +
-                    "})  ";
-            session.run(
-                    query,
-                    parameters(
-                            "uri", uri.toString(),
-                            "owner", getOwnerUsername(),
-                            "action", action
-                    )
-            );
-        }
+        notificationOutbox.enqueue(
+                uri,
+                getOwnerUsername(),
+                actions
+        );
     }
 
     private Boolean lastModificationIsLongEnoughForUpdate() {
@@ -193,6 +311,10 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
         return lastModificationDate.plusDays(1).isBefore(new DateTime());
     }
 
+    public FriendlyResourceUpdateNeo4j update() {
+        return new FriendlyResourceUpdateNeo4j(this);
+    }
+
     @Override
     public Set<Image> images() {
         return images.get();
@@ -205,44 +327,36 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
 
     @Override
     public String comment() {
+        if (snapshot != null) {
+            return snapshot.getComment();
+        }
         String query = String.format(
                 "%sRETURN n.comment as comment",
                 queryPrefix()
         );
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    query,
-                    parameters(
-                            "uri", uri.toString()
-                    )
-            ).single();
-            return record.get("comment").asObject() == null ?
-                    "" : record.get("comment").asString();
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        query,
+                        parameters(
+                                "uri", uri.toString()
+                        )
+                ).single();
+                return record.get("comment").asObject() == null ?
+                        "" : record.get("comment").asString();
+            });
         }
     }
 
     @Override
     public void comment(String comment) {
-        addUpdateNotifications("description");
-        String query = String.format(
-                "%sSET n.comment=$comment, %s",
-                queryPrefix(),
-                LAST_MODIFICATION_QUERY_PART
-        );
-        Map<String, Object> props = RestApiUtilsNeo4j.map(
-                "comment", comment
+        invalidateSnapshot();
+        updateAndNotify(
+                RestApiUtilsNeo4j.map(
+                        props.comment.name(), comment
+                ),
+                Collections.singletonList("description")
         );
-        addUpdatedLastModificationDate(props);
-        try (Session session = driver.session()) {
-            session.run(
-                    query,
-                    parameters(
-                            "uri", uri.toString(),
-                            "comment", comment,
-                            "last_modification_date", new Date().getTime()
-                    )
-            );
-        }
     }
 
     @Override
@@ -254,7 +368,9 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
 
     @Override
     public void addImages(Set<Image> images) {
+        invalidateSnapshot();
         this.images.addAll(images);
+        subGraphCache.invalidate(uri);
     }
 
     @Override
@@ -266,17 +382,18 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
 
     @Override
     public void createUsingInitialValues(Map<String, Object> values) {
+        invalidateSnapshot();
         Map<String, Object> creationProps = addCreationProperties(
                 values
         );
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     "CREATE(n:Resource $creationProps)",
                     parameters(
                             "creationProps",
                             creationProps
                     )
-            );
+            ).consume());
         }
     }
 
@@ -303,40 +420,48 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
 
     @Override
     public void remove() {
+        invalidateSnapshot();
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     String.format(
-                            "%s DETACH DELETE n",
-                            queryPrefix()
+                            "%s %sDETACH DELETE n",
+                            queryPrefix(),
+                            SubGraphTombstones.queryPart("n")
                     ),
                     parameters(
                             "uri",
                             uri.toString()
                     )
-            );
+            ).consume());
         }
+        subGraphCache.invalidate(uri);
     }
 
     @Override
     public void setColors(String colors) {
+        invalidateSnapshot();
         try (Session session = driver.session()) {
-            session.run(
-                    queryPrefix() + "SET n.colors=$colors",
+            session.writeTransaction(tx -> tx.run(
+                    queryPrefix() + "SET n.colors=$colors," + CHANGE_QUERY_PART,
                     parameters(
                             "uri",
                             uri().toString(),
                             "colors",
                             colors
                     )
-            );
+            ).consume());
         }
+        subGraphCache.invalidate(uri);
     }
 
     @Override
     public Date creationDate() {
-        try (Session session = driver.session()) {
+        if (snapshot != null) {
+            return snapshot.getCreationDate();
+        }
+        try (Session session = driver.session(READ)) {
             return new Date(
-                    session.run(
+                    session.readTransaction(tx -> tx.run(
                             String.format(
                                     "%s RETURN n.creation_date as creationDate",
                                     queryPrefix()
@@ -345,7 +470,7 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
                                     "uri",
                                     uri.toString()
                             )
-                    ).single().get("creationDate").asLong()
+                    ).single().get("creationDate").asLong())
             );
         }
 
@@ -353,9 +478,12 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
 
     @Override
     public Date lastModificationDate() {
-        try (Session session = driver.session()) {
+        if (snapshot != null) {
+            return snapshot.getLastModificationDate();
+        }
+        try (Session session = driver.session(READ)) {
             return new Date(
-                    session.run(
+                    session.readTransaction(tx -> tx.run(
                             String.format(
                                     "%s RETURN n.last_modification_date as lastModificationDate",
                                     queryPrefix()
@@ -364,34 +492,40 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
                                     "uri",
                                     uri.toString()
                             )
-                    ).single().get("lastModificationDate").asLong()
+                    ).single().get("lastModificationDate").asLong())
             );
         }
     }
 
     @Override
     public String getColors() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    queryPrefix() + "RETURN n.colors as colors",
-                    parameters(
-                            "uri",
-                            this.uri().toString()
-                    )
-            ).single();
-            return record.get(
-                    "colors"
-            ).asObject() == null ? "" : record.get("colors").asString();
+        if (snapshot != null) {
+            return snapshot.getColors();
+        }
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        queryPrefix() + "RETURN n.colors as colors",
+                        parameters(
+                                "uri",
+                                this.uri().toString()
+                        )
+                ).single();
+                return record.get(
+                        "colors"
+                ).asObject() == null ? "" : record.get("colors").asString();
+            });
         }
     }
 
 
     public void updateLastModificationDate() {
+        invalidateSnapshot();
         String query = queryPrefix() +
                 " SET " +
                 LAST_MODIFICATION_QUERY_PART;
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     query,
                     parameters(
                             "uri",
@@ -399,8 +533,9 @@ public class FriendlyResourceNeo4j implements FriendlyResourceOperator, Operator
                             "last_modification_date",
                             new Date().getTime()
                     )
-            );
+            ).consume());
         }
+        subGraphCache.invalidate(uri);
     }
 
 
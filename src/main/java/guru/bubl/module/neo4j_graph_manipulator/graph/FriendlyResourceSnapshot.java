@@ -0,0 +1,111 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph;
+
+import guru.bubl.module.model.Image;
+import guru.bubl.module.model.graph.ShareLevel;
+import guru.bubl.module.neo4j_graph_manipulator.graph.image.ImageJsonCache;
+import org.neo4j.driver.Record;
+
+import java.net.URI;
+import java.util.*;
+
+public class FriendlyResourceSnapshot {
+
+    public static final String RETURN_QUERY_PART = "RETURN properties(n) as properties, labels(n) as labels";
+
+    private final Map<String, Object> properties;
+    private final Set<String> labels;
+
+    public static FriendlyResourceSnapshot fromRecord(Record record) {
+        return new FriendlyResourceSnapshot(
+                record.get("properties").asMap(),
+                new HashSet<>(record.get("labels").asList(value -> value.asString()))
+        );
+    }
+
+    private FriendlyResourceSnapshot(Map<String, Object> properties, Set<String> labels) {
+        this.properties = Collections.unmodifiableMap(new HashMap<>(properties));
+        this.labels = Collections.unmodifiableSet(labels);
+    }
+
+    public Object get(String propertyName) {
+        return properties.get(propertyName);
+    }
+
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    public Boolean hasLabel(String label) {
+        return labels.contains(label);
+    }
+
+    public String getLabel() {
+        return getStringOrEmpty(FriendlyResourceNeo4j.props.label.name());
+    }
+
+    public String getComment() {
+        return getStringOrEmpty(FriendlyResourceNeo4j.props.comment.name());
+    }
+
+    public String getColors() {
+        return getStringOrEmpty("colors");
+    }
+
+    public String getFont() {
+        return getStringOrEmpty("font");
+    }
+
+    public String getChildrenIndex() {
+        return getStringOrEmpty("childrenIndexes");
+    }
+
+    public URI getCopiedFromUri() {
+        Object copiedFromUri = properties.get("copied_from_uri");
+        return copiedFromUri == null ? null : URI.create(copiedFromUri.toString());
+    }
+
+    public Date getCreationDate() {
+        return new Date(
+                ((Number) properties.get(FriendlyResourceNeo4j.props.creation_date.name())).longValue()
+        );
+    }
+
+    public Date getLastModificationDate() {
+        return new Date(
+                ((Number) properties.get(FriendlyResourceNeo4j.props.last_modification_date.name())).longValue()
+        );
+    }
+
+    public ShareLevel getShareLevel() {
+        Object shareLevel = properties.get("shareLevel");
+        return shareLevel == null ? ShareLevel.PRIVATE : ShareLevel.get(
+                ((Number) shareLevel).intValue()
+        );
+    }
+
+    public Boolean isUnderPattern() {
+        Object isUnderPattern = properties.get("isUnderPattern");
+        return isUnderPattern == null ? false : (Boolean) isUnderPattern;
+    }
+
+    public Boolean isPattern() {
+        return hasLabel("Pattern");
+    }
+
+    /*
+    callers are allowed to modify the returned set
+     */
+    public Set<Image> getImages() {
+        Object images = properties.get("images");
+        return images == null ? new HashSet<>() : ImageJsonCache.fromJson(images.toString());
+    }
+
+    private String getStringOrEmpty(String propertyName) {
+        Object value = properties.get(propertyName);
+        return value == null ? "" : value.toString();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph;
+
+import guru.bubl.module.model.Image;
+
+import java.util.*;
+
+/*
+collects property changes and writes them with one statement, added images are appended by a second one,
+label and comment changes still refresh the modification date and notify copies
+ */
+public class FriendlyResourceUpdateNeo4j {
+
+    private FriendlyResourceNeo4j friendlyResource;
+    private Map<String, Object> props = new HashMap<>();
+    private List<String> notificationActions = new ArrayList<>();
+    private Set<Image> imagesToAdd = new HashSet<>();
+
+    FriendlyResourceUpdateNeo4j(FriendlyResourceNeo4j friendlyResource) {
+        this.friendlyResource = friendlyResource;
+    }
+
+    public FriendlyResourceUpdateNeo4j label(String label) {
+        props.put(FriendlyResourceNeo4j.props.label.name(), label);
+        addNotificationAction("label");
+        return this;
+    }
+
+    public FriendlyResourceUpdateNeo4j comment(String comment) {
+        props.put(FriendlyResourceNeo4j.props.comment.name(), comment);
+        addNotificationAction("description");
+        return this;
+    }
+
+    public FriendlyResourceUpdateNeo4j colors(String colors) {
+        props.put("colors", colors);
+        return this;
+    }
+
+    public FriendlyResourceUpdateNeo4j font(String font) {
+        props.put("font", font);
+        return this;
+    }
+
+    public FriendlyResourceUpdateNeo4j childrenIndex(String childrenIndex) {
+        props.put("childrenIndexes", childrenIndex);
+        return this;
+    }
+
+    public FriendlyResourceUpdateNeo4j addImages(Set<Image> images) {
+        imagesToAdd.addAll(images);
+        return this;
+    }
+
+    public Boolean isEmpty() {
+        return props.isEmpty() && imagesToAdd.isEmpty();
+    }
+
+    public void apply() {
+        if (isEmpty()) {
+            return;
+        }
+        friendlyResource.invalidateSnapshot();
+        if (!props.isEmpty()) {
+            friendlyResource.updateAndNotify(
+                    props,
+                    notificationActions
+            );
+        }
+        if (!imagesToAdd.isEmpty()) {
+            friendlyResource.addImages(imagesToAdd);
+        }
+    }
+
+    private void addNotificationAction(String action) {
+        if (!notificationActions.contains(action)) {
+            notificationActions.add(action);
+        }
+    }
+}
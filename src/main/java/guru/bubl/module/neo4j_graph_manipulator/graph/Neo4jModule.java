@@ -39,33 +39,49 @@ import guru.bubl.module.model.notification.NotificationOperator;
 import guru.bubl.module.neo4j_graph_manipulator.graph.admin.WholeGraphAdminNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.center_graph_element.CenterGraphElementOperatorNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.center_graph_element.CenterGraphElementsOperatorNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.driver.Neo4jDriverSettings;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.GraphFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.UserGraphFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.EdgeOperatorNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheSettings;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphTombstoneSettings;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphTombstones;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphExtractorFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.fork.ForkOperatorNeo4J;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.fork.NbNeighborsOperatorNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.ForkCollectionOperatorNeo4J;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.ForkCollectionOperatorFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementFactoryNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.ScopedGraphElementFactoryNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.UnscopedGraphElementFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementOperatorNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementSpecialOperatorFactory;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.group_relation.GroupRelationFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.group_relation.GroupRelationOperatorNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.notification.NotificationOperatorNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.notification.NotificationOutboxNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.notification.NotificationOutboxSettings;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.pattern.PatternUserNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.relation.RelationFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.relation.RelationOperatorNeo4J;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.tag.TagOperatorNeo4J;
 import guru.bubl.module.model.graph.tree_copier.TreeCopierFactory;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.tree_copier.TreeCopierFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.tree_copier.TreeCopierNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.vertex.VertexFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.vertex.VertexOperatorNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.image.ImageFactoryNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation.InMemoryQueryMetricsRegistry;
+import guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation.InstrumentedDriver;
+import guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation.QueryMetricsRegistry;
+import guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation.SlowQueryLog;
+import guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation.SlowQuerySettings;
 import guru.bubl.module.neo4j_graph_manipulator.graph.search.GraphSearchModuleNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.tag.TagFactoryNeo4J;
+import guru.bubl.module.neo4j_graph_manipulator.graph.transaction.GraphTransactionDriver;
 import org.neo4j.driver.AuthTokens;
 import org.neo4j.driver.Driver;
-import org.neo4j.driver.GraphDatabase;
 
 import javax.inject.Singleton;
 
@@ -77,33 +93,127 @@ public class Neo4jModule extends AbstractModule {
     public static final String NEO4J_PASSWORD_FOR_TESTS = "proute";
 
     private String dbUser, dbPassword;
-    private Integer boltPort;
-
+    private Neo4jDriverSettings driverSettings;
+    private QueryMetricsRegistry queryMetricsRegistry = new InMemoryQueryMetricsRegistry();
+    private SlowQuerySettings slowQuerySettings = SlowQuerySettings.fromSystemProperties();
+    private NotificationOutboxSettings notificationOutboxSettings = NotificationOutboxSettings.fromSystemProperties();
+    private SubGraphCacheSettings subGraphCacheSettings = SubGraphCacheSettings.fromSystemProperties();
+    private SubGraphTombstoneSettings subGraphTombstoneSettings = SubGraphTombstoneSettings.fromSystemProperties();
+
+    /*
+    embedded is for tests, notifications are written by the edit so they can be read right after it
+     */
     public static Neo4jModule usingEmbedded() {
-        return new Neo4jModule("", "", -1);
+        return new Neo4jModule("", "", -1).withNotificationOutboxSettings(
+                NotificationOutboxSettings.fromSystemProperties().setSynchronous(true)
+        );
     }
 
     public static Neo4jModule withUserPasswordAndPort(String dbUser, String dbPassword, Integer boltPort) {
-        return new Neo4jModule(dbUser, dbPassword, boltPort);
+        return withUserPasswordAndPort(
+                dbUser,
+                dbPassword,
+                boltPort,
+                Neo4jDriverSettings.fromSystemProperties()
+        );
+    }
+
+    public static Neo4jModule withUserPasswordAndPort(String dbUser, String dbPassword, Integer boltPort, Neo4jDriverSettings driverSettings) {
+        return new Neo4jModule(
+                dbUser,
+                dbPassword,
+                driverSettings.copy().setPort(boltPort)
+        );
+    }
+
+    public static Neo4jModule withUserPasswordAndSettings(String dbUser, String dbPassword, Neo4jDriverSettings driverSettings) {
+        return new Neo4jModule(
+                dbUser,
+                dbPassword,
+                driverSettings
+        );
     }
 
     protected Neo4jModule(String dbUser, String dbPassword, Integer boltPort) {
+        this(
+                dbUser,
+                dbPassword,
+                boltPort > -1 ? Neo4jDriverSettings.fromSystemProperties().setPort(boltPort) : null
+        );
+    }
+
+    protected Neo4jModule(String dbUser, String dbPassword, Neo4jDriverSettings driverSettings) {
         this.dbUser = dbUser;
         this.dbPassword = dbPassword;
-        this.boltPort = boltPort;
+        this.driverSettings = driverSettings;
+    }
+
+    public Neo4jModule withQueryMetricsRegistry(QueryMetricsRegistry queryMetricsRegistry) {
+        this.queryMetricsRegistry = queryMetricsRegistry;
+        return this;
+    }
+
+    public Neo4jModule withSlowQuerySettings(SlowQuerySettings slowQuerySettings) {
+        this.slowQuerySettings = slowQuerySettings;
+        return this;
+    }
+
+    public Neo4jModule withNotificationOutboxSettings(NotificationOutboxSettings notificationOutboxSettings) {
+        this.notificationOutboxSettings = notificationOutboxSettings;
+        return this;
+    }
+
+    public Neo4jModule withSubGraphCacheSettings(SubGraphCacheSettings subGraphCacheSettings) {
+        this.subGraphCacheSettings = subGraphCacheSettings;
+        return this;
+    }
+
+    public Neo4jModule withSubGraphTombstoneSettings(SubGraphTombstoneSettings subGraphTombstoneSettings) {
+        this.subGraphTombstoneSettings = subGraphTombstoneSettings;
+        return this;
     }
 
     @Override
     protected void configure() {
-        if (boltPort > -1) {
-            Driver driver = GraphDatabase.driver(
-                    "bolt://localhost:" + this.boltPort,
+        if (driverSettings != null) {
+            Driver neo4jDriver = driverSettings.buildDriver(
                     AuthTokens.basic(this.dbUser, this.dbPassword)
             );
+            QueryMetricsRegistry instrumentationRegistry = queryMetricsRegistry;
+            SlowQueryLog slowQueryLog = null;
+            if (slowQuerySettings.getThresholdMs() > -1) {
+                slowQueryLog = new SlowQueryLog(
+                        queryMetricsRegistry,
+                        neo4jDriver,
+                        slowQuerySettings
+                );
+                bind(SlowQueryLog.class).toInstance(
+                        slowQueryLog
+                );
+                instrumentationRegistry = slowQueryLog;
+            }
+            GraphTransactionDriver driver = new GraphTransactionDriver(
+                    new InstrumentedDriver(
+                            neo4jDriver,
+                            instrumentationRegistry
+                    )
+            );
+            if (slowQueryLog != null) {
+                driver.onClose(slowQueryLog::close);
+            }
             bind(Driver.class).toInstance(
                     driver
             );
+            bind(GraphTransactionDriver.class).toInstance(
+                    driver
+            );
+            bind(Neo4jDriverSettings.class).toInstance(
+                    driverSettings
+            );
         }
+        bind(QueryMetricsRegistry.class).toInstance(
+                queryMetricsRegistry
+        );
 
         install(new GraphSearchModuleNeo4j());
 
@@ -151,6 +261,9 @@ public class Neo4jModule extends AbstractModule {
                 .implement(ForkCollectionOperator.class, ForkCollectionOperatorNeo4J.class)
                 .build(ForkCollectionOperatorFactory.class));
 
+        install(factoryModuleBuilder
+                .build(ForkCollectionOperatorFactoryNeo4j.class));
+
         install(factoryModuleBuilder
                 .implement(ForkOperator.class, ForkOperatorNeo4J.class)
                 .build(ForkOperatorFactory.class)
@@ -167,7 +280,8 @@ public class Neo4jModule extends AbstractModule {
         );
 
         install(factoryModuleBuilder
-                .build(GraphElementFactoryNeo4j.class));
+                .build(UnscopedGraphElementFactoryNeo4j.class));
+        bind(GraphElementFactoryNeo4j.class).to(ScopedGraphElementFactoryNeo4j.class);
 
         install(factoryModuleBuilder
                 .implement(FriendlyResourceOperator.class, FriendlyResourceNeo4j.class)
@@ -197,10 +311,24 @@ public class Neo4jModule extends AbstractModule {
         install(factoryModuleBuilder
                 .implement(TreeCopier.class, TreeCopierNeo4j.class)
                 .build(TreeCopierFactory.class));
+        install(factoryModuleBuilder
+                .build(TreeCopierFactoryNeo4j.class));
 
         bind(GraphFactory.class).to(GraphFactoryNeo4j.class).in(Singleton.class);
         bind(GraphElementSpecialOperatorFactory.class);
         bind(NotificationOperator.class).to(NotificationOperatorNeo4j.class).in(Singleton.class);
+        bind(NotificationOutboxSettings.class).toInstance(
+                notificationOutboxSettings
+        );
+        bind(NotificationOutboxNeo4j.class).in(Singleton.class);
+        bind(SubGraphCacheSettings.class).toInstance(
+                subGraphCacheSettings
+        );
+        bind(SubGraphCacheNeo4j.class).in(Singleton.class);
+        bind(SubGraphTombstoneSettings.class).toInstance(
+                subGraphTombstoneSettings
+        );
+        bind(SubGraphTombstones.class).in(Singleton.class);
     }
 
 }
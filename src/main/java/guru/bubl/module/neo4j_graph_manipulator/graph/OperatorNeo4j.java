@@ -6,6 +6,7 @@ package guru.bubl.module.neo4j_graph_manipulator.graph;
 
 import guru.bubl.module.model.UserUris;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.UserGraphNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.QueryTemplates;
 
 import java.net.URI;
 import java.util.Date;
@@ -13,12 +14,16 @@ import java.util.Map;
 
 public interface OperatorNeo4j {
     default String queryPrefix() {
-        return String.format(
-                "MATCH%s ",
-                addToSelectUsingVariableName(
-                        "n",
-                        "uri"
-                )
+        return QueryTemplates.get(
+                () -> String.format(
+                        "MATCH%s ",
+                        addToSelectUsingVariableName(
+                                "n",
+                                "uri"
+                        )
+                ),
+                "OperatorNeo4j.queryPrefix",
+                getClass()
         );
     }
 
@@ -38,7 +43,8 @@ public interface OperatorNeo4j {
                 UserGraphNeo4j.URI_PROPERTY_NAME, uri().toString(),
                 FriendlyResourceNeo4j.props.owner.name(), UserUris.ownerUserNameFromUri(uri()),
                 FriendlyResourceNeo4j.props.creation_date.name(), now,
-                FriendlyResourceNeo4j.props.last_modification_date.name(), now
+                FriendlyResourceNeo4j.props.last_modification_date.name(), now,
+                FriendlyResourceNeo4j.props.last_change_date.name(), now
         );
         newMap.putAll(
                 map
@@ -16,6 +16,7 @@ import org.neo4j.driver.Session;
 
 import java.util.Date;
 
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
 import static org.neo4j.driver.Values.parameters;
 
 public class CenterGraphElementOperatorNeo4j implements CenterGraphElementOperator {
@@ -43,27 +44,29 @@ public class CenterGraphElementOperatorNeo4j implements CenterGraphElementOperat
     @Override
     public void incrementNumberOfVisits() {
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     neo4jFriendlyResource.queryPrefix() + "SET n.nb_visits= CASE WHEN n.nb_visits is null THEN 1 ELSE n.nb_visits + 1 END",
                     parameters(
                             "uri",
                             neo4jFriendlyResource.uri().toString()
                     )
-            );
+            ).consume());
         }
     }
 
     @Override
     public Integer getNumberOfVisits() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    neo4jFriendlyResource.queryPrefix() + "RETURN n.nb_visits as number;",
-                    parameters(
-                            "uri", neo4jFriendlyResource.uri().toString()
-                    )
-            ).single();
-            Object numberAsObject = record.get("number").asObject();
-            return numberAsObject == null ? 0 : (Integer) numberAsObject;
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        neo4jFriendlyResource.queryPrefix() + "RETURN n.nb_visits as number;",
+                        parameters(
+                                "uri", neo4jFriendlyResource.uri().toString()
+                        )
+                ).single();
+                Object numberAsObject = record.get("number").asObject();
+                return numberAsObject == null ? 0 : (Integer) numberAsObject;
+            });
         }
     }
 
@@ -75,42 +78,44 @@ public class CenterGraphElementOperatorNeo4j implements CenterGraphElementOperat
     @Override
     public void setLastCenterDate(Date lastCenterDate) {
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     neo4jFriendlyResource.queryPrefix() + "SET n.last_center_date=$lastCenterDate",
                     parameters(
                             "uri",
                             neo4jFriendlyResource.uri().toString(),
                             "lastCenterDate", lastCenterDate.getTime()
                     )
-            );
+            ).consume());
         }
     }
 
     @Override
     public Date getLastCenterDate() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    neo4jFriendlyResource.queryPrefix() + "RETURN n.last_center_date as date;",
-                    parameters(
-                            "uri", neo4jFriendlyResource.uri().toString()
-                    )
-            ).single();
-            Object dateAsObject = record.get("date").asObject();
-            return dateAsObject == null ? null : new Date(
-                    (Long) (dateAsObject)
-            );
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        neo4jFriendlyResource.queryPrefix() + "RETURN n.last_center_date as date;",
+                        parameters(
+                                "uri", neo4jFriendlyResource.uri().toString()
+                        )
+                ).single();
+                Object dateAsObject = record.get("date").asObject();
+                return dateAsObject == null ? null : new Date(
+                        (Long) (dateAsObject)
+                );
+            });
         }
     }
 
     @Override
     public void remove() {
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     "MATCH(n:GraphElement{uri:$uri}) REMOVE n.last_center_date, n.nb_visits",
                     parameters(
                             "uri", neo4jFriendlyResource.uri().toString()
                     )
-            );
+            ).consume());
         }
     }
 }
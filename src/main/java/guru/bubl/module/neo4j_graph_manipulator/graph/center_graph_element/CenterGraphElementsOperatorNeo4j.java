@@ -14,16 +14,19 @@ import guru.bubl.module.model.graph.FriendlyResourcePojo;
 import guru.bubl.module.model.graph.ShareLevel;
 import guru.bubl.module.model.graph.fork.NbNeighborsPojo;
 import guru.bubl.module.model.graph.graph_element.GraphElementPojo;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.QueryTemplates;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.TagQueryBuilder;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.TagsFromExtractorQueryRowAsArray;
 import org.neo4j.driver.*;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
 import static org.neo4j.driver.Values.parameters;
 
 public class CenterGraphElementsOperatorNeo4j implements CenteredGraphElementsOperator {
@@ -152,7 +155,6 @@ public class CenterGraphElementsOperatorNeo4j implements CenteredGraphElementsOp
 
 
     private List<CenterGraphElementPojo> get(String match, User user, Boolean filterOnUser, Boolean nbPrivate, Boolean nbPublic, Boolean nbFriends, String sortBy, Boolean includeNonCenters, Integer... inShareLevelsIntegers) {
-        List<CenterGraphElementPojo> centerGraphElements = new ArrayList<>();
         Set<ShareLevel> inShareLevels = inShareLevelsIntegers.length == 0 ? ShareLevel.allShareLevels : ShareLevel.arrayOfIntegersToSet(inShareLevelsIntegers);
         String context;
         Boolean shareLevelContainsPrivate = inShareLevels.contains(ShareLevel.PRIVATE);
@@ -163,84 +165,100 @@ public class CenterGraphElementsOperatorNeo4j implements CenteredGraphElementsOp
         } else {
             context = "public_context";
         }
-        try (Session session = driver.session()) {
-            Result rs = session.run(
-                    String.format(
-                            match + " 1=1 " +
-                                    (filterOnUser ? "AND n.owner=$owner" : "") + (includeNonCenters ? " " : " AND EXISTS(n.last_center_date) ") +
-                                    (inShareLevelsIntegers.length == 0 ? " " : "AND n.shareLevel IN $shareLevels ") +
-                                    "OPTIONAL MATCH (n)-[:IDENTIFIED_TO]->(id) " +
-                                    (inShareLevelsIntegers.length == 0 ? " " : "WHERE id.shareLevel IN $shareLevels ") +
-                                    "RETURN " +
-                                    TagQueryBuilder.tagReturnQueryPart(inShareLevels) +
-                                    "%s %s %s n.%s as context, n.nb_visits as nbVisits, n.creation_date as creationDate, n.last_center_date as lastCenterDate, n.label as label, n.uri as uri, n.colors as colors, n.shareLevel, 'Pattern' IN LABELS(n) as isPattern " +
-                                    "ORDER BY " + sortBy + " DESC " +
-                                    "SKIP " + skip +
-                                    " LIMIT " + limit,
-                            (nbPrivate ? "n.nb_private_neighbors as nbPrivateNeighbors," : ""),
-                            (nbPrivate || nbFriends ? "n.nb_friend_neighbors as nbFriendNeighbors," : ""),
-                            (nbPrivate || nbFriends || nbPublic ? "n.nb_public_neighbors as nbPublic," : ""),
-                            context
-                    ),
-                    parameters(
-                            "owner", user == null ? "" : user.username(),
-                            "shareLevels", inShareLevelsIntegers
-                    )
-            );
-            Boolean includeLastCenterDate = shareLevelContainsPrivate;
-            while (rs.hasNext()) {
-                Record record = rs.next();
-                Date lastCenterDate = !includeLastCenterDate || null == record.get("lastCenterDate").asObject() ?
-                        null :
-                        new Date(record.get("lastCenterDate").asLong());
-                Integer nbVisits = null == record.get("nbVisits").asObject() ?
-                        null :
-                        record.get("nbVisits").asInt();
-                Integer nbPrivateNeighbors = null == record.get("nbPrivateNeighbors").asObject() ?
-                        null :
-                        record.get("nbPrivateNeighbors").asInt();
-                Integer nbFriendNeighbors = null == record.get("nbFriendNeighbors").asObject() ?
-                        null :
-                        record.get("nbFriendNeighbors").asInt();
-                Integer nbPublicNeighbors = null == record.get("nbPublic").asObject() ?
-                        null :
-                        record.get("nbPublic").asInt();
-                Long creationDate = null == record.get("creationDate").asObject() ?
-                        null :
-                        record.get("creationDate").asLong();
-                String colors = record.get("colors").asString();
-                ShareLevel shareLevel = record.get("n.shareLevel").asObject() == null ? ShareLevel.PRIVATE : ShareLevel.get(
-                        record.get("n.shareLevel").asInt()
-                );
-                GraphElementPojo graphElement = new GraphElementPojo(
-                        new FriendlyResourcePojo(
-                                URI.create(record.get("uri").asString()),
-                                record.get("label").asString()
-                        ),
-                        TagsFromExtractorQueryRowAsArray.usingRowAndKey(
-                                record,
-                                "id"
-                        ).build()
-                );
-                graphElement.setCreationDate(creationDate);
-                graphElement.setColors(colors);
-                centerGraphElements.add(
-                        new CenterGraphElementPojo(
-                                nbVisits,
-                                lastCenterDate,
-                                graphElement,
-                                getContextFromRow(record),
-                                shareLevel,
-                                record.get("isPattern").asBoolean(),
-                                new NbNeighborsPojo(
-                                        nbPrivateNeighbors,
-                                        nbFriendNeighbors,
-                                        nbPublicNeighbors
-                                )
+        String query = QueryTemplates.get(
+                () -> String.format(
+                        match + " 1=1 " +
+                                (filterOnUser ? "AND n.owner=$owner" : "") + (includeNonCenters ? " " : " AND EXISTS(n.last_center_date) ") +
+                                (inShareLevelsIntegers.length == 0 ? " " : "AND n.shareLevel IN $shareLevels ") +
+                                "OPTIONAL MATCH (n)-[:IDENTIFIED_TO]->(id) " +
+                                (inShareLevelsIntegers.length == 0 ? " " : "WHERE id.shareLevel IN $shareLevels ") +
+                                "RETURN " +
+                                TagQueryBuilder.tagReturnQueryPart(inShareLevels) +
+                                "%s %s %s n.%s as context, n.nb_visits as nbVisits, n.creation_date as creationDate, n.last_center_date as lastCenterDate, n.label as label, n.uri as uri, n.colors as colors, n.shareLevel, 'Pattern' IN LABELS(n) as isPattern " +
+                                "ORDER BY " + sortBy + " DESC " +
+                                "SKIP $skip LIMIT $limit",
+                        (nbPrivate ? "n.nb_private_neighbors as nbPrivateNeighbors," : ""),
+                        (nbPrivate || nbFriends ? "n.nb_friend_neighbors as nbFriendNeighbors," : ""),
+                        (nbPrivate || nbFriends || nbPublic ? "n.nb_public_neighbors as nbPublic," : ""),
+                        context
+                ),
+                "CenterGraphElementsOperatorNeo4j.get",
+                match,
+                filterOnUser,
+                nbPrivate,
+                nbPublic,
+                nbFriends,
+                sortBy,
+                includeNonCenters,
+                Arrays.asList(inShareLevelsIntegers)
+        );
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                List<CenterGraphElementPojo> centerGraphElements = new ArrayList<>();
+                Result rs = tx.run(
+                        query,
+                        parameters(
+                                "owner", user == null ? "" : user.username(),
+                                "shareLevels", inShareLevelsIntegers,
+                                "skip", skip,
+                                "limit", limit
                         )
                 );
-            }
-            return centerGraphElements;
+                Boolean includeLastCenterDate = shareLevelContainsPrivate;
+                while (rs.hasNext()) {
+                    Record record = rs.next();
+                    Date lastCenterDate = !includeLastCenterDate || null == record.get("lastCenterDate").asObject() ?
+                            null :
+                            new Date(record.get("lastCenterDate").asLong());
+                    Integer nbVisits = null == record.get("nbVisits").asObject() ?
+                            null :
+                            record.get("nbVisits").asInt();
+                    Integer nbPrivateNeighbors = null == record.get("nbPrivateNeighbors").asObject() ?
+                            null :
+                            record.get("nbPrivateNeighbors").asInt();
+                    Integer nbFriendNeighbors = null == record.get("nbFriendNeighbors").asObject() ?
+                            null :
+                            record.get("nbFriendNeighbors").asInt();
+                    Integer nbPublicNeighbors = null == record.get("nbPublic").asObject() ?
+                            null :
+                            record.get("nbPublic").asInt();
+                    Long creationDate = null == record.get("creationDate").asObject() ?
+                            null :
+                            record.get("creationDate").asLong();
+                    String colors = record.get("colors").asString();
+                    ShareLevel shareLevel = record.get("n.shareLevel").asObject() == null ? ShareLevel.PRIVATE : ShareLevel.get(
+                            record.get("n.shareLevel").asInt()
+                    );
+                    GraphElementPojo graphElement = new GraphElementPojo(
+                            new FriendlyResourcePojo(
+                                    URI.create(record.get("uri").asString()),
+                                    record.get("label").asString()
+                            ),
+                            TagsFromExtractorQueryRowAsArray.usingRowAndKey(
+                                    record,
+                                    "id"
+                            ).build()
+                    );
+                    graphElement.setCreationDate(creationDate);
+                    graphElement.setColors(colors);
+                    centerGraphElements.add(
+                            new CenterGraphElementPojo(
+                                    nbVisits,
+                                    lastCenterDate,
+                                    graphElement,
+                                    getContextFromRow(record),
+                                    shareLevel,
+                                    record.get("isPattern").asBoolean(),
+                                    new NbNeighborsPojo(
+                                            nbPrivateNeighbors,
+                                            nbFriendNeighbors,
+                                            nbPublicNeighbors
+                                    )
+                            )
+                    );
+                }
+                return centerGraphElements;
+            });
         }
     }
 
@@ -0,0 +1,31 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.driver;
+
+import org.neo4j.driver.async.AsyncSession;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+public class AsyncSessionsNeo4j {
+
+    /*
+    completes with the outcome of the stage once the session is closed,
+    the session is closed on failure too
+     */
+    public static <T> CompletionStage<T> closeAfter(AsyncSession session, CompletionStage<T> stage) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        stage.whenComplete((result, error) -> session.closeAsync().whenComplete((ignore, closeError) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else if (closeError != null) {
+                future.completeExceptionally(closeError);
+            } else {
+                future.complete(result);
+            }
+        }));
+        return future;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.driver;
+
+import org.neo4j.driver.ConnectionPoolMetrics;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.exceptions.ClientException;
+
+public class DriverPoolMetrics {
+
+    private Integer nbPools = 0;
+    private Integer inUse = 0;
+    private Integer idle = 0;
+    private Integer acquiring = 0;
+    private Long acquired = 0L;
+    private Long timedOutToAcquire = 0L;
+    private Long totalAcquisitionTimeMs = 0L;
+
+    public static DriverPoolMetrics ofDriver(Driver driver) {
+        DriverPoolMetrics driverPoolMetrics = new DriverPoolMetrics();
+        try {
+            for (ConnectionPoolMetrics pool : driver.metrics().connectionPoolMetrics()) {
+                driverPoolMetrics.add(pool);
+            }
+        } catch (ClientException driverMetricsDisabled) {
+            return driverPoolMetrics;
+        }
+        return driverPoolMetrics;
+    }
+
+    protected DriverPoolMetrics() {
+    }
+
+    private void add(ConnectionPoolMetrics pool) {
+        nbPools++;
+        inUse += pool.inUse();
+        idle += pool.idle();
+        acquiring += pool.acquiring();
+        acquired += pool.acquired();
+        timedOutToAcquire += pool.timedOutToAcquire();
+        totalAcquisitionTimeMs += pool.totalAcquisitionTime();
+    }
+
+    public Integer getNbPools() {
+        return nbPools;
+    }
+
+    public Integer getInUse() {
+        return inUse;
+    }
+
+    public Integer getIdle() {
+        return idle;
+    }
+
+    public Integer getAcquiring() {
+        return acquiring;
+    }
+
+    public Long getAcquired() {
+        return acquired;
+    }
+
+    public Long getTimedOutToAcquire() {
+        return timedOutToAcquire;
+    }
+
+    public Long getTotalAcquisitionTimeMs() {
+        return totalAcquisitionTimeMs;
+    }
+
+    public Double getAverageAcquisitionTimeMs() {
+        return acquired == 0 ? 0 : totalAcquisitionTimeMs.doubleValue() / acquired;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.driver;
+
+import org.neo4j.driver.Bookmark;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.async.AsyncTransaction;
+import org.neo4j.driver.async.AsyncTransactionWork;
+import org.neo4j.driver.async.ResultCursor;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+public abstract class ForwardingAsyncSession implements AsyncSession {
+
+    protected final AsyncSession delegate;
+
+    protected ForwardingAsyncSession(AsyncSession delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletionStage<AsyncTransaction> beginTransactionAsync() {
+        return delegate.beginTransactionAsync();
+    }
+
+    @Override
+    public CompletionStage<AsyncTransaction> beginTransactionAsync(TransactionConfig config) {
+        return delegate.beginTransactionAsync(config);
+    }
+
+    @Override
+    public <T> CompletionStage<T> readTransactionAsync(AsyncTransactionWork<CompletionStage<T>> work) {
+        return delegate.readTransactionAsync(work);
+    }
+
+    @Override
+    public <T> CompletionStage<T> readTransactionAsync(AsyncTransactionWork<CompletionStage<T>> work, TransactionConfig config) {
+        return delegate.readTransactionAsync(work, config);
+    }
+
+    @Override
+    public <T> CompletionStage<T> writeTransactionAsync(AsyncTransactionWork<CompletionStage<T>> work) {
+        return delegate.writeTransactionAsync(work);
+    }
+
+    @Override
+    public <T> CompletionStage<T> writeTransactionAsync(AsyncTransactionWork<CompletionStage<T>> work, TransactionConfig config) {
+        return delegate.writeTransactionAsync(work, config);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, TransactionConfig config) {
+        return delegate.runAsync(query, config);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Map<String, Object> parameters, TransactionConfig config) {
+        return delegate.runAsync(query, parameters, config);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(Query query, TransactionConfig config) {
+        return delegate.runAsync(query, config);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Value parameters) {
+        return delegate.runAsync(query, parameters);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Map<String, Object> parameters) {
+        return delegate.runAsync(query, parameters);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Record parameters) {
+        return delegate.runAsync(query, parameters);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query) {
+        return delegate.runAsync(query);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(Query query) {
+        return delegate.runAsync(query);
+    }
+
+    @Override
+    public Bookmark lastBookmark() {
+        return delegate.lastBookmark();
+    }
+
+    @Override
+    public CompletionStage<Void> closeAsync() {
+        return delegate.closeAsync();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.driver;
+
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.async.AsyncTransaction;
+import org.neo4j.driver.async.ResultCursor;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+public abstract class ForwardingAsyncTransaction implements AsyncTransaction {
+
+    protected final AsyncTransaction delegate;
+
+    protected ForwardingAsyncTransaction(AsyncTransaction delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletionStage<Void> commitAsync() {
+        return delegate.commitAsync();
+    }
+
+    @Override
+    public CompletionStage<Void> rollbackAsync() {
+        return delegate.rollbackAsync();
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Value parameters) {
+        return delegate.runAsync(query, parameters);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Map<String, Object> parameters) {
+        return delegate.runAsync(query, parameters);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Record parameters) {
+        return delegate.runAsync(query, parameters);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query) {
+        return delegate.runAsync(query);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(Query query) {
+        return delegate.runAsync(query);
+    }
+}
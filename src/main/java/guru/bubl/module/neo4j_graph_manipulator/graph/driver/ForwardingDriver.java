@@ -0,0 +1,103 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.driver;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Metrics;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.reactive.RxSession;
+import org.neo4j.driver.types.TypeSystem;
+
+import java.util.concurrent.CompletionStage;
+
+public abstract class ForwardingDriver implements Driver {
+
+    protected final Driver delegate;
+
+    protected ForwardingDriver(Driver delegate) {
+        this.delegate = delegate;
+    }
+
+    public Driver getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public boolean isEncrypted() {
+        return delegate.isEncrypted();
+    }
+
+    @Override
+    public Session session() {
+        return delegate.session();
+    }
+
+    @Override
+    public Session session(SessionConfig sessionConfig) {
+        return delegate.session(sessionConfig);
+    }
+
+    @Override
+    public RxSession rxSession() {
+        return delegate.rxSession();
+    }
+
+    @Override
+    public RxSession rxSession(SessionConfig sessionConfig) {
+        return delegate.rxSession(sessionConfig);
+    }
+
+    @Override
+    public AsyncSession asyncSession() {
+        return delegate.asyncSession();
+    }
+
+    @Override
+    public AsyncSession asyncSession(SessionConfig sessionConfig) {
+        return delegate.asyncSession(sessionConfig);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public CompletionStage<Void> closeAsync() {
+        return delegate.closeAsync();
+    }
+
+    @Override
+    public Metrics metrics() {
+        return delegate.metrics();
+    }
+
+    @Override
+    public TypeSystem defaultTypeSystem() {
+        return delegate.defaultTypeSystem();
+    }
+
+    @Override
+    public void verifyConnectivity() {
+        delegate.verifyConnectivity();
+    }
+
+    @Override
+    public CompletionStage<Void> verifyConnectivityAsync() {
+        return delegate.verifyConnectivityAsync();
+    }
+
+    @Override
+    public boolean supportsMultiDb() {
+        return delegate.supportsMultiDb();
+    }
+
+    @Override
+    public CompletionStage<Boolean> supportsMultiDbAsync() {
+        return delegate.supportsMultiDbAsync();
+    }
+}
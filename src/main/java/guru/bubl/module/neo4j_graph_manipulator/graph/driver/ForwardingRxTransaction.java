@@ -0,0 +1,58 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.driver;
+
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.reactive.RxResult;
+import org.neo4j.driver.reactive.RxTransaction;
+import org.reactivestreams.Publisher;
+
+import java.util.Map;
+
+public abstract class ForwardingRxTransaction implements RxTransaction {
+
+    protected final RxTransaction delegate;
+
+    protected ForwardingRxTransaction(RxTransaction delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public <T> Publisher<T> commit() {
+        return delegate.commit();
+    }
+
+    @Override
+    public <T> Publisher<T> rollback() {
+        return delegate.rollback();
+    }
+
+    @Override
+    public RxResult run(String query, Value parameters) {
+        return delegate.run(query, parameters);
+    }
+
+    @Override
+    public RxResult run(String query, Map<String, Object> parameters) {
+        return delegate.run(query, parameters);
+    }
+
+    @Override
+    public RxResult run(String query, Record parameters) {
+        return delegate.run(query, parameters);
+    }
+
+    @Override
+    public RxResult run(String query) {
+        return delegate.run(query);
+    }
+
+    @Override
+    public RxResult run(Query query) {
+        return delegate.run(query);
+    }
+}
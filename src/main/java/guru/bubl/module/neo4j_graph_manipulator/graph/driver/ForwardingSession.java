@@ -0,0 +1,117 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.driver;
+
+import org.neo4j.driver.Bookmark;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.TransactionWork;
+import org.neo4j.driver.Value;
+
+import java.util.Map;
+
+public abstract class ForwardingSession implements Session {
+
+    protected final Session delegate;
+
+    protected ForwardingSession(Session delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Transaction beginTransaction() {
+        return delegate.beginTransaction();
+    }
+
+    @Override
+    public Transaction beginTransaction(TransactionConfig config) {
+        return delegate.beginTransaction(config);
+    }
+
+    @Override
+    public <T> T readTransaction(TransactionWork<T> work) {
+        return delegate.readTransaction(work);
+    }
+
+    @Override
+    public <T> T readTransaction(TransactionWork<T> work, TransactionConfig config) {
+        return delegate.readTransaction(work, config);
+    }
+
+    @Override
+    public <T> T writeTransaction(TransactionWork<T> work) {
+        return delegate.writeTransaction(work);
+    }
+
+    @Override
+    public <T> T writeTransaction(TransactionWork<T> work, TransactionConfig config) {
+        return delegate.writeTransaction(work, config);
+    }
+
+    @Override
+    public Result run(String query, TransactionConfig config) {
+        return delegate.run(query, config);
+    }
+
+    @Override
+    public Result run(String query, Map<String, Object> parameters, TransactionConfig config) {
+        return delegate.run(query, parameters, config);
+    }
+
+    @Override
+    public Result run(Query query, TransactionConfig config) {
+        return delegate.run(query, config);
+    }
+
+    @Override
+    public Result run(String query, Value parameters) {
+        return delegate.run(query, parameters);
+    }
+
+    @Override
+    public Result run(String query, Map<String, Object> parameters) {
+        return delegate.run(query, parameters);
+    }
+
+    @Override
+    public Result run(String query, Record parameters) {
+        return delegate.run(query, parameters);
+    }
+
+    @Override
+    public Result run(String query) {
+        return delegate.run(query);
+    }
+
+    @Override
+    public Result run(Query query) {
+        return delegate.run(query);
+    }
+
+    @Override
+    public Bookmark lastBookmark() {
+        return delegate.lastBookmark();
+    }
+
+    @Override
+    @Deprecated
+    public void reset() {
+        delegate.reset();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.driver;
+
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.Value;
+
+import java.util.Map;
+
+public abstract class ForwardingTransaction implements Transaction {
+
+    protected final Transaction delegate;
+
+    protected ForwardingTransaction(Transaction delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void commit() {
+        delegate.commit();
+    }
+
+    @Override
+    public void rollback() {
+        delegate.rollback();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return delegate.isOpen();
+    }
+
+    @Override
+    public Result run(String query, Value parameters) {
+        return delegate.run(query, parameters);
+    }
+
+    @Override
+    public Result run(String query, Map<String, Object> parameters) {
+        return delegate.run(query, parameters);
+    }
+
+    @Override
+    public Result run(String query, Record parameters) {
+        return delegate.run(query, parameters);
+    }
+
+    @Override
+    public Result run(String query) {
+        return delegate.run(query);
+    }
+
+    @Override
+    public Result run(Query query) {
+        return delegate.run(query);
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.driver;
+
+import org.neo4j.driver.AuthToken;
+import org.neo4j.driver.Config;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+public class Neo4jDriverSettings {
+
+    public static final String PROPERTY_PREFIX = "neo4j.driver.";
+
+    public enum props {
+        host,
+        port,
+        max_connection_pool_size,
+        connection_acquisition_timeout_ms,
+        max_connection_lifetime_ms,
+        connection_liveness_check_timeout_ms,
+        fetch_size,
+        encrypted,
+        metrics_enabled,
+        routing
+    }
+
+    private String host = "localhost";
+    private Integer port = 7687;
+    private Integer maxConnectionPoolSize = 100;
+    private Long connectionAcquisitionTimeoutMs = TimeUnit.SECONDS.toMillis(60);
+    private Long maxConnectionLifetimeMs = TimeUnit.HOURS.toMillis(1);
+    private Long connectionLivenessCheckTimeoutMs = -1L;
+    private Long fetchSize = 1000L;
+    private Boolean encrypted = false;
+    private Boolean metricsEnabled = true;
+    private Boolean routing = false;
+
+    public static Neo4jDriverSettings defaults() {
+        return new Neo4jDriverSettings();
+    }
+
+    public static Neo4jDriverSettings fromSystemProperties() {
+        return fromProperties(
+                System.getProperties()
+        );
+    }
+
+    public static Neo4jDriverSettings fromFile(File file) {
+        Properties properties = new Properties();
+        try (InputStream inputStream = new FileInputStream(file)) {
+            properties.load(inputStream);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                    "could not read neo4j driver settings from " + file.getAbsolutePath(),
+                    e
+            );
+        }
+        return fromProperties(properties);
+    }
+
+    public static Neo4jDriverSettings fromProperties(Properties properties) {
+        Neo4jDriverSettings settings = defaults();
+        String host = get(properties, props.host);
+        if (host != null) {
+            settings.setHost(host);
+        }
+        String port = get(properties, props.port);
+        if (port != null) {
+            settings.setPort(Integer.valueOf(port));
+        }
+        String maxConnectionPoolSize = get(properties, props.max_connection_pool_size);
+        if (maxConnectionPoolSize != null) {
+            settings.setMaxConnectionPoolSize(Integer.valueOf(maxConnectionPoolSize));
+        }
+        String connectionAcquisitionTimeout = get(properties, props.connection_acquisition_timeout_ms);
+        if (connectionAcquisitionTimeout != null) {
+            settings.setConnectionAcquisitionTimeoutMs(Long.valueOf(connectionAcquisitionTimeout));
+        }
+        String maxConnectionLifetime = get(properties, props.max_connection_lifetime_ms);
+        if (maxConnectionLifetime != null) {
+            settings.setMaxConnectionLifetimeMs(Long.valueOf(maxConnectionLifetime));
+        }
+        String connectionLivenessCheckTimeout = get(properties, props.connection_liveness_check_timeout_ms);
+        if (connectionLivenessCheckTimeout != null) {
+            settings.setConnectionLivenessCheckTimeoutMs(Long.valueOf(connectionLivenessCheckTimeout));
+        }
+        String fetchSize = get(properties, props.fetch_size);
+        if (fetchSize != null) {
+            settings.setFetchSize(Long.valueOf(fetchSize));
+        }
+        String encrypted = get(properties, props.encrypted);
+        if (encrypted != null) {
+            settings.setEncrypted(Boolean.valueOf(encrypted));
+        }
+        String metricsEnabled = get(properties, props.metrics_enabled);
+        if (metricsEnabled != null) {
+            settings.setMetricsEnabled(Boolean.valueOf(metricsEnabled));
+        }
+        String routing = get(properties, props.routing);
+        if (routing != null) {
+            settings.setRouting(Boolean.valueOf(routing));
+        }
+        return settings;
+    }
+
+    private static String get(Properties properties, props prop) {
+        String value = properties.getProperty(PROPERTY_PREFIX + prop.name());
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    protected Neo4jDriverSettings() {
+    }
+
+    public Neo4jDriverSettings copy() {
+        return defaults()
+                .setHost(host)
+                .setPort(port)
+                .setMaxConnectionPoolSize(maxConnectionPoolSize)
+                .setConnectionAcquisitionTimeoutMs(connectionAcquisitionTimeoutMs)
+                .setMaxConnectionLifetimeMs(maxConnectionLifetimeMs)
+                .setConnectionLivenessCheckTimeoutMs(connectionLivenessCheckTimeoutMs)
+                .setFetchSize(fetchSize)
+                .setEncrypted(encrypted)
+                .setMetricsEnabled(metricsEnabled)
+                .setRouting(routing);
+    }
+
+    public Driver buildDriver(AuthToken authToken) {
+        return GraphDatabase.driver(
+                uri(),
+                authToken,
+                toConfig()
+        );
+    }
+
+    public String uri() {
+        return (routing ? "neo4j://" : "bolt://") + host + ":" + port;
+    }
+
+    public Config toConfig() {
+        Config.ConfigBuilder builder = Config.builder()
+                .withMaxConnectionPoolSize(maxConnectionPoolSize)
+                .withConnectionAcquisitionTimeout(connectionAcquisitionTimeoutMs, TimeUnit.MILLISECONDS)
+                .withMaxConnectionLifetime(maxConnectionLifetimeMs, TimeUnit.MILLISECONDS)
+                .withConnectionLivenessCheckTimeout(connectionLivenessCheckTimeoutMs, TimeUnit.MILLISECONDS)
+                .withFetchSize(fetchSize);
+        builder = encrypted ? builder.withEncryption() : builder.withoutEncryption();
+        if (metricsEnabled) {
+            builder = builder.withDriverMetrics();
+        }
+        return builder.build();
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public Neo4jDriverSettings setHost(String host) {
+        this.host = host;
+        return this;
+    }
+
+    public Integer getPort() {
+        return port;
+    }
+
+    public Neo4jDriverSettings setPort(Integer port) {
+        this.port = port;
+        return this;
+    }
+
+    public Integer getMaxConnectionPoolSize() {
+        return maxConnectionPoolSize;
+    }
+
+    public Neo4jDriverSettings setMaxConnectionPoolSize(Integer maxConnectionPoolSize) {
+        this.maxConnectionPoolSize = maxConnectionPoolSize;
+        return this;
+    }
+
+    public Long getConnectionAcquisitionTimeoutMs() {
+        return connectionAcquisitionTimeoutMs;
+    }
+
+    public Neo4jDriverSettings setConnectionAcquisitionTimeoutMs(Long connectionAcquisitionTimeoutMs) {
+        this.connectionAcquisitionTimeoutMs = connectionAcquisitionTimeoutMs;
+        return this;
+    }
+
+    public Long getMaxConnectionLifetimeMs() {
+        return maxConnectionLifetimeMs;
+    }
+
+    public Neo4jDriverSettings setMaxConnectionLifetimeMs(Long maxConnectionLifetimeMs) {
+        this.maxConnectionLifetimeMs = maxConnectionLifetimeMs;
+        return this;
+    }
+
+    public Long getConnectionLivenessCheckTimeoutMs() {
+        return connectionLivenessCheckTimeoutMs;
+    }
+
+    /*
+    connections idle for longer than this are pinged before being handed out,
+    -1 disables the check
+     */
+    public Neo4jDriverSettings setConnectionLivenessCheckTimeoutMs(Long connectionLivenessCheckTimeoutMs) {
+        this.connectionLivenessCheckTimeoutMs = connectionLivenessCheckTimeoutMs;
+        return this;
+    }
+
+    public Long getFetchSize() {
+        return fetchSize;
+    }
+
+    public Neo4jDriverSettings setFetchSize(Long fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    public Boolean isEncrypted() {
+        return encrypted;
+    }
+
+    public Neo4jDriverSettings setEncrypted(Boolean encrypted) {
+        this.encrypted = encrypted;
+        return this;
+    }
+
+    public Boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public Neo4jDriverSettings setMetricsEnabled(Boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+        return this;
+    }
+
+    public Boolean isRouting() {
+        return routing;
+    }
+
+    /*
+    neo4j:// lets the driver route read transactions to followers and read replicas
+     */
+    public Neo4jDriverSettings setRouting(Boolean routing) {
+        this.routing = routing;
+        return this;
+    }
+}
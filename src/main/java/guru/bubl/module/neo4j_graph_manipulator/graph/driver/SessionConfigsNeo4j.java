@@ -0,0 +1,19 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.driver;
+
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.SessionConfig;
+
+public class SessionConfigsNeo4j {
+
+    public static final SessionConfig READ = SessionConfig.builder().withDefaultAccessMode(
+            AccessMode.READ
+    ).build();
+
+    public static final SessionConfig WRITE = SessionConfig.builder().withDefaultAccessMode(
+            AccessMode.WRITE
+    ).build();
+}
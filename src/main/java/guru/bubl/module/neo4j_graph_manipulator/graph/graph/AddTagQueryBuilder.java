@@ -7,6 +7,7 @@ package guru.bubl.module.neo4j_graph_manipulator.graph.graph;
 import guru.bubl.module.model.graph.ShareLevel;
 import guru.bubl.module.model.graph.tag.TagPojo;
 import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.QueryTemplates;
 
 public class AddTagQueryBuilder {
 
@@ -37,13 +38,24 @@ public class AddTagQueryBuilder {
     }
 
     public String build() {
+        return QueryTemplates.get(
+                this::buildQuery,
+                "AddTagQueryBuilder",
+                queryPrefix,
+                sourceShareLevel,
+                tagExternalUri
+        );
+    }
+
+    private String buildQuery() {
         String neighborsPropertyName = sourceShareLevel.getNbNeighborsPropertyName();
         String tagExternalUriQueryPart;
         if (tagExternalUri) {
             tagExternalUriQueryPart = String.format("WITH f " +
                             "OPTIONAL MATCH(e:Resource{uri:$external_uri}) " +
                             "MERGE (e)-[:IDENTIFIED_TO]->(f)" +
-                            "ON CREATE SET f.%s=f.%s + 1 ",
+                            "ON CREATE SET f.%s=f.%s + 1," +
+                            FriendlyResourceNeo4j.changeQueryPart("f"),
                     neighborsPropertyName,
                     neighborsPropertyName
             );
@@ -63,12 +75,14 @@ public class AddTagQueryBuilder {
                         "f.images=$images," +
                         "f.creation_date=$creationDate," +
                         "f.last_modification_date=timestamp()," +
+                        "f.last_change_date=timestamp()," +
                         "f.nb_private_neighbors=0," +
                         "f.nb_friend_neighbors=0," +
                         "f.nb_public_neighbors=0 " +
                         "MERGE (n)-[r:IDENTIFIED_TO]->(f) " +
                         "SET r.relation_external_uri=$relationExternalUri, " +
                         "f.%s=f.%s + 1, " +
+                        FriendlyResourceNeo4j.changeQueryPart("f") + "," +
                         FriendlyResourceNeo4j.LAST_MODIFICATION_QUERY_PART +
                         tagExternalUriQueryPart +
                         "RETURN f.uri as uri, " +
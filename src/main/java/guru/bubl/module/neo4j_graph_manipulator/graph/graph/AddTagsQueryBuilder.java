@@ -0,0 +1,87 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph;
+
+import guru.bubl.module.model.graph.ShareLevel;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.QueryTemplates;
+
+/*
+same statement as AddTagQueryBuilder, one row per graph element and tag,
+tagging the external uri is decided per row
+ */
+public class AddTagsQueryBuilder {
+
+    private ShareLevel sourceShareLevel;
+
+    public static AddTagsQueryBuilder forSourceShareLevel(ShareLevel sourceShareLevel) {
+        return new AddTagsQueryBuilder(
+                sourceShareLevel
+        );
+    }
+
+    protected AddTagsQueryBuilder(ShareLevel sourceShareLevel) {
+        this.sourceShareLevel = sourceShareLevel;
+    }
+
+    public String build() {
+        return QueryTemplates.get(
+                this::buildQuery,
+                "AddTagsQueryBuilder",
+                sourceShareLevel
+        );
+    }
+
+    private String buildQuery() {
+        String neighborsPropertyName = sourceShareLevel.getNbNeighborsPropertyName();
+        return String.format(
+                "UNWIND $rows as row " +
+                        "MATCH (n:Resource{uri:row.uri}) " +
+                        "MERGE (f:Resource:GraphElement:Meta{external_uri:row.external_uri, owner:row.owner}) " +
+                        "ON CREATE SET f.uri=row.metaUri," +
+                        "f.shareLevel=row.shareLevel," +
+                        "f.label=row.label," +
+                        "f.comment=row.comment," +
+                        "f.private_context=row.privateContext," +
+                        "f.friend_context=row.friendContext," +
+                        "f.public_context=row.publicContext," +
+                        "f.nb_visits=0," +
+                        "f.images=row.images," +
+                        "f.creation_date=row.creationDate," +
+                        "f.last_modification_date=timestamp()," +
+                        "f.last_change_date=timestamp()," +
+                        "f.nb_private_neighbors=0," +
+                        "f.nb_friend_neighbors=0," +
+                        "f.nb_public_neighbors=0 " +
+                        "MERGE (n)-[r:IDENTIFIED_TO]->(f) " +
+                        "SET r.relation_external_uri=row.relationExternalUri, " +
+                        "f.%s=f.%s + 1, " +
+                        "f.last_change_date=timestamp(), " +
+                        "n.last_modification_date=row.last_modification_date, " +
+                        "n.last_change_date=timestamp() " +
+                        "WITH row, f " +
+                        "OPTIONAL MATCH(e:Resource{uri:row.external_uri}) WHERE row.tagExternalUri " +
+                        "FOREACH (ignored IN CASE WHEN e IS NULL THEN [] ELSE [1] END | " +
+                        "MERGE (e)-[:IDENTIFIED_TO]->(f) " +
+                        "ON CREATE SET f.%s=f.%s + 1, f.last_change_date=timestamp()) " +
+                        "RETURN row.uri as graphElementUri, " +
+                        "row.requestedExternalUri as requestedExternalUri, " +
+                        "f.uri as uri, " +
+                        "f.external_uri as external_uri, " +
+                        "f.label as label, " +
+                        "f.comment as comment, " +
+                        "f.images as images, " +
+                        "f.creation_date as creation_date, " +
+                        "f.last_modification_date as last_modification_date, " +
+                        "f.nb_private_neighbors as nbPrivateNeighbors, " +
+                        "f.nb_friend_neighbors as nbFriendNeighbors, " +
+                        "f.nb_public_neighbors as nbPublicNeighbors, " +
+                        "f.shareLevel",
+                neighborsPropertyName,
+                neighborsPropertyName,
+                neighborsPropertyName,
+                neighborsPropertyName
+        );
+    }
+}
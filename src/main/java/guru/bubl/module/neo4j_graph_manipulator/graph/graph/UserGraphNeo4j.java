@@ -12,12 +12,17 @@ import guru.bubl.module.model.graph.subgraph.UserGraph;
 import guru.bubl.module.model.graph.vertex.VertexOperator;
 import guru.bubl.module.model.graph.vertex.VertexPojo;
 import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.BudgetedSubGraph;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphBudget;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphDelta;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphExtractorFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.vertex.VertexFactoryNeo4j;
 import org.neo4j.driver.Driver;
 
 import javax.inject.Inject;
 import java.net.URI;
+import java.util.Collection;
+import java.util.Set;
 
 public class UserGraphNeo4j implements UserGraph {
 
@@ -51,6 +56,10 @@ public class UserGraphNeo4j implements UserGraph {
         return FriendlyResourceNeo4j.haveElementWithUri(uri, driver);
     }
 
+    public Set<URI> existingUris(Collection<URI> uris) {
+        return FriendlyResourceNeo4j.existingUris(uris, driver);
+    }
+
     @Override
     public SubGraphPojo aroundForkUriInShareLevels(URI centerVertexUri, Integer... shareLevels) {
         return subGraphExtractorFactory.withCenterVertexInShareLevels(
@@ -68,6 +77,22 @@ public class UserGraphNeo4j implements UserGraph {
         ).load();
     }
 
+    public BudgetedSubGraph aroundForkUriWithDepthInShareLevels(URI centerVertexUri, Integer depth, SubGraphBudget budget, Integer... shareLevels) {
+        return subGraphExtractorFactory.withCenterVertexInShareLevelsAndDepth(
+                centerVertexUri,
+                depth,
+                shareLevels
+        ).loadWithinBudget(budget);
+    }
+
+    public SubGraphDelta aroundForkUriWithDepthInShareLevelsSince(URI centerVertexUri, Integer depth, Long lastModificationDate, Integer... shareLevels) {
+        return subGraphExtractorFactory.withCenterVertexInShareLevelsAndDepth(
+                centerVertexUri,
+                depth,
+                shareLevels
+        ).loadChangesSince(lastModificationDate);
+    }
+
     @Override
     public VertexPojo createVertex() {
         VertexOperator operator = vertexFactory.createForOwner(
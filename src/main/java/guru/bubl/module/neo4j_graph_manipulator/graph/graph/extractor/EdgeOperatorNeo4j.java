@@ -9,16 +9,21 @@ import guru.bubl.module.model.graph.edge.EdgeOperator;
 import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.OperatorNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.Relationships;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementSpecialOperatorFactory;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
 import org.neo4j.driver.Session;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import static guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementOperatorNeo4j.decrementNbNeighborsQueryPart;
 import static guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementOperatorNeo4j.incrementNbNeighborsQueryPart;
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
 import static org.neo4j.driver.Values.parameters;
 
 public class EdgeOperatorNeo4j implements EdgeOperator, OperatorNeo4j {
@@ -31,6 +36,9 @@ public class EdgeOperatorNeo4j implements EdgeOperator, OperatorNeo4j {
     @Inject
     private Driver driver;
 
+    @Inject
+    private SubGraphCacheNeo4j subGraphCache;
+
     @AssistedInject
     protected EdgeOperatorNeo4j(
             @Assisted URI uri
@@ -76,6 +84,54 @@ public class EdgeOperatorNeo4j implements EdgeOperator, OperatorNeo4j {
             ShareLevel oldEndShareLevel,
             ShareLevel keptEndShareLevel,
             ShareLevel newEndShareLevel
+    ) {
+        String query = QueryTemplates.get(
+                () -> changeEndVertexQuery(
+                        relationshipToChange,
+                        oldEndShareLevel,
+                        keptEndShareLevel,
+                        newEndShareLevel
+                ),
+                "EdgeOperatorNeo4j.changeEndVertex",
+                relationshipToChange,
+                oldEndShareLevel,
+                keptEndShareLevel,
+                newEndShareLevel
+        );
+        List<URI> changedUris = new ArrayList<>();
+        changedUris.add(uri());
+        changedUris.add(newEndUri);
+        try (Session session = driver.session()) {
+            session.writeTransaction(tx -> {
+                Result result = tx.run(
+                        query,
+                        parameters(
+                                "uri",
+                                this.uri().toString(),
+                                "endVertexUri",
+                                newEndUri.toString(),
+                                "last_modification_date",
+                                new Date().getTime()
+                        )
+                );
+                while (result.hasNext()) {
+                    Record record = result.next();
+                    changedUris.add(URI.create(record.get("previousEndUri").asString()));
+                    if (!record.get("keptEndUri").isNull()) {
+                        changedUris.add(URI.create(record.get("keptEndUri").asString()));
+                    }
+                }
+                return null;
+            });
+        }
+        subGraphCache.invalidate(changedUris);
+    }
+
+    private String changeEndVertexQuery(
+            Relationships relationshipToChange,
+            ShareLevel oldEndShareLevel,
+            ShareLevel keptEndShareLevel,
+            ShareLevel newEndShareLevel
     ) {
         Relationships relationshipToKeep = Relationships.SOURCE == relationshipToChange ?
                 Relationships.DESTINATION : Relationships.SOURCE;
@@ -107,7 +163,7 @@ public class EdgeOperatorNeo4j implements EdgeOperator, OperatorNeo4j {
                 "new_v",
                 ", "
         );
-        String query = String.format(
+        return String.format(
                 "%s, (new_v:Resource{uri:$endVertexUri}), " +
                         "(n)-[prev_rel:%s]->(prev_v) " +
                         "OPTIONAL MATCH (n)-[:%s]->(kept_v) " +
@@ -116,26 +172,14 @@ public class EdgeOperatorNeo4j implements EdgeOperator, OperatorNeo4j {
                         decrementPreviousVertexQueryPart +
                         decrementKeptVertexQueryPart +
                         incrementKeptVertexQueryPart +
-                        incrementNewEndVertexQueryPart + ",%s",
+                        incrementNewEndVertexQueryPart + ",%s" +
+                        "RETURN prev_v.uri as previousEndUri, kept_v.uri as keptEndUri",
                 queryPrefix(),
                 relationshipToChange,
                 relationshipToKeep,
                 relationshipToChange,
                 FriendlyResourceNeo4j.LAST_MODIFICATION_QUERY_PART
         );
-        try (Session session = driver.session()) {
-            session.run(
-                    query,
-                    parameters(
-                            "uri",
-                            this.uri().toString(),
-                            "endVertexUri",
-                            newEndUri.toString(),
-                            "last_modification_date",
-                            new Date().getTime()
-                    )
-            );
-        }
     }
 
     @Override
@@ -145,33 +189,37 @@ public class EdgeOperatorNeo4j implements EdgeOperator, OperatorNeo4j {
 
     @Override
     public URI sourceUri() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    queryPrefix() +
-                            "MATCH (n)-[:SOURCE]->(v) " +
-                            "RETURN v.uri as uri",
-                    parameters(
-                            "uri",
-                            uri().toString()
-                    )
-            ).single();
-            return URI.create(record.get("uri").asString());
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        queryPrefix() +
+                                "MATCH (n)-[:SOURCE]->(v) " +
+                                "RETURN v.uri as uri",
+                        parameters(
+                                "uri",
+                                uri().toString()
+                        )
+                ).single();
+                return URI.create(record.get("uri").asString());
+            });
         }
     }
 
     @Override
     public URI destinationUri() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    queryPrefix() +
-                            "MATCH (n)-[:DESTINATION]->(v) " +
-                            "RETURN v.uri as uri",
-                    parameters(
-                            "uri",
-                            uri().toString()
-                    )
-            ).single();
-            return URI.create(record.get("uri").asString());
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        queryPrefix() +
+                                "MATCH (n)-[:DESTINATION]->(v) " +
+                                "RETURN v.uri as uri",
+                        parameters(
+                                "uri",
+                                uri().toString()
+                        )
+                ).single();
+                return URI.create(record.get("uri").asString());
+            });
         }
     }
 
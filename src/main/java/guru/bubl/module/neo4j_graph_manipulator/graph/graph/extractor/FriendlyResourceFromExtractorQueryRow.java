@@ -7,11 +7,11 @@ package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor;
 import guru.bubl.module.common_utils.NoEx;
 import guru.bubl.module.model.Image;
 import guru.bubl.module.model.graph.FriendlyResourcePojo;
-import guru.bubl.module.model.json.ImageJson;
 import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.UserGraphNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.image.ImageJsonCache;
 import guru.bubl.module.neo4j_graph_manipulator.graph.image.ImagesNeo4j;
-import org.neo4j.driver.Record;
+import org.neo4j.driver.types.MapAccessor;
 
 import java.net.URI;
 import java.util.Date;
@@ -19,11 +19,11 @@ import java.util.Set;
 
 public class FriendlyResourceFromExtractorQueryRow {
 
-    private Record record;
+    private MapAccessor record;
     private String nodeKey;
 
     public static FriendlyResourceFromExtractorQueryRow usingRowAndNodeKey(
-            Record record,
+            MapAccessor record,
             String nodeKey
     ) {
         return new FriendlyResourceFromExtractorQueryRow(
@@ -33,7 +33,7 @@ public class FriendlyResourceFromExtractorQueryRow {
     }
 
     public static FriendlyResourceFromExtractorQueryRow usingRowAndPrefix(
-            Record record,
+            MapAccessor record,
             String nodeKey
     ) {
         return new FriendlyResourceFromExtractorQueryRow(
@@ -42,7 +42,7 @@ public class FriendlyResourceFromExtractorQueryRow {
         );
     }
 
-    protected FriendlyResourceFromExtractorQueryRow(Record record, String nodeKey) {
+    protected FriendlyResourceFromExtractorQueryRow(MapAccessor record, String nodeKey) {
         this.record = record;
         this.nodeKey = nodeKey;
     }
@@ -59,7 +59,7 @@ public class FriendlyResourceFromExtractorQueryRow {
     }
 
     private Set<Image> getImages() {
-        return ImageJson.fromJson(
+        return ImageJsonCache.fromJson(
                 record.get(
                         nodeKey + "." + ImagesNeo4j.props.images
                 ).asString()
@@ -11,6 +11,14 @@ import guru.bubl.module.neo4j_graph_manipulator.graph.image.ImagesNeo4j;
 public class FriendlyResourceQueryBuilder {
 
     public static String returnQueryPartUsingPrefix(String prefix) {
+        return QueryTemplates.get(
+                () -> buildReturnQueryPartUsingPrefix(prefix),
+                "FriendlyResourceQueryBuilder.returnQueryPart",
+                prefix
+        );
+    }
+
+    private static String buildReturnQueryPartUsingPrefix(String prefix) {
         return
                 QueryUtils.getPropertyUsingContainerNameQueryPart(
                         prefix,
@@ -39,9 +47,13 @@ public class FriendlyResourceQueryBuilder {
     }
 
     public static String imageReturnQueryPart(String key) {
-        return QueryUtils.getPropertyUsingContainerNameQueryPart(
-                key,
-                ImagesNeo4j.props.images.name()
+        return QueryTemplates.get(
+                () -> QueryUtils.getPropertyUsingContainerNameQueryPart(
+                        key,
+                        ImagesNeo4j.props.images.name()
+                ),
+                "FriendlyResourceQueryBuilder.imageReturnQueryPart",
+                key
         );
     }
 }
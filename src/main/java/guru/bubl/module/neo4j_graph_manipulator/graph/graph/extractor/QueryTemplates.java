@@ -0,0 +1,50 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/*
+generated cypher is built once per variant and the interned string is handed out after that,
+the key has to cover everything the builder depends on
+ */
+public class QueryTemplates {
+
+    private static final Map<List<Object>, String> templates = new ConcurrentHashMap<>();
+    private static final Map<String, String> templateNames = new ConcurrentHashMap<>();
+
+    public static String get(Supplier<String> builder, Object... key) {
+        List<Object> templateKey = Arrays.asList(key);
+        String template = templates.get(templateKey);
+        if (template != null) {
+            return template;
+        }
+        /*
+        not computeIfAbsent because builders can themselves ask for other templates
+         */
+        template = builder.get().intern();
+        String previous = templates.putIfAbsent(templateKey, template);
+        if (previous != null) {
+            return previous;
+        }
+        templateNames.putIfAbsent(template, String.valueOf(key[0]));
+        return template;
+    }
+
+    /*
+    name is the first part of the key, null when the query was not built here
+     */
+    public static String nameOf(String query) {
+        return templateNames.get(query);
+    }
+
+    public static Integer getNbTemplates() {
+        return templates.size();
+    }
+}
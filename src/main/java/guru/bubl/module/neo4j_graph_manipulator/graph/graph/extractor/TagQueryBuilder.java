@@ -26,6 +26,25 @@ public class TagQueryBuilder {
     public static String tagReturnQueryPartUsingKeysForIdentificationRelationAndAlias(
             String tagKey,
             Set<ShareLevel> inShareLevels
+    ) {
+        Boolean hasPrivate = inShareLevels.contains(ShareLevel.PRIVATE);
+        Boolean hasFriends = inShareLevels.contains(ShareLevel.FRIENDS);
+        Boolean hasPublic = inShareLevels.contains(ShareLevel.PUBLIC) || inShareLevels.contains(ShareLevel.PUBLIC_WITH_LINK);
+        return QueryTemplates.get(
+                () -> buildTagReturnQueryPart(tagKey, hasPrivate, hasFriends, hasPublic),
+                "TagQueryBuilder.tagReturnQueryPart",
+                tagKey,
+                hasPrivate,
+                hasFriends,
+                hasPublic
+        );
+    }
+
+    private static String buildTagReturnQueryPart(
+            String tagKey,
+            Boolean hasPrivate,
+            Boolean hasFriends,
+            Boolean hasPublic
     ) {
         return "COLLECT([" +
                 QueryUtils.getPropertyUsingContainerNameQueryPart(
@@ -59,15 +78,15 @@ public class TagQueryBuilder {
                         tagKey,
                         "shareLevel"
                 ) +
-                (inShareLevels.contains(ShareLevel.PRIVATE) ? QueryUtils.getPropertyUsingContainerNameQueryPart(
+                (hasPrivate ? QueryUtils.getPropertyUsingContainerNameQueryPart(
                         tagKey,
                         ForkOperatorNeo4J.props.nb_private_neighbors.name()
                 ) : "null,") +
-                (inShareLevels.contains(ShareLevel.FRIENDS) ? QueryUtils.getPropertyUsingContainerNameQueryPart(
+                (hasFriends ? QueryUtils.getPropertyUsingContainerNameQueryPart(
                         tagKey,
                         ForkOperatorNeo4J.props.nb_friend_neighbors.name()
                 ) : "null,") +
-                (inShareLevels.contains(ShareLevel.PUBLIC) || inShareLevels.contains(ShareLevel.PUBLIC_WITH_LINK) ? QueryUtils.getLastPropertyUsingContainerNameQueryPart(
+                (hasPublic ? QueryUtils.getLastPropertyUsingContainerNameQueryPart(
                         tagKey,
                         ForkOperatorNeo4J.props.nb_public_neighbors.name()
                 ) : "null") +
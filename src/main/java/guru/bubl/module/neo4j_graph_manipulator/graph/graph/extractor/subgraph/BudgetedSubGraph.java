@@ -0,0 +1,44 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
+
+import guru.bubl.module.model.graph.subgraph.SubGraphPojo;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+
+/*
+truncated forks had neighbors left out to stay within the budget, the client loads them when expanding
+ */
+public class BudgetedSubGraph {
+
+    private SubGraphPojo subGraph;
+    private Set<URI> truncatedForkUris;
+
+    public static BudgetedSubGraph complete(SubGraphPojo subGraph) {
+        return new BudgetedSubGraph(
+                subGraph,
+                new HashSet<>()
+        );
+    }
+
+    public BudgetedSubGraph(SubGraphPojo subGraph, Set<URI> truncatedForkUris) {
+        this.subGraph = subGraph;
+        this.truncatedForkUris = truncatedForkUris;
+    }
+
+    public SubGraphPojo getSubGraph() {
+        return subGraph;
+    }
+
+    public Set<URI> getTruncatedForkUris() {
+        return truncatedForkUris;
+    }
+
+    public Boolean isTruncated() {
+        return !truncatedForkUris.isEmpty();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.TagQueryBuilder;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.types.MapAccessor;
+
+import java.util.*;
+import java.util.function.Function;
+
+/*
+a node of the compact projection read as a row of the load() query so the same builders are used,
+its properties are read with the ge. prefix of the flat columns
+ */
+class CompactNodeRow implements MapAccessor {
+
+    private static final String PREFIX = SubGraphExtractorNeo4j.GRAPH_ELEMENT_QUERY_KEY + ".";
+
+    /*
+    keys of the projection that are columns of their own in the load() rows
+     */
+    private static final Set<String> UNPREFIXED_KEYS = new HashSet<>(Arrays.asList(
+            TagQueryBuilder.TAG_QUERY_KEY,
+            "type",
+            "nId"
+    ));
+
+    private final Value node;
+
+    CompactNodeRow(Value node) {
+        this.node = node;
+    }
+
+    @Override
+    public Value get(String key) {
+        String nodeKey = nodeKey(key);
+        return nodeKey == null ? Values.NULL : node.get(nodeKey);
+    }
+
+    @Override
+    public Iterable<String> keys() {
+        List<String> keys = new ArrayList<>();
+        for (String key : node.keys()) {
+            keys.add(rowKey(key));
+        }
+        return keys;
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        String nodeKey = nodeKey(key);
+        return nodeKey != null && node.containsKey(nodeKey);
+    }
+
+    @Override
+    public int size() {
+        return node.size();
+    }
+
+    @Override
+    public Iterable<Value> values() {
+        return node.values();
+    }
+
+    @Override
+    public <T> Iterable<T> values(Function<Value, T> mapFunction) {
+        return node.values(mapFunction);
+    }
+
+    @Override
+    public Map<String, Object> asMap() {
+        return asMap(Value::asObject);
+    }
+
+    @Override
+    public <T> Map<String, T> asMap(Function<Value, T> mapFunction) {
+        Map<String, T> map = new LinkedHashMap<>();
+        for (String key : node.keys()) {
+            map.put(
+                    rowKey(key),
+                    mapFunction.apply(node.get(key))
+            );
+        }
+        return map;
+    }
+
+    private static String nodeKey(String rowKey) {
+        if (UNPREFIXED_KEYS.contains(rowKey)) {
+            return rowKey;
+        }
+        if (!rowKey.startsWith(PREFIX)) {
+            return null;
+        }
+        String key = rowKey.substring(PREFIX.length());
+        return UNPREFIXED_KEYS.contains(key) ? null : key;
+    }
+
+    private static String rowKey(String key) {
+        return UNPREFIXED_KEYS.contains(key) ? key : PREFIX + key;
+    }
+}
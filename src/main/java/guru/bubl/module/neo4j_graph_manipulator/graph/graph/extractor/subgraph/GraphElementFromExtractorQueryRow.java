@@ -7,18 +7,18 @@ package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
 import guru.bubl.module.model.graph.graph_element.GraphElementPojo;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.FriendlyResourceFromExtractorQueryRow;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.TagQueryBuilder;
-import org.neo4j.driver.Record;
+import org.neo4j.driver.types.MapAccessor;
 
 import java.net.URI;
 
 public class GraphElementFromExtractorQueryRow {
 
-    private Record record;
+    private MapAccessor record;
     private String key;
     private String identificationKey = TagQueryBuilder.TAG_QUERY_KEY;
 
     public static GraphElementFromExtractorQueryRow usingRowAndKey(
-            Record record,
+            MapAccessor record,
             String key
     ) {
         return new GraphElementFromExtractorQueryRow(
@@ -28,7 +28,7 @@ public class GraphElementFromExtractorQueryRow {
     }
 
     public static GraphElementFromExtractorQueryRow usingRowKeyAndIdentificationKey(
-            Record record,
+            MapAccessor record,
             String key,
             String identificationKey
     ) {
@@ -39,12 +39,12 @@ public class GraphElementFromExtractorQueryRow {
         );
     }
 
-    protected GraphElementFromExtractorQueryRow(Record record, String key) {
+    protected GraphElementFromExtractorQueryRow(MapAccessor record, String key) {
         this.record = record;
         this.key = key;
     }
 
-    protected GraphElementFromExtractorQueryRow(Record record, String key, String identificationKey) {
+    protected GraphElementFromExtractorQueryRow(MapAccessor record, String key, String identificationKey) {
         this.record = record;
         this.key = key;
         this.identificationKey = identificationKey;
@@ -5,7 +5,7 @@
 package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
 
 import guru.bubl.module.model.graph.group_relation.GroupRelationPojo;
-import org.neo4j.driver.Record;
+import org.neo4j.driver.types.MapAccessor;
 
 import java.net.URI;
 
@@ -13,11 +13,11 @@ import static guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.sub
 
 public class GroupRelationFromExtractorQueryRow {
 
-    private Record row;
+    private MapAccessor row;
 
     private String keyPrefix;
 
-    public static GroupRelationFromExtractorQueryRow withRowAndKeyPrefix(Record row, String keyPrefix) {
+    public static GroupRelationFromExtractorQueryRow withRowAndKeyPrefix(MapAccessor row, String keyPrefix) {
         return new GroupRelationFromExtractorQueryRow(
                 row,
                 keyPrefix
@@ -25,7 +25,7 @@ public class GroupRelationFromExtractorQueryRow {
     }
 
     public GroupRelationFromExtractorQueryRow(
-            Record row,
+            MapAccessor row,
             String keyPrefix
     ) {
         this.row = row;
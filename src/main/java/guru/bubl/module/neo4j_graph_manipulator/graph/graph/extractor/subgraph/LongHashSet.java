@@ -0,0 +1,91 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
+
+import java.util.Arrays;
+
+/*
+open addressing on a long[], node ids are never negative so -1 marks a free slot
+ */
+class LongHashSet {
+
+    private static final long FREE = -1L;
+
+    private long[] slots;
+    private int size = 0;
+
+    LongHashSet() {
+        this(64);
+    }
+
+    LongHashSet(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity = capacity << 1;
+        }
+        slots = newSlots(capacity);
+    }
+
+    boolean add(long value) {
+        if ((size + 1) * 2 > slots.length) {
+            grow();
+        }
+        boolean added = insert(slots, value);
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    boolean contains(long value) {
+        int mask = slots.length - 1;
+        int index = hash(value) & mask;
+        while (slots[index] != FREE) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static boolean insert(long[] slots, long value) {
+        int mask = slots.length - 1;
+        int index = hash(value) & mask;
+        while (slots[index] != FREE) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        return true;
+    }
+
+    private void grow() {
+        long[] grown = newSlots(slots.length << 1);
+        for (long value : slots) {
+            if (value != FREE) {
+                insert(grown, value);
+            }
+        }
+        slots = grown;
+    }
+
+    private static long[] newSlots(int capacity) {
+        long[] slots = new long[capacity];
+        Arrays.fill(slots, FREE);
+        return slots;
+    }
+
+    private static int hash(long value) {
+        long mixed = value * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
@@ -6,28 +6,28 @@ package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
 
 import guru.bubl.module.model.graph.relation.Relation;
 import guru.bubl.module.model.graph.relation.RelationPojo;
-import org.neo4j.driver.Record;
+import org.neo4j.driver.types.MapAccessor;
 
 public class RelationFromExtractorQueryRow {
 
-    private Record row;
+    private MapAccessor row;
     private String key;
 
 
-    public static RelationFromExtractorQueryRow usingRow(Record row) {
+    public static RelationFromExtractorQueryRow usingRow(MapAccessor row) {
         return new RelationFromExtractorQueryRow(
                 row
         );
     }
 
-    protected RelationFromExtractorQueryRow(Record row) {
+    protected RelationFromExtractorQueryRow(MapAccessor row) {
         this(
                 row,
                 SubGraphExtractorNeo4j.GRAPH_ELEMENT_QUERY_KEY
         );
     }
 
-    protected RelationFromExtractorQueryRow(Record row, String key) {
+    protected RelationFromExtractorQueryRow(MapAccessor row, String key) {
         this.row = row;
         this.key = key;
     }
@@ -0,0 +1,34 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
+
+/*
+group relations count as vertices, they are forks
+ */
+public class SubGraphBudget {
+
+    private Integer maxVertices;
+    private Integer maxEdges;
+
+    public static SubGraphBudget withMaxVerticesAndEdges(Integer maxVertices, Integer maxEdges) {
+        return new SubGraphBudget(
+                maxVertices,
+                maxEdges
+        );
+    }
+
+    protected SubGraphBudget(Integer maxVertices, Integer maxEdges) {
+        this.maxVertices = maxVertices;
+        this.maxEdges = maxEdges;
+    }
+
+    public Integer getMaxVertices() {
+        return maxVertices;
+    }
+
+    public Integer getMaxEdges() {
+        return maxEdges;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
+
+import com.google.inject.Inject;
+import guru.bubl.module.neo4j_graph_manipulator.graph.transaction.GraphTransaction;
+import org.neo4j.driver.Record;
+
+import java.net.URI;
+import java.util.*;
+
+/*
+rows of loaded subgraphs by center, depth and share levels, records are immutable and each hit builds its own subgraph.
+every uri traversed by a subgraph, visible or not, is indexed and a write to one of them drops the subgraphs that contain it.
+a subgraph loaded while an invalidation happened is not kept, it could have read the previous state
+ */
+public class SubGraphCacheNeo4j {
+
+    private final SubGraphCacheSettings settings;
+
+    private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<URI, Set<List<Object>>> keysOfUri = new HashMap<>();
+    private Integer nbCachedElements = 0;
+    private Long generation = 0L;
+
+    private Long nbHits = 0L;
+    private Long nbMisses = 0L;
+    private Long nbEvictions = 0L;
+    private Long nbInvalidations = 0L;
+
+    @Inject
+    public SubGraphCacheNeo4j(SubGraphCacheSettings settings) {
+        this.settings = settings;
+    }
+
+    public static List<Object> key(URI centerUri, Integer depth, Collection<Integer> shareLevels) {
+        return Arrays.asList(
+                centerUri,
+                depth,
+                new ArrayList<>(new TreeSet<>(shareLevels))
+        );
+    }
+
+    public Boolean isEnabled() {
+        return settings.getMaxEntries() > 0;
+    }
+
+    public synchronized List<Record> get(List<Object> key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            nbMisses++;
+            return null;
+        }
+        nbHits++;
+        return entry.rows;
+    }
+
+    public synchronized Long getGeneration() {
+        return generation;
+    }
+
+    public synchronized void put(List<Object> key, List<Record> rows, Set<URI> uris, Long loadedAtGeneration) {
+        if (!isEnabled() || !generation.equals(loadedAtGeneration) || uris.size() > settings.getMaxElements()) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(rows, uris));
+        for (URI uri : uris) {
+            keysOfUri.computeIfAbsent(uri, k -> new HashSet<>()).add(key);
+        }
+        nbCachedElements += uris.size();
+        while (entries.size() > settings.getMaxEntries() || nbCachedElements > settings.getMaxElements()) {
+            remove(
+                    entries.keySet().iterator().next()
+            );
+            nbEvictions++;
+        }
+    }
+
+    public void invalidate(URI... uris) {
+        invalidate(
+                Arrays.asList(uris)
+        );
+    }
+
+    /*
+    called after the write, and again when the graph transaction of the write is closed
+     */
+    public void invalidate(Collection<URI> uris) {
+        invalidateNow(uris);
+        GraphTransaction graphTransaction = GraphTransaction.current();
+        if (graphTransaction != null) {
+            List<URI> changedUris = new ArrayList<>(uris);
+            graphTransaction.onClose(
+                    () -> invalidateNow(changedUris)
+            );
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        nbInvalidations += entries.size();
+        entries.clear();
+        keysOfUri.clear();
+        nbCachedElements = 0;
+    }
+
+    private synchronized void invalidateNow(Collection<URI> uris) {
+        generation++;
+        for (URI uri : uris) {
+            Set<List<Object>> keys = keysOfUri.get(uri);
+            if (keys == null) {
+                continue;
+            }
+            for (List<Object> key : new ArrayList<>(keys)) {
+                if (remove(key)) {
+                    nbInvalidations++;
+                }
+            }
+        }
+    }
+
+    private Boolean remove(List<Object> key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        for (URI uri : entry.uris) {
+            Set<List<Object>> keys = keysOfUri.get(uri);
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysOfUri.remove(uri);
+            }
+        }
+        nbCachedElements -= entry.uris.size();
+        return true;
+    }
+
+    public synchronized Integer getNbEntries() {
+        return entries.size();
+    }
+
+    public synchronized Integer getNbCachedElements() {
+        return nbCachedElements;
+    }
+
+    public synchronized Long getNbHits() {
+        return nbHits;
+    }
+
+    public synchronized Long getNbMisses() {
+        return nbMisses;
+    }
+
+    public synchronized Long getNbEvictions() {
+        return nbEvictions;
+    }
+
+    public synchronized Long getNbInvalidations() {
+        return nbInvalidations;
+    }
+
+    private static class Entry {
+
+        private final List<Record> rows;
+        private final Set<URI> uris;
+
+        private Entry(List<Record> rows, Set<URI> uris) {
+            this.rows = rows;
+            this.uris = uris;
+        }
+    }
+}
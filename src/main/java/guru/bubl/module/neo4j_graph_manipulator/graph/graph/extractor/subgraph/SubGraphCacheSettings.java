@@ -0,0 +1,75 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
+
+import java.util.Properties;
+
+public class SubGraphCacheSettings {
+
+    public static final String PROPERTY_PREFIX = "neo4j.subgraph_cache.";
+
+    public enum props {
+        max_entries,
+        max_elements
+    }
+
+    private Integer maxEntries = 0;
+    private Integer maxElements = 200000;
+
+    public static SubGraphCacheSettings defaults() {
+        return new SubGraphCacheSettings();
+    }
+
+    public static SubGraphCacheSettings fromSystemProperties() {
+        return fromProperties(
+                System.getProperties()
+        );
+    }
+
+    public static SubGraphCacheSettings fromProperties(Properties properties) {
+        SubGraphCacheSettings settings = defaults();
+        String maxEntries = get(properties, props.max_entries);
+        if (maxEntries != null) {
+            settings.setMaxEntries(Integer.valueOf(maxEntries));
+        }
+        String maxElements = get(properties, props.max_elements);
+        if (maxElements != null) {
+            settings.setMaxElements(Integer.valueOf(maxElements));
+        }
+        return settings;
+    }
+
+    private static String get(Properties properties, props prop) {
+        String value = properties.getProperty(PROPERTY_PREFIX + prop.name());
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    protected SubGraphCacheSettings() {
+    }
+
+    public Integer getMaxEntries() {
+        return maxEntries;
+    }
+
+    /*
+    0 disables the cache
+     */
+    public SubGraphCacheSettings setMaxEntries(Integer maxEntries) {
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    public Integer getMaxElements() {
+        return maxElements;
+    }
+
+    /*
+    bounds the memory, vertices, edges, group relations and tags summed over all cached subgraphs
+     */
+    public SubGraphCacheSettings setMaxElements(Integer maxElements) {
+        this.maxElements = maxElements;
+        return this;
+    }
+}
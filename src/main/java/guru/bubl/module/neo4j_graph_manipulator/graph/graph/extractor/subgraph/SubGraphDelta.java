@@ -0,0 +1,46 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
+
+import guru.bubl.module.model.graph.subgraph.SubGraphPojo;
+
+import java.net.URI;
+import java.util.Set;
+
+/*
+changed has the added and modified elements with the ends of the modified edges, removed has the deleted
+elements and the ones no longer in the share levels. the client polls again with lastModificationDate.
+when complete, changed is the whole subgraph and replaces the one of the client
+ */
+public class SubGraphDelta {
+
+    private SubGraphPojo changed;
+    private Set<URI> removedUris;
+    private Long lastModificationDate;
+    private Boolean complete;
+
+    public SubGraphDelta(SubGraphPojo changed, Set<URI> removedUris, Long lastModificationDate, Boolean complete) {
+        this.changed = changed;
+        this.removedUris = removedUris;
+        this.lastModificationDate = lastModificationDate;
+        this.complete = complete;
+    }
+
+    public SubGraphPojo getChanged() {
+        return changed;
+    }
+
+    public Set<URI> getRemovedUris() {
+        return removedUris;
+    }
+
+    public Long getLastModificationDate() {
+        return lastModificationDate;
+    }
+
+    public Boolean isComplete() {
+        return complete;
+    }
+}
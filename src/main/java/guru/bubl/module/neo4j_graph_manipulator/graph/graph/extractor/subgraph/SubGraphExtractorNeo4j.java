@@ -4,6 +4,7 @@
 
 package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
 
+import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import guru.bubl.module.model.UserUris;
@@ -18,21 +19,38 @@ import guru.bubl.module.model.graph.relation.RelationPojo;
 import guru.bubl.module.model.graph.subgraph.SubGraphPojo;
 import guru.bubl.module.model.graph.vertex.Vertex;
 import guru.bubl.module.model.graph.vertex.VertexPojo;
+import guru.bubl.module.neo4j_graph_manipulator.graph.driver.AsyncSessionsNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.FriendlyResourceQueryBuilder;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.QueryTemplates;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.QueryUtils;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.TagQueryBuilder;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.fork.ForkOperatorNeo4J;
 import org.neo4j.driver.*;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.reactive.RxSession;
+import org.neo4j.driver.types.MapAccessor;
 import org.neo4j.driver.types.Relationship;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
 import static org.neo4j.driver.Values.parameters;
 
 public class SubGraphExtractorNeo4j {
 
     public final static String GRAPH_ELEMENT_QUERY_KEY = "ge";
+    /*
+    variable length bounds can't be parameters. depths are 0 or odd and up to MAX_EXACT_DEPTH
+    the query is written with the depth itself because paths are enumerated before $depth trims
+    them, each extra hop costs a lot. deeper ones use the smallest bucket covering them
+     */
+    private final static Integer MAX_EXACT_DEPTH = 33;
+    private final static Integer[] DEPTH_BUCKETS = {65, 129, 257, 513, 1025};
     private URI centerBubbleUri;
     private Boolean isCenterTagFlow;
     private Integer depth;
@@ -41,12 +59,25 @@ public class SubGraphExtractorNeo4j {
             new HashMap<>()
     );
 
+    private Set<Relationship> relationships = new HashSet<>();
+    private List<List<Object>> compactRelationships = new ArrayList<>();
+    private Map<Long, URI> idsUri = new HashMap<>();
+    private Set<URI> tagUris = new HashSet<>();
+    private Set<URI> traversedUris = new HashSet<>();
+    private String childIndex;
+
     private Integer[] inShareLevelsArray;
 
     private Set<ShareLevel> inShareLevels;
 
     protected Driver driver;
 
+    @Inject
+    protected SubGraphCacheNeo4j subGraphCache;
+
+    @Inject
+    protected SubGraphTombstones tombstones;
+
     @AssistedInject
     protected SubGraphExtractorNeo4j(
             Driver driver,
@@ -82,105 +113,644 @@ public class SubGraphExtractorNeo4j {
     }
 
     public SubGraphPojo load() {
-        try (Session session = driver.session()) {
-            Result rs = session.run(
+        if (!subGraphCache.isEnabled()) {
+            return loadFromDatabase();
+        }
+        List<Object> key = SubGraphCacheNeo4j.key(
+                centerBubbleUri,
+                depth,
+                Arrays.asList(inShareLevelsArray)
+        );
+        List<Record> rows = subGraphCache.get(key);
+        if (rows != null) {
+            return buildFromRows(rows);
+        }
+        Long generation = subGraphCache.getGeneration();
+        rows = fetchRows();
+        SubGraphPojo subGraph = buildFromRows(rows);
+        /*
+        indexed so a write that puts one of them in the share levels drops the subgraph,
+        a write between the two reads changes the generation and the subgraph is not cached
+         */
+        traversedUris = fetchUrisOutOfShareLevels();
+        subGraphCache.put(
+                key,
+                rows,
+                loadedUris(),
+                generation
+        );
+        return subGraph;
+    }
+
+    private SubGraphPojo loadFromDatabase() {
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                resetRowsState();
+                Result rs = tx.run(
+                        queryToGetGraph(),
+                        queryParameters()
+                );
+                while (rs.hasNext()) {
+                    addRow(rs.next());
+                }
+                return buildSubGraph();
+            });
+        }
+    }
+
+    /*
+    same subgraph as load() in one row, each node once as a map projection and each relationship
+    once as [id, type, start id, end id] instead of repeating them on every row. tag centers use load()
+     */
+    public SubGraphPojo loadCompact() {
+        if (isCenterTagFlow) {
+            return load();
+        }
+        return buildFromCompactRows(
+                fetchCompactRows()
+        );
+    }
+
+    public List<Record> fetchRows() {
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> tx.run(
                     queryToGetGraph(),
-                    parameters(
-                            "centerUri", centerBubbleUri.toString(),
-                            "shareLevels", inShareLevelsArray
-                    )
+                    queryParameters()
+            ).list());
+        }
+    }
+
+    private Set<URI> fetchUrisOutOfShareLevels() {
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Set<URI> uris = new HashSet<>();
+                for (Value uri : tx.run(
+                        queryToGetUrisOutOfShareLevels(),
+                        queryParameters()
+                ).single().get("uris").values()) {
+                    uris.add(URI.create(uri.asString()));
+                }
+                return uris;
+            });
+        }
+    }
+
+    public List<Record> fetchCompactRows() {
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> tx.run(
+                    queryToGetCompactGraph(),
+                    queryParameters()
+            ).list());
+        }
+    }
+
+    public SubGraphPojo buildFromRows(List<Record> records) {
+        resetRowsState();
+        for (Record record : records) {
+            addRow(record);
+        }
+        return buildSubGraph();
+    }
+
+    public SubGraphPojo buildFromCompactRows(List<Record> records) {
+        resetRowsState();
+        for (Record record : records) {
+            addCompactRow(record);
+        }
+        return buildSubGraph();
+    }
+
+    private void addCompactRow(Record record) {
+        if (!record.get("childIndex").isNull()) {
+            childIndex = record.get("childIndex").asString();
+        }
+        for (Value node : record.get("nodes").values()) {
+            addRow(
+                    new CompactNodeRow(node)
             );
-            Set<Relationship> relationships = new HashSet<>();
-            Map<Long, URI> idsUri = new HashMap<>();
-            String childIndex = null;
-            while (rs.hasNext()) {
-                Record record = rs.next();
-                Value relationship1 = record.get("rel1");
-                if (!relationship1.isNull()) {
-                    relationships.add(relationship1.asRelationship());
+        }
+        for (Value relationship : record.get("rels").values()) {
+            compactRelationships.add(relationship.asList());
+        }
+    }
+
+    /*
+    expands one level per round with the unvisited node ids of the previous one, each node
+    and relationship is returned once instead of once per path. tag centers use load()
+     */
+    public SubGraphPojo loadLevelByLevel() {
+        if (isCenterTagFlow) {
+            return load();
+        }
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                resetRowsState();
+                LongHashSet visited = new LongHashSet();
+                List<Long> frontier = null;
+                Integer level = 0;
+                while (frontier == null || !frontier.isEmpty()) {
+                    Result rs = tx.run(
+                            queryToGetLevel(frontier == null),
+                            levelParameters(frontier)
+                    );
+                    List<Long> nextFrontier = new ArrayList<>();
+                    while (rs.hasNext()) {
+                        addLevelRow(
+                                rs.next(),
+                                level,
+                                visited,
+                                nextFrontier
+                        );
+                    }
+                    frontier = nextFrontier;
+                    level++;
                 }
-                Value relationship2 = record.get("rel2");
-                if (!relationship2.isNull()) {
-                    relationships.add(relationship2.asRelationship());
+                return buildSubGraph();
+            });
+        }
+    }
+
+    /*
+    the elements changed after lastModificationDate within depth, with the ends of the changed edges,
+    and the uris of the ones deleted or no longer in the share levels. changed elements are found
+    with the owner and last_change_date so the cost follows the number of changes. the client
+    keeps the returned lastModificationDate for its next poll. tag centers and polls older than the
+    retention of the tombstones get their whole subgraph
+     */
+    public SubGraphDelta loadChangesSince(Long lastModificationDate) {
+        tombstones.pruneIfDue();
+        Boolean isComplete = isCenterTagFlow || !tombstones.isRetainedSince(lastModificationDate);
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                resetRowsState();
+                Record removed = tx.run(
+                        "OPTIONAL MATCH (tombstone:Tombstone{owner:$owner}) " +
+                                "WHERE tombstone.deleted_at > $since " +
+                                "RETURN collect(tombstone.uri) as removedUris, timestamp() as loadDate",
+                        parameters(
+                                "owner", UserUris.ownerUserNameFromUri(centerBubbleUri),
+                                "since", lastModificationDate
+                        )
+                ).single();
+                Set<URI> removedUris = new HashSet<>();
+                for (Object uri : removed.get("removedUris").asList()) {
+                    removedUris.add(URI.create(uri.toString()));
                 }
-                Value relationshipList = record.get("relList");
-                if (!relationshipList.isNull()) {
-                    relationships.addAll((List) relationshipList.asList());
+                Result rs = isComplete ? tx.run(
+                        queryToGetGraph(),
+                        queryParameters()
+                ) : tx.run(
+                        queryToGetChanges(),
+                        parameters(
+                                "centerUri", centerBubbleUri.toString(),
+                                "owner", UserUris.ownerUserNameFromUri(centerBubbleUri),
+                                "shareLevels", inShareLevelsArray,
+                                "depth", depth,
+                                "since", lastModificationDate
+                        )
+                );
+                while (rs.hasNext()) {
+                    Record record = rs.next();
+                    if (record.get("visible").asBoolean(true)) {
+                        addRow(record);
+                    } else {
+                        removedUris.add(URI.create(record.get("ge.uri").asString()));
+                    }
                 }
-                if (childIndex == null && !record.get("childIndex").isNull()) {
-                    childIndex = record.get("childIndex").asString();
+                return new SubGraphDelta(
+                        buildSubGraph(),
+                        removedUris,
+                        removed.get("loadDate").asLong(),
+                        isComplete
+                );
+            });
+        }
+    }
+
+    private void addLevelRow(Record record, Integer level, LongHashSet visited, List<Long> nextFrontier) {
+        visited.add(record.get("nId").asLong());
+        if (record.get("visible").asBoolean()) {
+            addRow(record);
+        }
+        if (level > depth) {
+            return;
+        }
+        /*
+        like the rel1 of the path query, edges at the last level still bring their source and destination
+         */
+        Boolean expandAll = level < depth;
+        if (!expandAll && getGraphElementTypeFromRow(record) != GraphElementType.Edge) {
+            return;
+        }
+        for (Object relationship : record.get("relList").asList()) {
+            Long endNodeId = ((Relationship) relationship).endNodeId();
+            if (visited.add(endNodeId)) {
+                nextFrontier.add(endNodeId);
+            }
+        }
+        if (expandAll) {
+            for (Object startNodeId : record.get("inIds").asList()) {
+                if (visited.add((Long) startNodeId)) {
+                    nextFrontier.add((Long) startNodeId);
                 }
-                switch (getGraphElementTypeFromRow(record)) {
-                    case Vertex:
-                        Vertex vertex = addVertexUsingRow(
-                                record
-                        );
-                        idsUri.put(
-                                record.get("nId").asLong(),
-                                vertex.uri()
-                        );
-                        break;
-                    case Edge:
-                        Relation relation = addEdgeUsingRow(
-                                record
-                        );
-                        idsUri.put(
-                                record.get("nId").asLong(),
-                                relation.uri()
-                        );
-                        break;
-                    case GroupRelation:
-                        GroupRelation groupRelation = addGroupRelationUsingRow(
-                                record
-                        );
-                        idsUri.put(
-                                record.get("nId").asLong(),
-                                groupRelation.uri()
+            }
+        }
+    }
+
+    private Value levelParameters(List<Long> frontier) {
+        return frontier == null ? parameters(
+                "centerUri", centerBubbleUri.toString(),
+                "shareLevels", inShareLevelsArray
+        ) : parameters(
+                "frontier", frontier,
+                "shareLevels", inShareLevelsArray
+        );
+    }
+
+    /*
+    level by level, nearer elements first and inside a level the most visited ones. what an admitted
+    element points to, the source and destination of an edge, is reserved with it so no edge is left
+    without its ends. a reservation is charged only when its row arrives visible. the incoming
+    neighbors of forks can be left out and so can the ends of a reserved element that no longer fit,
+    these elements are truncated
+     */
+    public BudgetedSubGraph loadWithinBudget(SubGraphBudget budget) {
+        if (isCenterTagFlow) {
+            return BudgetedSubGraph.complete(load());
+        }
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                resetRowsState();
+                BudgetUsage usage = new BudgetUsage(budget);
+                LongHashSet visited = new LongHashSet();
+                Set<Long> truncatedIds = new HashSet<>();
+                List<Long> required = null;
+                Map<Long, List<Long>> optional = new LinkedHashMap<>();
+                Integer level = 0;
+                while (required == null || !required.isEmpty() || !optional.isEmpty()) {
+                    List<Long> nextRequired = new ArrayList<>();
+                    Map<Long, List<Long>> nextOptional = new LinkedHashMap<>();
+                    if (required == null || !required.isEmpty()) {
+                        Result rs = tx.run(
+                                queryToGetLevel(required == null, false),
+                                levelParameters(required)
                         );
-                        break;
-                    case Meta:
-                        URI uri = URI.create(record.get(
-                                "ge.uri"
-                        ).asString());
-                        if (uri.equals(centerBubbleUri)) {
-                            subGraph.setCenterMeta(
-                                    TagFromExtractorQueryRow.usingRowAndKey(
-                                            record,
-                                            "ge"
-                                    ).build()
+                        Integer nbArrived = 0;
+                        while (rs.hasNext()) {
+                            Record record = rs.next();
+                            if (required != null) {
+                                usage.release(1);
+                                nbArrived++;
+                            }
+                            if (record.get("visible").asBoolean()) {
+                                usage.use(isEdge(record));
+                            }
+                            List<Long> ends = requiredEnds(record, level, visited);
+                            if (!usage.fitsEnds(ends.size())) {
+                                ends = new ArrayList<>();
+                                truncatedIds.add(record.get("nId").asLong());
+                            }
+                            admitLevelRow(record, level, visited, ends, nextRequired, nextOptional, usage);
+                        }
+                        if (required != null) {
+                            usage.release(required.size() - nbArrived);
+                        }
+                    }
+                    if (!optional.isEmpty()) {
+                        Set<Long> notAdmitted = new HashSet<>(optional.keySet());
+                        if (usage.getNbRemaining() > 0) {
+                            Result rs = tx.run(
+                                    queryToGetLevel(false, true),
+                                    parameters(
+                                            "frontier", new ArrayList<>(optional.keySet()),
+                                            "shareLevels", inShareLevelsArray,
+                                            "limit", usage.getNbRemaining()
+                                    )
                             );
+                            while (rs.hasNext()) {
+                                Record record = rs.next();
+                                Boolean visible = record.get("visible").asBoolean();
+                                List<Long> ends = requiredEnds(record, level, visited);
+                                if (!usage.fits(visible, isEdge(record), ends.size())) {
+                                    continue;
+                                }
+                                if (visible) {
+                                    usage.use(isEdge(record));
+                                }
+                                notAdmitted.remove(record.get("nId").asLong());
+                                admitLevelRow(record, level, visited, ends, nextRequired, nextOptional, usage);
+                            }
                         }
-                        break;
-                    case Unknown:
-                        break;
-                }
-            }
-            for (Relationship relation : relationships) {
-                URI edgeUri = idsUri.get(relation.startNodeId());
-                EdgePojo edge = subGraph.edgeWithIdentifier(
-                        edgeUri
-                );
-                if (edge == null) {
-                    edge = subGraph.getGroupRelations().get(edgeUri);
+                        for (Long id : notAdmitted) {
+                            truncatedIds.addAll(optional.get(id));
+                        }
+                    }
+                    required = nextRequired;
+                    optional = nextOptional;
+                    level++;
                 }
-                URI endForkUri = idsUri.get(relation.endNodeId());
-                if (edge != null && endForkUri != null) {
-                    if (relation.type().equals("SOURCE")) {
-                        edge.setSourceUri(
-                                endForkUri
-                        );
-                    } else {
-                        edge.setDestinationUri(
-                                endForkUri
-                        );
+                SubGraphPojo subGraph = buildSubGraph();
+                Set<URI> truncatedForkUris = new HashSet<>();
+                for (Long id : truncatedIds) {
+                    URI uri = idsUri.get(id);
+                    if (uri != null) {
+                        truncatedForkUris.add(uri);
                     }
                 }
+                return new BudgetedSubGraph(
+                        subGraph,
+                        truncatedForkUris
+                );
+            });
+        }
+    }
+
+    private void admitLevelRow(Record record, Integer level, LongHashSet visited, List<Long> ends, List<Long> nextRequired, Map<Long, List<Long>> nextOptional, BudgetUsage usage) {
+        Long nId = record.get("nId").asLong();
+        visited.add(nId);
+        if (record.get("visible").asBoolean()) {
+            addRow(record);
+        }
+        for (Long endNodeId : ends) {
+            if (visited.add(endNodeId)) {
+                nextRequired.add(endNodeId);
+                usage.reserve(1);
+            }
+        }
+        if (level >= depth) {
+            return;
+        }
+        for (Object startNodeId : record.get("inIds").asList()) {
+            if (visited.add((Long) startNodeId)) {
+                nextOptional.put((Long) startNodeId, new ArrayList<>());
+            }
+            if (nextOptional.containsKey(startNodeId)) {
+                nextOptional.get(startNodeId).add(nId);
+            }
+        }
+    }
+
+    private List<Long> requiredEnds(Record record, Integer level, LongHashSet visited) {
+        List<Long> ends = new ArrayList<>();
+        if (level > depth || (level.equals(depth) && !isEdge(record))) {
+            return ends;
+        }
+        for (Object relationship : record.get("relList").asList()) {
+            Long endNodeId = ((Relationship) relationship).endNodeId();
+            if (!visited.contains(endNodeId) && !ends.contains(endNodeId)) {
+                ends.add(endNodeId);
+            }
+        }
+        return ends;
+    }
+
+    private static Boolean isEdge(Record record) {
+        return getGraphElementTypeFromRow(record) == GraphElementType.Edge;
+    }
+
+    private static class BudgetUsage {
+
+        private Integer nbRemainingVertices;
+        private Integer nbRemainingEdges;
+        private Integer nbReserved = 0;
+
+        private BudgetUsage(SubGraphBudget budget) {
+            this.nbRemainingVertices = budget.getMaxVertices();
+            this.nbRemainingEdges = budget.getMaxEdges();
+        }
+
+        private Boolean fits(Boolean visible, Boolean isEdge, Integer nbEnds) {
+            if (!visible) {
+                return fitsEnds(nbEnds);
+            }
+            return isEdge ?
+                    nbRemainingEdges > 0 && fitsEnds(nbEnds) :
+                    getNbAvailableVertices() > nbEnds;
+        }
+
+        private Boolean fitsEnds(Integer nbEnds) {
+            return getNbAvailableVertices() >= nbEnds;
+        }
+
+        private void reserve(Integer nbEnds) {
+            nbReserved += nbEnds;
+        }
+
+        /*
+        reserved ends are charged with use when they arrive visible
+         */
+        private void release(Integer nbEnds) {
+            nbReserved -= nbEnds;
+        }
+
+        private Integer getNbAvailableVertices() {
+            return nbRemainingVertices - nbReserved;
+        }
+
+        private void use(Boolean isEdge) {
+            if (isEdge) {
+                nbRemainingEdges--;
+            } else {
+                nbRemainingVertices--;
+            }
+        }
+
+        private Integer getNbRemaining() {
+            return Math.max(getNbAvailableVertices(), 0) + Math.max(nbRemainingEdges, 0);
+        }
+    }
+
+    public CompletionStage<SubGraphPojo> loadAsync() {
+        AsyncSession session = driver.asyncSession(READ);
+        return AsyncSessionsNeo4j.closeAfter(
+                session,
+                session.readTransactionAsync(tx -> {
+                    resetRowsState();
+                    return tx.runAsync(
+                            queryToGetGraph(),
+                            queryParameters()
+                    ).thenCompose(
+                            cursor -> cursor.forEachAsync(this::addRow)
+                    ).thenApply(
+                            summary -> buildSubGraph()
+                    );
+                })
+        );
+    }
+
+    public Publisher<SubGraphStreamEvent> stream() {
+        return Flux.usingWhen(
+                Mono.fromSupplier(() -> driver.rxSession(READ)),
+                session -> session.readTransaction(tx -> {
+                    SubGraphStreamState state = new SubGraphStreamState(centerBubbleUri);
+                    return Flux.from(
+                            tx.run(
+                                    queryToGetGraph(),
+                                    queryParameters()
+                            ).records()
+                    ).concatMapIterable(state::eventsForRow);
+                }),
+                RxSession::close
+        );
+    }
+
+    private Value queryParameters() {
+        return parameters(
+                "centerUri", centerBubbleUri.toString(),
+                "shareLevels", inShareLevelsArray,
+                "depth", depth
+        );
+    }
+
+    private Integer depthBucket() {
+        return depthBucket(depth);
+    }
+
+    private static Integer depthBucket(Integer depth) {
+        if (depth <= MAX_EXACT_DEPTH) {
+            return depth;
+        }
+        for (Integer bucket : DEPTH_BUCKETS) {
+            if (depth <= bucket) {
+                return bucket;
+            }
+        }
+        return depth;
+    }
+
+    private void resetRowsState() {
+        subGraph = SubGraphPojo.withCenterUriVerticesAndEdges(
+                new HashMap<>(),
+                new HashMap<>()
+        );
+        relationships = new HashSet<>();
+        compactRelationships = new ArrayList<>();
+        idsUri = new HashMap<>();
+        tagUris = new HashSet<>();
+        traversedUris = new HashSet<>();
+        childIndex = null;
+    }
+
+    private void addRow(MapAccessor record) {
+        Value relationship1 = record.get("rel1");
+        if (!relationship1.isNull()) {
+            relationships.add(relationship1.asRelationship());
+        }
+        Value relationship2 = record.get("rel2");
+        if (!relationship2.isNull()) {
+            relationships.add(relationship2.asRelationship());
+        }
+        Value relationshipList = record.get("relList");
+        if (!relationshipList.isNull()) {
+            relationships.addAll((List) relationshipList.asList());
+        }
+        Value tags = record.get(TagQueryBuilder.TAG_QUERY_KEY);
+        if (!tags.isNull()) {
+            for (Object tag : tags.asList()) {
+                Object tagUri = ((List) tag).get(1);
+                if (tagUri != null) {
+                    tagUris.add(URI.create(tagUri.toString()));
+                }
             }
-            setChildrenIndex(childIndex);
         }
+        if (childIndex == null && !record.get("childIndex").isNull()) {
+            childIndex = record.get("childIndex").asString();
+        }
+        switch (getGraphElementTypeFromRow(record)) {
+            case Vertex:
+                Vertex vertex = addVertexUsingRow(
+                        record
+                );
+                idsUri.put(
+                        record.get("nId").asLong(),
+                        vertex.uri()
+                );
+                break;
+            case Edge:
+                Relation relation = addEdgeUsingRow(
+                        record
+                );
+                idsUri.put(
+                        record.get("nId").asLong(),
+                        relation.uri()
+                );
+                break;
+            case GroupRelation:
+                GroupRelation groupRelation = addGroupRelationUsingRow(
+                        record
+                );
+                idsUri.put(
+                        record.get("nId").asLong(),
+                        groupRelation.uri()
+                );
+                break;
+            case Meta:
+                URI uri = URI.create(record.get(
+                        "ge.uri"
+                ).asString());
+                if (uri.equals(centerBubbleUri)) {
+                    subGraph.setCenterMeta(
+                            TagFromExtractorQueryRow.usingRowAndKey(
+                                    record,
+                                    "ge"
+                            ).build()
+                    );
+                }
+                break;
+            case Unknown:
+                break;
+        }
+    }
+
+    private SubGraphPojo buildSubGraph() {
+        for (Relationship relation : relationships) {
+            setEdgeEnd(
+                    relation.startNodeId(),
+                    relation.endNodeId(),
+                    relation.type()
+            );
+        }
+        for (List<Object> relation : compactRelationships) {
+            setEdgeEnd(
+                    (Long) relation.get(2),
+                    (Long) relation.get(3),
+                    relation.get(1).toString()
+            );
+        }
+        setChildrenIndex(childIndex);
         return subGraph;
     }
 
+    private void setEdgeEnd(Long edgeId, Long endForkId, String type) {
+        URI edgeUri = idsUri.get(edgeId);
+        EdgePojo edge = subGraph.edgeWithIdentifier(
+                edgeUri
+        );
+        if (edge == null) {
+            edge = subGraph.getGroupRelations().get(edgeUri);
+        }
+        URI endForkUri = idsUri.get(endForkId);
+        if (edge != null && endForkUri != null) {
+            if (type.equals("SOURCE")) {
+                edge.setSourceUri(
+                        endForkUri
+                );
+            } else {
+                edge.setDestinationUri(
+                        endForkUri
+                );
+            }
+        }
+    }
+
+    private Set<URI> loadedUris() {
+        Set<URI> uris = new HashSet<>(idsUri.values());
+        uris.addAll(tagUris);
+        uris.addAll(traversedUris);
+        uris.add(centerBubbleUri);
+        return uris;
+    }
+
     private void setChildrenIndex(String childIndex) {
         if (!subGraph.hasCenter(centerBubbleUri)) {
             return;
@@ -199,7 +769,7 @@ public class SubGraphExtractorNeo4j {
         }
     }
 
-    private GraphElementType getGraphElementTypeFromRow(Record record) {
+    static GraphElementType getGraphElementTypeFromRow(MapAccessor record) {
         List<String> types = (List) record.get("type").asList();
         GraphElementType type = null;
         for (String typeStr : types) {
@@ -214,7 +784,7 @@ public class SubGraphExtractorNeo4j {
         return type;
     }
 
-    private Vertex addVertexUsingRow(Record row) {
+    private Vertex addVertexUsingRow(MapAccessor row) {
         Vertex vertex = new VertexFromExtractorQueryRow(
                 row,
                 SubGraphExtractorNeo4j.GRAPH_ELEMENT_QUERY_KEY
@@ -226,10 +796,23 @@ public class SubGraphExtractorNeo4j {
     }
 
     private String queryToGetGraph() {
+        return QueryTemplates.get(
+                this::buildQueryToGetGraph,
+                "SubGraphExtractorNeo4j.load",
+                isCenterTagFlow,
+                depthBucket(),
+                inShareLevels.contains(ShareLevel.PRIVATE),
+                inShareLevels.contains(ShareLevel.FRIENDS),
+                inShareLevels.contains(ShareLevel.PUBLIC),
+                inShareLevels.contains(ShareLevel.PUBLIC_WITH_LINK)
+        );
+    }
+
+    private String buildQueryToGetGraph() {
         String relVariables = this.isCenterTagFlow ? "rel1, rel2" : "relList, rel1";
         return
                 String.format(
-                        "MATCH(n:Resource{uri:$centerUri}) %s " +
+                        "%s " +
                                 "WITH %s, ge, childIndex MATCH(ge) WHERE ge.shareLevel IN $shareLevels " +
                                 "OPTIONAL MATCH (ge)-[:IDENTIFIED_TO]->(id) WHERE id.shareLevel IN $shareLevels " +
                                 "RETURN childIndex, ge.external_uri, ge.indexVertexUri, " +
@@ -238,15 +821,147 @@ public class SubGraphExtractorNeo4j {
                                 (isCenterTagFlow ? TagQueryBuilder.centerTagQueryPart(GRAPH_ELEMENT_QUERY_KEY) : "") +
                                 TagQueryBuilder.tagReturnQueryPart(inShareLevels) +
                                 "labels(ge) as type, ID(ge) as nId, %s",
-                        (this.isCenterTagFlow ?
-                                "OPTIONAL MATCH (n)<-[IDENTIFIED_TO*0..1]-(t) OPTIONAL MATCH (t:GroupRelation)-[rel1:SOURCE]->(gt) OPTIONAL MATCH (t:Edge)-[rel2:SOURCE|DESTINATION]->(ef) WITH n.childrenIndexes as childIndex, rel1, rel2, COLLECT(t) + collect(gt) + collect(ef) as geList UNWIND geList as ge" :
-                                "OPTIONAL MATCH (n)<-[relList:SOURCE|DESTINATION*0.." + depth + "]->(e) OPTIONAL MATCH (e:Edge)-[rel1:SOURCE|DESTINATION]->(ef) WITH n.childrenIndexes as childIndex, relList, rel1, COLLECT(e) + collect(ef) as geList UNWIND geList as ge"),
+                        graphElementsQueryPart(),
                         relVariables,
                         relVariables
                 );
 
     }
 
+    private String graphElementsQueryPart() {
+        return "MATCH(n:Resource{uri:$centerUri}) " + (this.isCenterTagFlow ?
+                "OPTIONAL MATCH (n)<-[IDENTIFIED_TO*0..1]-(t) OPTIONAL MATCH (t:GroupRelation)-[rel1:SOURCE]->(gt) OPTIONAL MATCH (t:Edge)-[rel2:SOURCE|DESTINATION]->(ef) WITH n.childrenIndexes as childIndex, rel1, rel2, COLLECT(t) + collect(gt) + collect(ef) as geList UNWIND geList as ge" :
+                "OPTIONAL MATCH (n)<-[relList:SOURCE|DESTINATION*0.." + depthBucket() + "]->(e) WHERE size(relList) <= $depth OPTIONAL MATCH (e:Edge)-[rel1:SOURCE|DESTINATION]->(ef) WITH n.childrenIndexes as childIndex, relList, rel1, COLLECT(e) + collect(ef) as geList UNWIND geList as ge");
+    }
+
+    private String queryToGetUrisOutOfShareLevels() {
+        return QueryTemplates.get(
+                this::buildQueryToGetUrisOutOfShareLevels,
+                "SubGraphExtractorNeo4j.urisOutOfShareLevels",
+                isCenterTagFlow,
+                depthBucket()
+        );
+    }
+
+    /*
+    same traversal as load(), only the uris of the elements it filters out
+     */
+    private String buildQueryToGetUrisOutOfShareLevels() {
+        return graphElementsQueryPart() + " " +
+                "WITH DISTINCT ge WHERE NOT coalesce(ge.shareLevel IN $shareLevels, false) " +
+                "RETURN collect(ge.uri) as uris";
+    }
+
+    private String queryToGetChanges() {
+        return QueryTemplates.get(
+                this::buildQueryToGetChanges,
+                "SubGraphExtractorNeo4j.loadChangesSince",
+                depthBucket(depth + 1),
+                inShareLevels.contains(ShareLevel.PRIVATE),
+                inShareLevels.contains(ShareLevel.FRIENDS),
+                inShareLevels.contains(ShareLevel.PUBLIC),
+                inShareLevels.contains(ShareLevel.PUBLIC_WITH_LINK)
+        );
+    }
+
+    /*
+    depth + 1 to reach the source and destination of the edges at the last level
+     */
+    private String buildQueryToGetChanges() {
+        return "MATCH(n:Resource{uri:$centerUri}) " +
+                "MATCH(changed:GraphElement) WHERE changed.owner = $owner AND changed.last_change_date > $since " +
+                "MATCH path = shortestPath((n)-[:SOURCE|DESTINATION*0.." + depthBucket(depth + 1) + "]-(changed)) " +
+                "WHERE length(path) <= $depth + 1 " +
+                "WITH DISTINCT changed " +
+                "OPTIONAL MATCH (changed)-[rel1:SOURCE|DESTINATION]->(ef) " +
+                "WITH changed, rel1, collect(ef) as ends " +
+                "WITH rel1, [changed] + ends as geList UNWIND geList as ge " +
+                "OPTIONAL MATCH (ge)-[:IDENTIFIED_TO]->(id) WHERE id.shareLevel IN $shareLevels " +
+                "RETURN CASE WHEN ge.uri = $centerUri THEN ge.childrenIndexes END as childIndex, " +
+                "ge.external_uri, ge.indexVertexUri, " +
+                vertexAndEdgeCommonQueryPart(GRAPH_ELEMENT_QUERY_KEY) +
+                vertexReturnQueryPart(GRAPH_ELEMENT_QUERY_KEY) +
+                TagQueryBuilder.tagReturnQueryPart(inShareLevels) +
+                "labels(ge) as type, ID(ge) as nId, coalesce(ge.shareLevel IN $shareLevels, false) as visible, rel1";
+    }
+
+    private String queryToGetCompactGraph() {
+        return QueryTemplates.get(
+                this::buildQueryToGetCompactGraph,
+                "SubGraphExtractorNeo4j.loadCompact",
+                depthBucket(),
+                inShareLevels.contains(ShareLevel.PRIVATE),
+                inShareLevels.contains(ShareLevel.FRIENDS),
+                inShareLevels.contains(ShareLevel.PUBLIC),
+                inShareLevels.contains(ShareLevel.PUBLIC_WITH_LINK)
+        );
+    }
+
+    /*
+    the return parts with an empty prefix are the property selectors of the map projection
+     */
+    private String buildQueryToGetCompactGraph() {
+        return "MATCH(n:Resource{uri:$centerUri}) " +
+                "OPTIONAL MATCH (n)<-[relList:SOURCE|DESTINATION*0.." + depthBucket() + "]->(e) WHERE size(relList) <= $depth " +
+                "OPTIONAL MATCH (e:Edge)-[rel1:SOURCE|DESTINATION]->(ef) " +
+                "WITH n, collect(DISTINCT e) + collect(DISTINCT ef) as geList, collect(relList) as relLists, collect(DISTINCT rel1) as rels1 " +
+                "WITH n, geList, [r IN apoc.coll.toSet(apoc.coll.flatten(relLists) + rels1) | [ID(r), type(r), ID(startNode(r)), ID(endNode(r))]] as rels " +
+                "UNWIND geList as ge " +
+                "WITH DISTINCT n, rels, ge WHERE ge.shareLevel IN $shareLevels " +
+                "OPTIONAL MATCH (ge)-[:IDENTIFIED_TO]->(id) WHERE id.shareLevel IN $shareLevels " +
+                "WITH n, rels, ge, " +
+                TagQueryBuilder.tagReturnQueryPart(inShareLevels) +
+                "labels(ge) as type " +
+                "WITH n, rels, collect(ge {" +
+                vertexAndEdgeCommonQueryPart("") +
+                vertexReturnQueryPart("") +
+                ".external_uri, .indexVertexUri, " +
+                TagQueryBuilder.TAG_QUERY_KEY + ": " + TagQueryBuilder.TAG_QUERY_KEY + ", type: type, nId: ID(ge)}) as nodes " +
+                "RETURN n.childrenIndexes as childIndex, nodes, rels";
+    }
+
+    private String queryToGetLevel(Boolean isCenterLevel) {
+        return queryToGetLevel(
+                isCenterLevel,
+                false
+        );
+    }
+
+    private String queryToGetLevel(Boolean isCenterLevel, Boolean isRanked) {
+        return QueryTemplates.get(
+                () -> buildQueryToGetLevel(isCenterLevel, isRanked),
+                "SubGraphExtractorNeo4j.loadLevelByLevel",
+                isCenterLevel,
+                isRanked,
+                inShareLevels.contains(ShareLevel.PRIVATE),
+                inShareLevels.contains(ShareLevel.FRIENDS),
+                inShareLevels.contains(ShareLevel.PUBLIC),
+                inShareLevels.contains(ShareLevel.PUBLIC_WITH_LINK)
+        );
+    }
+
+    /*
+    only outgoing relationships are returned with a node so each one comes with its edge,
+    incoming ones are only needed as ids to find the next level
+     */
+    private String buildQueryToGetLevel(Boolean isCenterLevel, Boolean isRanked) {
+        return (isCenterLevel ?
+                "MATCH(ge:Resource{uri:$centerUri}) " :
+                "UNWIND $frontier as frontierId MATCH(ge) WHERE ID(ge) = frontierId ") +
+                "OPTIONAL MATCH (ge)-[out:SOURCE|DESTINATION]->() " +
+                "WITH ge, collect(out) as relList " +
+                "OPTIONAL MATCH (ge)<-[:SOURCE|DESTINATION]-(in) " +
+                "WITH ge, relList, collect(ID(in)) as inIds " +
+                "OPTIONAL MATCH (ge)-[:IDENTIFIED_TO]->(id) WHERE id.shareLevel IN $shareLevels " +
+                "RETURN " + (isCenterLevel ? "ge.childrenIndexes" : "null") + " as childIndex, " +
+                "ge.external_uri, ge.indexVertexUri, " +
+                vertexAndEdgeCommonQueryPart(GRAPH_ELEMENT_QUERY_KEY) +
+                vertexReturnQueryPart(GRAPH_ELEMENT_QUERY_KEY) +
+                TagQueryBuilder.tagReturnQueryPart(inShareLevels) +
+                "labels(ge) as type, ID(ge) as nId, coalesce(ge.shareLevel IN $shareLevels, false) as visible, relList, inIds" +
+                (isRanked ? ", coalesce(ge.nb_visits, 0) as nbVisits ORDER BY nbVisits DESC LIMIT $limit" : "");
+    }
+
     private String vertexAndEdgeCommonQueryPart(String prefix) {
         return FriendlyResourceQueryBuilder.returnQueryPartUsingPrefix(prefix);
     }
@@ -283,7 +998,7 @@ public class SubGraphExtractorNeo4j {
                 );
     }
 
-    private Relation addEdgeUsingRow(Record row) {
+    private Relation addEdgeUsingRow(MapAccessor row) {
         RelationPojo edge = (RelationPojo) RelationFromExtractorQueryRow.usingRow(
                 row
         ).build();
@@ -291,7 +1006,7 @@ public class SubGraphExtractorNeo4j {
         return edge;
     }
 
-    private GroupRelation addGroupRelationUsingRow(Record row) {
+    private GroupRelation addGroupRelationUsingRow(MapAccessor row) {
         GroupRelationPojo groupRelation = GroupRelationFromExtractorQueryRow.withRowAndKeyPrefix(
                 row,
                 SubGraphExtractorNeo4j.GRAPH_ELEMENT_QUERY_KEY
@@ -0,0 +1,69 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
+
+import java.net.URI;
+
+public class SubGraphStreamEvent {
+
+    public enum Type {
+        Vertex,
+        Edge,
+        GroupRelation,
+        CenterTag,
+        ChildrenIndex,
+        Source,
+        Destination
+    }
+
+    private Type type;
+    private URI uri;
+    private Object element;
+    private URI endUri;
+    private String childrenIndex;
+
+    public static SubGraphStreamEvent element(Type type, URI uri, Object element) {
+        SubGraphStreamEvent event = new SubGraphStreamEvent(type, uri);
+        event.element = element;
+        return event;
+    }
+
+    public static SubGraphStreamEvent link(Type type, URI edgeUri, URI endUri) {
+        SubGraphStreamEvent event = new SubGraphStreamEvent(type, edgeUri);
+        event.endUri = endUri;
+        return event;
+    }
+
+    public static SubGraphStreamEvent childrenIndex(URI centerUri, String childrenIndex) {
+        SubGraphStreamEvent event = new SubGraphStreamEvent(Type.ChildrenIndex, centerUri);
+        event.childrenIndex = childrenIndex;
+        return event;
+    }
+
+    private SubGraphStreamEvent(Type type, URI uri) {
+        this.type = type;
+        this.uri = uri;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public Object getElement() {
+        return element;
+    }
+
+    public URI getEndUri() {
+        return endUri;
+    }
+
+    public String getChildrenIndex() {
+        return childrenIndex;
+    }
+}
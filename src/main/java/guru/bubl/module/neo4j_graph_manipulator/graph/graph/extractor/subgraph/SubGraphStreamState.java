@@ -0,0 +1,169 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
+
+import guru.bubl.module.model.graph.group_relation.GroupRelationPojo;
+import guru.bubl.module.model.graph.relation.Relation;
+import guru.bubl.module.model.graph.tag.TagPojo;
+import guru.bubl.module.model.graph.vertex.Vertex;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.types.Relationship;
+
+import java.net.URI;
+import java.util.*;
+
+import static guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphExtractorNeo4j.GRAPH_ELEMENT_QUERY_KEY;
+
+/*
+only node ids and unresolved relationships are kept between rows,
+the decoded elements are handed downstream right away
+ */
+class SubGraphStreamState {
+
+    private URI centerBubbleUri;
+    private Map<Long, URI> idsUri = new HashMap<>();
+    private Set<Long> edgeIds = new HashSet<>();
+    private Map<Long, List<Relationship>> pendingRelationships = new HashMap<>();
+    private Set<Long> pendingRelationshipIds = new HashSet<>();
+    private Set<Long> linkedRelationshipIds = new HashSet<>();
+    private Boolean childrenIndexEmitted = false;
+    private Boolean centerTagEmitted = false;
+
+    SubGraphStreamState(URI centerBubbleUri) {
+        this.centerBubbleUri = centerBubbleUri;
+    }
+
+    List<SubGraphStreamEvent> eventsForRow(Record record) {
+        List<SubGraphStreamEvent> events = new ArrayList<>();
+        if (!childrenIndexEmitted && !record.get("childIndex").isNull()) {
+            childrenIndexEmitted = true;
+            events.add(SubGraphStreamEvent.childrenIndex(
+                    centerBubbleUri,
+                    record.get("childIndex").asString()
+            ));
+        }
+        Long nId = record.get("nId").asLong();
+        if (!idsUri.containsKey(nId)) {
+            addElement(nId, record, events);
+        }
+        addRelationship(record.get("rel1"), events);
+        addRelationship(record.get("rel2"), events);
+        Value relationshipList = record.get("relList");
+        if (!relationshipList.isNull()) {
+            for (Object relationship : relationshipList.asList()) {
+                link((Relationship) relationship, events);
+            }
+        }
+        return events;
+    }
+
+    private void addElement(Long nId, Record record, List<SubGraphStreamEvent> events) {
+        switch (SubGraphExtractorNeo4j.getGraphElementTypeFromRow(record)) {
+            case Vertex:
+                Vertex vertex = new VertexFromExtractorQueryRow(
+                        record,
+                        GRAPH_ELEMENT_QUERY_KEY
+                ).build();
+                events.add(SubGraphStreamEvent.element(
+                        SubGraphStreamEvent.Type.Vertex,
+                        vertex.uri(),
+                        vertex
+                ));
+                register(nId, vertex.uri(), false, events);
+                break;
+            case Edge:
+                Relation relation = RelationFromExtractorQueryRow.usingRow(
+                        record
+                ).build();
+                events.add(SubGraphStreamEvent.element(
+                        SubGraphStreamEvent.Type.Edge,
+                        relation.uri(),
+                        relation
+                ));
+                register(nId, relation.uri(), true, events);
+                break;
+            case GroupRelation:
+                GroupRelationPojo groupRelation = GroupRelationFromExtractorQueryRow.withRowAndKeyPrefix(
+                        record,
+                        GRAPH_ELEMENT_QUERY_KEY
+                ).build();
+                events.add(SubGraphStreamEvent.element(
+                        SubGraphStreamEvent.Type.GroupRelation,
+                        groupRelation.uri(),
+                        groupRelation
+                ));
+                register(nId, groupRelation.uri(), true, events);
+                break;
+            case Meta:
+                URI uri = URI.create(record.get(
+                        GRAPH_ELEMENT_QUERY_KEY + ".uri"
+                ).asString());
+                if (!centerTagEmitted && uri.equals(centerBubbleUri)) {
+                    centerTagEmitted = true;
+                    TagPojo centerTag = TagFromExtractorQueryRow.usingRowAndKey(
+                            record,
+                            GRAPH_ELEMENT_QUERY_KEY
+                    ).build();
+                    events.add(SubGraphStreamEvent.element(
+                            SubGraphStreamEvent.Type.CenterTag,
+                            uri,
+                            centerTag
+                    ));
+                }
+                break;
+            case Unknown:
+                break;
+        }
+    }
+
+    private void register(Long nId, URI uri, Boolean isEdge, List<SubGraphStreamEvent> events) {
+        idsUri.put(nId, uri);
+        if (isEdge) {
+            edgeIds.add(nId);
+        }
+        List<Relationship> pending = pendingRelationships.remove(nId);
+        if (pending != null) {
+            for (Relationship relationship : pending) {
+                pendingRelationshipIds.remove(relationship.id());
+                link(relationship, events);
+            }
+        }
+    }
+
+    private void addRelationship(Value relationship, List<SubGraphStreamEvent> events) {
+        if (!relationship.isNull()) {
+            link(relationship.asRelationship(), events);
+        }
+    }
+
+    private void link(Relationship relationship, List<SubGraphStreamEvent> events) {
+        if (linkedRelationshipIds.contains(relationship.id())) {
+            return;
+        }
+        URI edgeUri = idsUri.get(relationship.startNodeId());
+        URI endForkUri = idsUri.get(relationship.endNodeId());
+        if (edgeUri == null || endForkUri == null) {
+            if (!pendingRelationshipIds.add(relationship.id())) {
+                return;
+            }
+            pendingRelationships.computeIfAbsent(
+                    edgeUri == null ? relationship.startNodeId() : relationship.endNodeId(),
+                    id -> new ArrayList<>()
+            ).add(relationship);
+            return;
+        }
+        linkedRelationshipIds.add(relationship.id());
+        if (!edgeIds.contains(relationship.startNodeId())) {
+            return;
+        }
+        events.add(SubGraphStreamEvent.link(
+                relationship.type().equals("SOURCE") ?
+                        SubGraphStreamEvent.Type.Source : SubGraphStreamEvent.Type.Destination,
+                edgeUri,
+                endForkUri
+        ));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
+
+import java.util.Properties;
+
+public class SubGraphTombstoneSettings {
+
+    public static final String PROPERTY_PREFIX = "neo4j.subgraph_tombstones.";
+
+    public enum props {
+        retention_ms,
+        prune_interval_ms
+    }
+
+    private Long retentionMs = 7 * 24 * 60 * 60 * 1000L;
+    private Long pruneIntervalMs = 60 * 60 * 1000L;
+
+    public static SubGraphTombstoneSettings defaults() {
+        return new SubGraphTombstoneSettings();
+    }
+
+    public static SubGraphTombstoneSettings fromSystemProperties() {
+        return fromProperties(
+                System.getProperties()
+        );
+    }
+
+    public static SubGraphTombstoneSettings fromProperties(Properties properties) {
+        SubGraphTombstoneSettings settings = defaults();
+        String retention = get(properties, props.retention_ms);
+        if (retention != null) {
+            settings.setRetentionMs(Long.valueOf(retention));
+        }
+        String pruneInterval = get(properties, props.prune_interval_ms);
+        if (pruneInterval != null) {
+            settings.setPruneIntervalMs(Long.valueOf(pruneInterval));
+        }
+        return settings;
+    }
+
+    private static String get(Properties properties, props prop) {
+        String value = properties.getProperty(PROPERTY_PREFIX + prop.name());
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    protected SubGraphTombstoneSettings() {
+    }
+
+    public Long getRetentionMs() {
+        return retentionMs;
+    }
+
+    /*
+    a delta load older than the retention gets the whole subgraph since its deletions may be pruned
+     */
+    public SubGraphTombstoneSettings setRetentionMs(Long retentionMs) {
+        this.retentionMs = retentionMs;
+        return this;
+    }
+
+    public Long getPruneIntervalMs() {
+        return pruneIntervalMs;
+    }
+
+    public SubGraphTombstoneSettings setPruneIntervalMs(Long pruneIntervalMs) {
+        this.pruneIntervalMs = pruneIntervalMs;
+        return this;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
+
+import com.google.inject.Inject;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.Set;
+
+import static guru.bubl.module.model.UserUris.urisToString;
+import static org.neo4j.driver.Values.parameters;
+
+/*
+deleted graph elements leave a Tombstone with their uri and owner so delta loads can report them.
+they are kept for the retention of the settings, delta loads prune the older ones
+ */
+public class SubGraphTombstones {
+
+    private final SubGraphTombstoneSettings settings;
+    private final Driver driver;
+    private Long lastPruneDate = 0L;
+
+    @Inject
+    public SubGraphTombstones(SubGraphTombstoneSettings settings, Driver driver) {
+        this.settings = settings;
+        this.driver = driver;
+    }
+
+    /*
+    to put before the DETACH DELETE, the variable can be null when it comes from an OPTIONAL MATCH
+     */
+    public static String queryPart(String variableName) {
+        return String.format(
+                "FOREACH (ignored IN CASE WHEN %s IS NULL THEN [] ELSE [1] END | " +
+                        "MERGE (tombstone:Tombstone{uri:%s.uri}) " +
+                        "SET tombstone.owner=%s.owner, tombstone.deleted_at=timestamp()) ",
+                variableName,
+                variableName,
+                variableName
+        );
+    }
+
+    /*
+    a deleted uri created again, like the ids given by the client, is no longer reported as removed
+     */
+    public static void remove(Set<URI> uris, Driver driver) {
+        try (Session session = driver.session()) {
+            session.writeTransaction(tx -> tx.run(
+                    "UNWIND $uris as uri MATCH (tombstone:Tombstone{uri:uri}) DELETE tombstone",
+                    parameters(
+                            "uris", urisToString(uris)
+                    )
+            ).consume());
+        }
+    }
+
+    public static void pruneDeletedBefore(Long deletedAt, Driver driver) {
+        try (Session session = driver.session()) {
+            session.writeTransaction(tx -> tx.run(
+                    "MATCH (tombstone:Tombstone) WHERE tombstone.deleted_at < $deletedAt DELETE tombstone",
+                    parameters(
+                            "deletedAt", deletedAt
+                    )
+            ).consume());
+        }
+    }
+
+    public void pruneIfDue() {
+        Long now = new Date().getTime();
+        synchronized (this) {
+            if (now - lastPruneDate < settings.getPruneIntervalMs()) {
+                return;
+            }
+            lastPruneDate = now;
+        }
+        pruneDeletedBefore(
+                now - settings.getRetentionMs(),
+                driver
+        );
+    }
+
+    public Boolean isRetainedSince(Long since) {
+        return since >= new Date().getTime() - settings.getRetentionMs();
+    }
+}
@@ -1,17 +1,17 @@
 package guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph;
 
 import guru.bubl.module.model.graph.tag.TagPojo;
-import org.neo4j.driver.Record;
+import org.neo4j.driver.types.MapAccessor;
 
 import java.net.URI;
 
 public class TagFromExtractorQueryRow {
 
-    private Record record;
+    private MapAccessor record;
     private String key;
 
     public static TagFromExtractorQueryRow usingRowAndKey(
-            Record record,
+            MapAccessor record,
             String key
     ) {
         return new TagFromExtractorQueryRow(
@@ -20,7 +20,7 @@ public class TagFromExtractorQueryRow {
         );
     }
 
-    protected TagFromExtractorQueryRow(Record record, String key) {
+    protected TagFromExtractorQueryRow(MapAccessor record, String key) {
         this.record = record;
         this.key = key;
     }
@@ -8,8 +8,8 @@ import guru.bubl.module.model.graph.FriendlyResourcePojo;
 import guru.bubl.module.model.graph.graph_element.GraphElementPojo;
 import guru.bubl.module.model.graph.ShareLevel;
 import guru.bubl.module.model.graph.tag.TagPojo;
-import guru.bubl.module.model.json.ImageJson;
-import org.neo4j.driver.Record;
+import guru.bubl.module.neo4j_graph_manipulator.graph.image.ImageJsonCache;
+import org.neo4j.driver.types.MapAccessor;
 
 import java.net.URI;
 import java.util.HashMap;
@@ -18,11 +18,11 @@ import java.util.Map;
 
 public class TagsFromExtractorQueryRowAsArray {
 
-    private Record record;
+    private MapAccessor record;
     private String key;
 
     public static TagsFromExtractorQueryRowAsArray usingRowAndKey(
-            Record record,
+            MapAccessor record,
             String key
     ) {
         return new TagsFromExtractorQueryRowAsArray(
@@ -32,7 +32,7 @@ public class TagsFromExtractorQueryRowAsArray {
     }
 
     protected TagsFromExtractorQueryRowAsArray(
-            Record record,
+            MapAccessor record,
             String key
     ) {
         this.record = record;
@@ -60,7 +60,7 @@ public class TagsFromExtractorQueryRowAsArray {
                     (String) properties.get(3)
             );
             friendlyResource.setImages(
-                    ImageJson.fromJson(
+                    ImageJsonCache.fromJson(
                             properties.get(4).toString()
                     )
             );
@@ -8,18 +8,18 @@ import guru.bubl.module.model.graph.ShareLevel;
 import guru.bubl.module.model.graph.fork.NbNeighborsPojo;
 import guru.bubl.module.model.graph.vertex.Vertex;
 import guru.bubl.module.model.graph.vertex.VertexPojo;
-import org.neo4j.driver.Record;
+import org.neo4j.driver.types.MapAccessor;
 
 import java.util.List;
 
 public class VertexFromExtractorQueryRow {
 
-    private Record row;
+    private MapAccessor row;
 
     private String keyPrefix;
 
     public VertexFromExtractorQueryRow(
-            Record row,
+            MapAccessor row,
             String keyPrefix
     ) {
         this.row = row;
@@ -47,7 +47,7 @@ public class VertexFromExtractorQueryRow {
         return vertex;
     }
 
-    public static NbNeighborsPojo getNbNeighbors(Record row, String keyPrefix) {
+    public static NbNeighborsPojo getNbNeighbors(MapAccessor row, String keyPrefix) {
         NbNeighborsPojo nbNeighborsPojo = new NbNeighborsPojo();
         if (row.get(keyPrefix + ".nb_private_neighbors").asObject() != null) {
             nbNeighborsPojo.setPrivate(row.get(
@@ -67,7 +67,7 @@ public class VertexFromExtractorQueryRow {
         return nbNeighborsPojo;
     }
 
-    public static String getColors(String keyPrefix, Record row) {
+    public static String getColors(String keyPrefix, MapAccessor row) {
         String key = keyPrefix + "." + "colors";
         if (row.get(key) == null) {
             return null;
@@ -77,7 +77,7 @@ public class VertexFromExtractorQueryRow {
         ).asString();
     }
 
-    public static String getFont(String keyPrefix, Record row) {
+    public static String getFont(String keyPrefix, MapAccessor row) {
         String key = keyPrefix + "." + "font";
         if (row.get(key) == null) {
             return null;
@@ -87,7 +87,7 @@ public class VertexFromExtractorQueryRow {
         ).asString();
     }
 
-    public static ShareLevel getShareLevel(String keyPrefix, Record row) {
+    public static ShareLevel getShareLevel(String keyPrefix, MapAccessor row) {
         return ShareLevel.get(row.get(keyPrefix + ".shareLevel").asInt());
     }
 
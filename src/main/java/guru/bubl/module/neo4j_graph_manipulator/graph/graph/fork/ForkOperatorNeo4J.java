@@ -15,17 +15,21 @@ import guru.bubl.module.model.graph.fork.ForkOperator;
 import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.OperatorNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphTombstones;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementOperatorNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.relation.RelationFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.relation.RelationOperatorNeo4J;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.vertex.VertexFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.vertex.VertexOperatorNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.scope.OperatorScope;
 import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
 import org.neo4j.driver.Session;
 
 import java.net.URI;
-import java.util.Map;
+import java.util.*;
 
 import static guru.bubl.module.neo4j_graph_manipulator.graph.RestApiUtilsNeo4j.map;
 import static guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementOperatorNeo4j.decrementNbNeighborsQueryPart;
@@ -55,6 +59,9 @@ public class ForkOperatorNeo4J implements ForkOperator, OperatorNeo4j {
     @Inject
     protected RelationFactoryNeo4j edgeFactory;
 
+    @Inject
+    protected SubGraphCacheNeo4j subGraphCache;
+
 
     @AssistedInject
     protected ForkOperatorNeo4J(
@@ -82,10 +89,12 @@ public class ForkOperatorNeo4J implements ForkOperator, OperatorNeo4j {
     public void setShareLevel(ShareLevel shareLevel, ShareLevel previousShareLevel) {
         String decrementQueryPart = decrementNbNeighborsQueryPart(previousShareLevel, "d", "SET ");
         String incrementQueryPart = incrementNbNeighborsQueryPart(shareLevel, "d", "SET ");
+        Set<URI> changedUris = new HashSet<>();
+        changedUris.add(uri);
         try (Session session = driver.session()) {
-            session.run(
+            List<Record> records = session.run(
                     queryPrefix()
-                            + "SET n.shareLevel=$shareLevel " +
+                            + "SET n.shareLevel=$shareLevel," + FriendlyResourceNeo4j.CHANGE_QUERY_PART +
                             "WITH n OPTIONAL MATCH " +
                             "(n)-[:IDENTIFIED_TO]->(d)" +
                             decrementQueryPart + " " +
@@ -96,13 +105,21 @@ public class ForkOperatorNeo4J implements ForkOperator, OperatorNeo4j {
                             decrementQueryPart + " " +
                             incrementQueryPart + " " +
                             "WITH d,n,e " +
-                            "SET e.shareLevel = CASE WHEN (n.shareLevel <= d.shareLevel) THEN n.shareLevel ELSE d.shareLevel END",
+                            "SET e.shareLevel = CASE WHEN (n.shareLevel <= d.shareLevel) THEN n.shareLevel ELSE d.shareLevel END, " +
+                            FriendlyResourceNeo4j.changeQueryPart("e") +
+                            "RETURN e.uri as edgeUri, d.uri as neighborUri",
                     parameters(
                             "uri", uri().toString(),
                             "shareLevel", shareLevel.getIndex()
                     )
-            );
+            ).list();
+            for (Record record : records) {
+                changedUris.add(URI.create(record.get("edgeUri").asString()));
+                changedUris.add(URI.create(record.get("neighborUri").asString()));
+            }
         }
+        OperatorScope.factsChanged();
+        subGraphCache.invalidate(changedUris);
     }
 
     @Override
@@ -155,8 +172,9 @@ public class ForkOperatorNeo4J implements ForkOperator, OperatorNeo4j {
                             destinationUri.toString()
                     )
             );
-            return edge;
         }
+        subGraphCache.invalidate(uri, destinationUri);
+        return edge;
     }
 
     @Override
@@ -177,6 +195,8 @@ public class ForkOperatorNeo4J implements ForkOperator, OperatorNeo4j {
                             "OPTIONAL MATCH " +
                             "(n)<-[:SOURCE|DESTINATION]-(e:Edge) " +
                             "WITH e, n " +
+                            SubGraphTombstones.queryPart("n") +
+                            SubGraphTombstones.queryPart("e") +
                             "DETACH DELETE n, e",
                     parameters(
                             "uri",
@@ -184,6 +204,7 @@ public class ForkOperatorNeo4J implements ForkOperator, OperatorNeo4j {
                     )
             );
         }
+        subGraphCache.invalidate(uri);
     }
 
     private RelationPojo addVertexAndRelationWithIdsUnderPatternOrNot(String vertexId, String edgeId, Boolean isUnderPattern) {
@@ -191,13 +212,21 @@ public class ForkOperatorNeo4J implements ForkOperator, OperatorNeo4j {
                 UserUris.ownerUserNameFromUri(uri())
         );
         URI vertexUri = userUri.vertexUriFromShortId(vertexId);
-        if (FriendlyResourceNeo4j.haveElementWithUri(vertexUri, driver)) {
+        URI edgeUri = userUri.edgeUriFromShortId(edgeId);
+        Set<URI> existingUris = FriendlyResourceNeo4j.existingUris(
+                Arrays.asList(vertexUri, edgeUri),
+                driver
+        );
+        if (existingUris.contains(vertexUri)) {
             vertexUri = userUri.generateVertexUri();
         }
-        URI edgeUri = userUri.edgeUriFromShortId(edgeId);
-        if (FriendlyResourceNeo4j.haveElementWithUri(edgeUri, driver)) {
+        if (existingUris.contains(edgeUri)) {
             edgeUri = userUri.generateEdgeUri();
         }
+        SubGraphTombstones.remove(
+                new HashSet<>(Arrays.asList(vertexUri, edgeUri)),
+                driver
+        );
         return this.addVertexAndRelationIsUnderPatternOrNot(
                 vertexUri,
                 edgeUri,
@@ -255,7 +284,7 @@ public class ForkOperatorNeo4J implements ForkOperator, OperatorNeo4j {
         try (Session session = driver.session()) {
             session.run(
                     String.format(
-                            "%s SET n.%s= n.%s + 1",
+                            "%s SET n.%s= n.%s + 1," + FriendlyResourceNeo4j.CHANGE_QUERY_PART,
                             queryPrefix(),
                             ForkOperatorNeo4J.props.nb_private_neighbors,
                             ForkOperatorNeo4J.props.nb_private_neighbors
@@ -4,7 +4,9 @@ import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import guru.bubl.module.model.graph.fork.NbNeighbors;
+import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.OperatorNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Session;
@@ -12,6 +14,7 @@ import org.neo4j.driver.Result;
 
 import java.net.URI;
 
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
 import static org.neo4j.driver.Values.parameters;
 
 public class NbNeighborsOperatorNeo4j implements NbNeighbors, OperatorNeo4j {
@@ -21,6 +24,9 @@ public class NbNeighborsOperatorNeo4j implements NbNeighbors, OperatorNeo4j {
     @Inject
     Driver driver;
 
+    @Inject
+    SubGraphCacheNeo4j subGraphCache;
+
     @AssistedInject
     protected NbNeighborsOperatorNeo4j(
             @Assisted URI uri
@@ -31,28 +37,30 @@ public class NbNeighborsOperatorNeo4j implements NbNeighbors, OperatorNeo4j {
 
     @Override
     public Integer getPrivate() {
-        try (Session session = driver.session()) {
-            Result rs = session.run(
-                    String.format(
-                            "%sRETURN n.nb_private_neighbors as result",
-                            queryPrefix()
-                    ),
-                    parameters(
-                            "uri",
-                            uri().toString()
-                    )
-            );
-            Record record = rs.next();
-            return record.get("result").asObject() == null ? 0 : record.get("result").asInt();
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Result rs = tx.run(
+                        String.format(
+                                "%sRETURN n.nb_private_neighbors as result",
+                                queryPrefix()
+                        ),
+                        parameters(
+                                "uri",
+                                uri().toString()
+                        )
+                );
+                Record record = rs.next();
+                return record.get("result").asObject() == null ? 0 : record.get("result").asInt();
+            });
         }
     }
 
     @Override
     public void setPrivate(Integer nbPrivate) {
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     String.format(
-                            "%s SET n.%s=$nbPrivateNeighbors",
+                            "%s SET n.%s=$nbPrivateNeighbors," + FriendlyResourceNeo4j.CHANGE_QUERY_PART,
                             queryPrefix(),
                             ForkOperatorNeo4J.props.nb_private_neighbors
                     ),
@@ -62,71 +70,78 @@ public class NbNeighborsOperatorNeo4j implements NbNeighbors, OperatorNeo4j {
                             "nbPrivateNeighbors",
                             nbPrivate
                     )
-            );
+            ).consume());
         }
+        subGraphCache.invalidate(uri);
     }
 
     @Override
     public Integer getFriend() {
-        try (Session session = driver.session()) {
-            Result rs = session.run(
-                    queryPrefix() + "RETURN n.nb_friend_neighbors as result",
-                    parameters(
-                            "uri",
-                            uri().toString()
-                    )
-            );
-            Record record = rs.next();
-            return record.get("result").asObject() == null ? 0 : record.get("result").asInt();
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Result rs = tx.run(
+                        queryPrefix() + "RETURN n.nb_friend_neighbors as result",
+                        parameters(
+                                "uri",
+                                uri().toString()
+                        )
+                );
+                Record record = rs.next();
+                return record.get("result").asObject() == null ? 0 : record.get("result").asInt();
+            });
         }
     }
 
     @Override
     public void setFriend(Integer friend) {
         try (Session session = driver.session()) {
-            session.run(
-                    queryPrefix() + "SET n.nb_friend_neighbors=$nbFriendNeighbors",
+            session.writeTransaction(tx -> tx.run(
+                    queryPrefix() + "SET n.nb_friend_neighbors=$nbFriendNeighbors," + FriendlyResourceNeo4j.CHANGE_QUERY_PART,
                     parameters(
                             "uri",
                             uri.toString(),
                             "nbFriendNeighbors",
                             friend
                     )
-            );
+            ).consume());
         }
+        subGraphCache.invalidate(uri);
     }
 
     @Override
     public Integer getPublic() {
-        try (Session session = driver.session()) {
-            Result rs = session.run(
-                    String.format(
-                            "%sRETURN n.nb_public_neighbors as result",
-                            queryPrefix()
-                    ),
-                    parameters(
-                            "uri",
-                            uri().toString()
-                    )
-            );
-            Record record = rs.next();
-            return record.get("result").asObject() == null ? 0 : record.get("result").asInt();
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Result rs = tx.run(
+                        String.format(
+                                "%sRETURN n.nb_public_neighbors as result",
+                                queryPrefix()
+                        ),
+                        parameters(
+                                "uri",
+                                uri().toString()
+                        )
+                );
+                Record record = rs.next();
+                return record.get("result").asObject() == null ? 0 : record.get("result").asInt();
+            });
         }
     }
 
     @Override
     public void setPublic(Integer nbPublic) {
         try (Session session = driver.session()) {
-            session.run(
-                    queryPrefix() + "SET n.nb_public_neighbors=$nbPublicNeighbors",
+            session.writeTransaction(tx -> tx.run(
+                    queryPrefix() + "SET n.nb_public_neighbors=$nbPublicNeighbors," + FriendlyResourceNeo4j.CHANGE_QUERY_PART,
                     parameters(
                             "uri",
                             uri.toString(),
                             "nbPublicNeighbors",
                             nbPublic
                     )
-            );
+            ).consume());
         }
+        subGraphCache.invalidate(uri);
     }
 
     @Override
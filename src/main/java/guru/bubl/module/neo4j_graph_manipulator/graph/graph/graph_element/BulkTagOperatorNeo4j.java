@@ -0,0 +1,90 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element;
+
+import com.google.inject.Inject;
+import guru.bubl.module.model.graph.ShareLevel;
+import guru.bubl.module.model.graph.tag.Tag;
+import guru.bubl.module.model.graph.tag.TagPojo;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.AddTagsQueryBuilder;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+
+import java.net.URI;
+import java.util.*;
+
+import static org.neo4j.driver.Values.parameters;
+
+public class BulkTagOperatorNeo4j {
+
+    @Inject
+    private Driver driver;
+
+    @Inject
+    private GraphElementFactoryNeo4j graphElementFactory;
+
+    @Inject
+    private SubGraphCacheNeo4j subGraphCache;
+
+    /*
+    the result has, for each graph element, what addTag returns for its tags
+     */
+    public Map<URI, Map<URI, TagPojo>> addTags(
+            Map<URI, ? extends Collection<? extends Tag>> tagsOfGraphElements,
+            ShareLevel sourceShareLevel
+    ) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (URI graphElementUri : tagsOfGraphElements.keySet()) {
+            GraphElementOperatorNeo4j graphElement = graphElementFactory.withUri(graphElementUri);
+            for (Tag tag : tagsOfGraphElements.get(graphElementUri)) {
+                Map<String, Object> row = graphElement.addTagRow(
+                        tag,
+                        sourceShareLevel
+                );
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+        }
+        Map<URI, Map<URI, TagPojo>> tags = new HashMap<>();
+        if (rows.isEmpty()) {
+            return tags;
+        }
+        try (Session session = driver.session()) {
+            session.writeTransaction(tx -> {
+                Result result = tx.run(
+                        AddTagsQueryBuilder.forSourceShareLevel(
+                                sourceShareLevel
+                        ).build(),
+                        parameters(
+                                "rows", rows
+                        )
+                );
+                while (result.hasNext()) {
+                    Record record = result.next();
+                    tags.computeIfAbsent(
+                            URI.create(record.get("graphElementUri").asString()),
+                            uri -> new HashMap<>()
+                    ).put(
+                            URI.create(record.get("requestedExternalUri").asString()),
+                            GraphElementOperatorNeo4j.tagFromAddTagRecord(record)
+                    );
+                }
+                return tags;
+            });
+        }
+        Set<URI> changedUris = new HashSet<>(tags.keySet());
+        for (Map<URI, TagPojo> tagsOfGraphElement : tags.values()) {
+            for (TagPojo tag : tagsOfGraphElement.values()) {
+                changedUris.add(tag.uri());
+            }
+        }
+        subGraphCache.invalidate(changedUris);
+        return tags;
+    }
+}
@@ -0,0 +1,12 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element;
+
+import java.net.URI;
+import java.util.Set;
+
+public interface ForkCollectionOperatorFactoryNeo4j {
+    ForkCollectionOperatorNeo4J withUris(Set<URI> uris);
+}
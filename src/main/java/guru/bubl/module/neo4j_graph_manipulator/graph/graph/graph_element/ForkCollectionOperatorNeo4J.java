@@ -3,21 +3,60 @@ package guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
+import guru.bubl.module.model.graph.ShareLevel;
 import guru.bubl.module.model.graph.graph_element.ForkCollectionOperator;
+import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphTombstones;
+import guru.bubl.module.neo4j_graph_manipulator.graph.scope.OperatorScope;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Session;
 
 import java.net.URI;
-import java.util.Set;
+import java.util.*;
 
 import static guru.bubl.module.model.UserUris.urisToString;
 import static org.neo4j.driver.Values.parameters;
 
 public class ForkCollectionOperatorNeo4J implements ForkCollectionOperator {
 
+    private static final Integer BATCH_SIZE = 500;
+
+    /*
+    the counters of the neighbors follow the share level of the fork, like ForkOperatorNeo4J.setShareLevel,
+    the previous share level is read on each fork and the edges are set to the lowest share level of their ends
+    once every fork of the batch is updated
+     */
+    private static final String SET_SHARE_LEVEL_QUERY = "UNWIND $uris as uri " +
+            "MATCH (n:Resource{uri:uri}) " +
+            "WITH n, coalesce(n.shareLevel, $defaultShareLevel) as previousShareLevel " +
+            "WHERE previousShareLevel <> $shareLevel " +
+            "SET n.shareLevel=$shareLevel," + FriendlyResourceNeo4j.CHANGE_QUERY_PART +
+            "WITH n, $nbNeighborsPropertyNames[toString(previousShareLevel)] as previousProperty " +
+            "OPTIONAL MATCH (n)-[:IDENTIFIED_TO]->(tag) " +
+            "WITH n, previousProperty, collect(tag) as tags " +
+            "OPTIONAL MATCH (n)<-[:SOURCE|DESTINATION]-(e)-[:SOURCE|DESTINATION]->(d) " +
+            "WHERE d <> n " +
+            "WITH n, previousProperty, tags, collect(d) as forks, collect(e) as edges " +
+            "FOREACH (neighbor IN CASE WHEN previousProperty = $property THEN [] ELSE tags + forks END | " +
+            "SET neighbor += apoc.map.fromPairs([" +
+            "[previousProperty, neighbor[previousProperty] - 1], " +
+            "[$property, neighbor[$property] + 1]" +
+            "])," + FriendlyResourceNeo4j.changeQueryPart("neighbor") + ") " +
+            "WITH collect(edges) as edgeLists " +
+            "UNWIND edgeLists as edgeList " +
+            "UNWIND edgeList as e " +
+            "WITH DISTINCT e " +
+            "MATCH (e)-[:SOURCE|DESTINATION]->(end) " +
+            "WITH e, min(end.shareLevel) as shareLevel " +
+            "SET e.shareLevel=shareLevel," + FriendlyResourceNeo4j.changeQueryPart("e");
+
     @Inject
     private Driver driver;
 
+    @Inject
+    private SubGraphCacheNeo4j subGraphCache;
+
     private Set<URI> uris;
 
     @AssistedInject
@@ -27,6 +66,57 @@ public class ForkCollectionOperatorNeo4J implements ForkCollectionOperator {
         this.uris = uris;
     }
 
+    public void setShareLevel(ShareLevel shareLevel) {
+        Map<String, Object> nbNeighborsPropertyNames = new HashMap<>();
+        for (ShareLevel aShareLevel : ShareLevel.values()) {
+            nbNeighborsPropertyNames.put(
+                    String.valueOf(aShareLevel.getIndex()),
+                    aShareLevel.getNbNeighborsPropertyName()
+            );
+        }
+        inBatches(
+                SET_SHARE_LEVEL_QUERY,
+                "shareLevel", shareLevel.getIndex(),
+                "defaultShareLevel", ShareLevel.PRIVATE.getIndex(),
+                "property", shareLevel.getNbNeighborsPropertyName(),
+                "nbNeighborsPropertyNames", nbNeighborsPropertyNames
+        );
+        OperatorScope.factsChanged();
+    }
+
+    public void setColors(String colors) {
+        inBatches(
+                "UNWIND $uris as uri MATCH (n:Resource{uri:uri}) SET n.colors=$colors," + FriendlyResourceNeo4j.CHANGE_QUERY_PART,
+                "colors", colors
+        );
+    }
+
+    public void setFont(String font) {
+        inBatches(
+                "UNWIND $uris as uri MATCH (n:Resource{uri:uri}) SET n.font=$font," + FriendlyResourceNeo4j.CHANGE_QUERY_PART,
+                "font", font
+        );
+    }
+
+    private void inBatches(String query, Object... keysAndValues) {
+        String[] allUris = urisToString(uris);
+        try (Session session = driver.session()) {
+            for (int start = 0; start < allUris.length; start += BATCH_SIZE) {
+                Object[] parameters = Arrays.copyOf(keysAndValues, keysAndValues.length + 2);
+                parameters[keysAndValues.length] = "uris";
+                parameters[keysAndValues.length + 1] = Arrays.asList(allUris).subList(
+                        start,
+                        Math.min(start + BATCH_SIZE, allUris.length)
+                );
+                session.writeTransaction(tx -> tx.run(
+                        query,
+                        parameters(parameters)
+                ).consume());
+            }
+        }
+        subGraphCache.invalidate(uris);
+    }
+
     @Override
     public void remove() {
         try (Session session = driver.session()) {
@@ -35,6 +125,8 @@ public class ForkCollectionOperatorNeo4J implements ForkCollectionOperator {
                             "WHERE n.uri in $uris " +
                             "OPTIONAL MATCH (n)<-[:SOURCE|DESTINATION]-(e:Edge) " +
                             "WITH e, n " +
+                            SubGraphTombstones.queryPart("n") +
+                            SubGraphTombstones.queryPart("e") +
                             "DETACH DELETE n, e",
                     parameters(
                             "uris",
@@ -42,5 +134,6 @@ public class ForkCollectionOperatorNeo4J implements ForkCollectionOperator {
                     )
             );
         }
+        subGraphCache.invalidate(uris);
     }
 }
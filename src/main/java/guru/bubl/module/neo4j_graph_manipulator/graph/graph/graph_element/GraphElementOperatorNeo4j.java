@@ -17,11 +17,16 @@ import guru.bubl.module.model.graph.fork.NbNeighborsPojo;
 import guru.bubl.module.model.json.ImageJson;
 import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceSnapshot;
+import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceUpdateNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.OperatorNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.RestApiUtilsNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.AddTagQueryBuilder;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.VertexFromExtractorQueryRow;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.fork.ForkOperatorNeo4J;
+import guru.bubl.module.neo4j_graph_manipulator.graph.image.ImageJsonCache;
+import guru.bubl.module.neo4j_graph_manipulator.graph.scope.OperatorScope;
 import guru.bubl.module.neo4j_graph_manipulator.graph.image.ImagesNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.tag.TagFactoryNeo4J;
 import org.neo4j.driver.*;
@@ -30,9 +35,10 @@ import java.net.URI;
 import java.util.*;
 
 import static guru.bubl.module.neo4j_graph_manipulator.graph.RestApiUtilsNeo4j.map;
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
 import static org.neo4j.driver.Values.parameters;
 
-public class GraphElementOperatorNeo4j implements GraphElementOperator, OperatorNeo4j {
+public class GraphElementOperatorNeo4j implements GraphElementOperator, OperatorNeo4j, OperatorScope.Snapshotted {
 
     public enum props {
         identifications,
@@ -43,6 +49,7 @@ public class GraphElementOperatorNeo4j implements GraphElementOperator, Operator
     protected FriendlyResourceNeo4j friendlyResource;
     protected FriendlyResourceFactoryNeo4j friendlyResourceFactory;
     protected Driver driver;
+    protected SubGraphCacheNeo4j subGraphCache;
 
     protected TagFactoryNeo4J identificationFactory;
 
@@ -69,7 +76,8 @@ public class GraphElementOperatorNeo4j implements GraphElementOperator, Operator
     private static String incrementOrDecrementNbFriendsOrPublicQueryPart(ShareLevel shareLevel, String variableName, String prefix, Boolean decrement) {
         String propertyName = shareLevel.getNbNeighborsPropertyName();
         return String.format(
-                prefix + "%s.%s = %s.%s " + (decrement ? " - " : " + ") + " 1 ",
+                prefix + "%s.%s = %s.%s " + (decrement ? " - " : " + ") + " 1," +
+                        FriendlyResourceNeo4j.changeQueryPart(variableName),
                 variableName,
                 propertyName,
                 variableName,
@@ -84,6 +92,7 @@ public class GraphElementOperatorNeo4j implements GraphElementOperator, Operator
             Driver driver,
             TagFactoryNeo4J identificationFactory,
             GraphElementSpecialOperatorFactory graphElementOperatorFactory,
+            SubGraphCacheNeo4j subGraphCache,
             @Assisted URI uri
     ) {
         this.friendlyResource = friendlyResourceFactory.withUri(
@@ -93,6 +102,20 @@ public class GraphElementOperatorNeo4j implements GraphElementOperator, Operator
         this.driver = driver;
         this.friendlyResourceFactory = friendlyResourceFactory;
         this.graphElementOperatorFactory = graphElementOperatorFactory;
+        this.subGraphCache = subGraphCache;
+    }
+
+    public FriendlyResourceSnapshot loadSnapshot() {
+        return friendlyResource.loadSnapshot();
+    }
+
+    @Override
+    public void invalidateSnapshot() {
+        friendlyResource.invalidateSnapshot();
+    }
+
+    public FriendlyResourceUpdateNeo4j update() {
+        return friendlyResource.update();
     }
 
     @Override
@@ -172,17 +195,23 @@ public class GraphElementOperatorNeo4j implements GraphElementOperator, Operator
 
     @Override
     public String getFont() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    queryPrefix() + "RETURN n.font as font",
-                    parameters(
-                            "uri",
-                            this.uri().toString()
-                    )
-            ).single();
-            return record.get(
-                    "font"
-            ).asObject() == null ? "" : record.get("font").asString();
+        FriendlyResourceSnapshot snapshot = friendlyResource.getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getFont();
+        }
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        queryPrefix() + "RETURN n.font as font",
+                        parameters(
+                                "uri",
+                                this.uri().toString()
+                        )
+                ).single();
+                return record.get(
+                        "font"
+                ).asObject() == null ? "" : record.get("font").asString();
+            });
         }
     }
 
@@ -193,94 +222,126 @@ public class GraphElementOperatorNeo4j implements GraphElementOperator, Operator
 
     @Override
     public void setFont(String font) {
+        friendlyResource.invalidateSnapshot();
         try (Session session = driver.session()) {
-            session.run(
-                    queryPrefix() + "SET n.font=$font",
+            session.writeTransaction(tx -> tx.run(
+                    queryPrefix() + "SET n.font=$font," + FriendlyResourceNeo4j.CHANGE_QUERY_PART,
                     parameters(
                             "uri",
                             uri().toString(),
                             "font",
                             font
                     )
-            );
+            ).consume());
         }
+        subGraphCache.invalidate(uri());
     }
 
     @Override
     public void setChildrenIndex(String childrenIndex) {
+        friendlyResource.invalidateSnapshot();
         try (Session session = driver.session()) {
-            session.run(
-                    queryPrefix() + "SET n.childrenIndexes=$childrenIndexes",
+            session.writeTransaction(tx -> tx.run(
+                    queryPrefix() + "SET n.childrenIndexes=$childrenIndexes," + FriendlyResourceNeo4j.CHANGE_QUERY_PART,
                     parameters(
                             "uri",
                             uri().toString(),
                             "childrenIndexes",
                             childrenIndex
                     )
-            );
+            ).consume());
         }
+        subGraphCache.invalidate(uri());
     }
 
     @Override
     public Boolean isUnderPattern() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    queryPrefix() + "RETURN n.isUnderPattern",
-                    parameters(
-                            "uri", uri().toString()
-                    )
-            ).single();
-            return record.get("n.isUnderPattern").asObject() == null ?
-                    false :
-                    record.get("n.isUnderPattern").asBoolean();
+        FriendlyResourceSnapshot snapshot = friendlyResource.getSnapshot();
+        if (snapshot != null) {
+            return snapshot.isUnderPattern();
         }
+        return OperatorScope.memoized(uri(), OperatorScope.Fact.underPattern, () -> {
+            try (Session session = driver.session(READ)) {
+                return session.readTransaction(tx -> {
+                    Record record = tx.run(
+                            queryPrefix() + "RETURN n.isUnderPattern",
+                            parameters(
+                                    "uri", uri().toString()
+                            )
+                    ).single();
+                    return record.get("n.isUnderPattern").asObject() == null ?
+                            false :
+                            record.get("n.isUnderPattern").asBoolean();
+                });
+            }
+        });
     }
 
     @Override
     public Boolean isPatternOrUnderPattern() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    queryPrefix() + "RETURN n.isUnderPattern,'Pattern' IN LABELS(n) as isPattern",
-                    parameters(
-                            "uri", uri().toString()
-                    )
-            ).single();
-            Boolean isUnderPattern = record.get("n.isUnderPattern").asObject() == null ?
-                    false :
-                    record.get("n.isUnderPattern").asBoolean();
-            return isUnderPattern || record.get("isPattern").asBoolean();
+        FriendlyResourceSnapshot snapshot = friendlyResource.getSnapshot();
+        if (snapshot != null) {
+            return snapshot.isUnderPattern() || snapshot.isPattern();
         }
+        return OperatorScope.memoized(uri(), OperatorScope.Fact.patternOrUnderPattern, () -> {
+            try (Session session = driver.session(READ)) {
+                return session.readTransaction(tx -> {
+                    Record record = tx.run(
+                            queryPrefix() + "RETURN n.isUnderPattern,'Pattern' IN LABELS(n) as isPattern",
+                            parameters(
+                                    "uri", uri().toString()
+                            )
+                    ).single();
+                    Boolean isUnderPattern = record.get("n.isUnderPattern").asObject() == null ?
+                            false :
+                            record.get("n.isUnderPattern").asBoolean();
+                    return isUnderPattern || record.get("isPattern").asBoolean();
+                });
+            }
+        });
     }
 
     @Override
     public String getChildrenIndex() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    queryPrefix() + "RETURN n.childrenIndexes as childrenIndexes",
-                    parameters(
-                            "uri",
-                            this.uri().toString()
-                    )
-            ).single();
-            return record.get(
-                    "childrenIndexes"
-            ).asObject() == null ? "" : record.get("childrenIndexes").asString();
+        FriendlyResourceSnapshot snapshot = friendlyResource.getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getChildrenIndex();
+        }
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        queryPrefix() + "RETURN n.childrenIndexes as childrenIndexes",
+                        parameters(
+                                "uri",
+                                this.uri().toString()
+                        )
+                ).single();
+                return record.get(
+                        "childrenIndexes"
+                ).asObject() == null ? "" : record.get("childrenIndexes").asString();
+            });
         }
     }
 
     @Override
     public URI getCopiedFromUri() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    queryPrefix() + "RETURN n.copied_from_uri as copiedFromUri",
-                    parameters(
-                            "uri",
-                            this.uri().toString()
-                    )
-            ).single();
-            return record.get(
-                    "copiedFromUri"
-            ).asObject() == null ? null : URI.create(record.get("copiedFromUri").asString());
+        FriendlyResourceSnapshot snapshot = friendlyResource.getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getCopiedFromUri();
+        }
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        queryPrefix() + "RETURN n.copied_from_uri as copiedFromUri",
+                        parameters(
+                                "uri",
+                                this.uri().toString()
+                        )
+                ).single();
+                return record.get(
+                        "copiedFromUri"
+                ).asObject() == null ? null : URI.create(record.get("copiedFromUri").asString());
+            });
         }
     }
 
@@ -301,6 +362,45 @@ public class GraphElementOperatorNeo4j implements GraphElementOperator, Operator
             Tag tag,
             ShareLevel sourceShareLevel
     ) {
+        Map<String, Object> row = addTagRow(
+                tag,
+                sourceShareLevel
+        );
+        if (row == null) {
+            return new HashMap<>();
+        }
+        Map<URI, TagPojo> identifications = new HashMap<>();
+        try (Session session = driver.session()) {
+            session.writeTransaction(tx -> {
+                Result result = tx.run(
+                        AddTagQueryBuilder.usingIdentificationForGraphElement(
+                                queryPrefix(),
+                                sourceShareLevel,
+                                (Boolean) row.get("tagExternalUri")
+                        ).build(),
+                        row
+                );
+                while (result.hasNext()) {
+                    identifications.put(
+                            tag.getExternalResourceUri(),
+                            tagFromAddTagRecord(result.next())
+                    );
+                }
+                return identifications;
+            });
+        }
+        subGraphCache.invalidate(uri());
+        for (TagPojo tagPojo : identifications.values()) {
+            subGraphCache.invalidate(tagPojo.uri());
+        }
+        return identifications;
+    }
+
+    /*
+    parameters of the add tag queries, null when the tag cannot be added to this graph element
+     */
+    Map<String, Object> addTagRow(Tag tag, ShareLevel sourceShareLevel) {
+        friendlyResource.invalidateSnapshot();
         TagPojo identificationPojo;
         Boolean isIdentifyingToAnIdentification = UserUris.isUriOfATag(
                 tag.getExternalResourceUri()
@@ -329,89 +429,62 @@ public class GraphElementOperatorNeo4j implements GraphElementOperator, Operator
                 tagAlreadyHasUri ? tag.uri() : new UserUris(getOwnerUsername()).generateTagUri()
         );
         if (!UserUris.ownerUserNameFromUri(identificationPojo.uri()).equals(getOwnerUsername())) {
-            return new HashMap<>();
+            return null;
         }
-        Map<URI, TagPojo> identifications = new HashMap<>();
-        Date tagCreationDate = new Date();
-        try (Session session = driver.session()) {
-            Result result = session.run(
-                    AddTagQueryBuilder.usingIdentificationForGraphElement(
-                            queryPrefix(),
-                            sourceShareLevel,
-                            !tagAlreadyHasUri && shouldTagExternalUri(tag.getExternalResourceUri())
-                    ).build(),
-                    parameters(
-                            "uri",
-                            uri().toString(),
-                            "metaUri",
-                            identificationPojo.uri().toString(),
-                            "label",
-                            tag.label(),
-                            "comment",
-                            tag.comment(),
-                            "privateContext",
-                            tag.comment(),
-                            "friendContext",
-                            tag.comment(),
-                            "publicContext",
-                            tag.comment(),
-                            ImagesNeo4j.props.images.name(),
-                            ImageJson.toJsonArray(tag.images()),
-                            "creationDate",
-                            tagCreationDate.getTime(),
-                            "external_uri",
-                            identificationPojo.getExternalResourceUri().toString(),
-                            "relationExternalUri",
-                            identificationPojo.getRelationExternalResourceUri().toString(),
-                            FriendlyResourceNeo4j.props.last_modification_date.name(),
-                            new Date().getTime(),
-                            FriendlyResourceNeo4j.props.owner.name(),
-                            UserUris.ownerUserNameFromUri(uri()),
-                            "shareLevel",
-                            tag.getShareLevel().getIndex()
-                    )
-            );
-            while (result.hasNext()) {
-                Record record = result.next();
-                URI externalUri = URI.create(
-                        record.get("external_uri").asString()
-                );
-                TagPojo tagPojo = new TagPojo(
-                        externalUri,
-                        new GraphElementPojo(
-                                new FriendlyResourcePojo(
-                                        URI.create(
-                                                record.get("uri").asString()
-                                        ),
-                                        record.get("label").asObject() == null ?
-                                                "" : record.get("label").asString(),
-                                        record.get("images").asObject() == null ?
-                                                new HashSet<>() : ImageJson.fromJson(record.get("images").asString()),
-                                        record.get("comment").asObject() == null ?
-                                                "" : record.get("comment").asString(),
-                                        record.get("creation_date").asLong(),
-                                        record.get("last_modification_date").asLong()
-                                )
-                        ),
-                        new NbNeighborsPojo(
-                                record.get("nbPrivateNeighbors").asInt(),
-                                record.get("nbFriendNeighbors").asInt(),
-                                record.get("nbPublicNeighbors").asInt()
-                        )
-                );
-                tagPojo.setShareLevel(
-                        VertexFromExtractorQueryRow.getShareLevel(
-                                "f",
-                                record
+        Map<String, Object> row = new HashMap<>();
+        row.put("uri", uri().toString());
+        row.put("metaUri", identificationPojo.uri().toString());
+        row.put("label", tag.label());
+        row.put("comment", tag.comment());
+        row.put("privateContext", tag.comment());
+        row.put("friendContext", tag.comment());
+        row.put("publicContext", tag.comment());
+        row.put(ImagesNeo4j.props.images.name(), ImageJson.toJsonArray(tag.images()));
+        row.put("creationDate", new Date().getTime());
+        row.put("external_uri", identificationPojo.getExternalResourceUri().toString());
+        row.put("relationExternalUri", identificationPojo.getRelationExternalResourceUri().toString());
+        row.put(FriendlyResourceNeo4j.props.last_modification_date.name(), new Date().getTime());
+        row.put(FriendlyResourceNeo4j.props.owner.name(), UserUris.ownerUserNameFromUri(uri()));
+        row.put("shareLevel", tag.getShareLevel().getIndex());
+        row.put("tagExternalUri", !tagAlreadyHasUri && shouldTagExternalUri(tag.getExternalResourceUri()));
+        row.put("requestedExternalUri", tag.getExternalResourceUri().toString());
+        return row;
+    }
+
+    static TagPojo tagFromAddTagRecord(Record record) {
+        URI externalUri = URI.create(
+                record.get("external_uri").asString()
+        );
+        TagPojo tagPojo = new TagPojo(
+                externalUri,
+                new GraphElementPojo(
+                        new FriendlyResourcePojo(
+                                URI.create(
+                                        record.get("uri").asString()
+                                ),
+                                record.get("label").asObject() == null ?
+                                        "" : record.get("label").asString(),
+                                record.get("images").asObject() == null ?
+                                        new HashSet<>() : ImageJsonCache.fromJson(record.get("images").asString()),
+                                record.get("comment").asObject() == null ?
+                                        "" : record.get("comment").asString(),
+                                record.get("creation_date").asLong(),
+                                record.get("last_modification_date").asLong()
                         )
-                );
-                identifications.put(
-                        tag.getExternalResourceUri(),
-                        tagPojo
-                );
-            }
-            return identifications;
-        }
+                ),
+                new NbNeighborsPojo(
+                        record.get("nbPrivateNeighbors").asInt(),
+                        record.get("nbFriendNeighbors").asInt(),
+                        record.get("nbPublicNeighbors").asInt()
+                )
+        );
+        tagPojo.setShareLevel(
+                VertexFromExtractorQueryRow.getShareLevel(
+                        "f",
+                        record
+                )
+        );
+        return tagPojo;
     }
 
     private Boolean shouldTagExternalUri(URI externalUri) {
@@ -433,31 +506,41 @@ public class GraphElementOperatorNeo4j implements GraphElementOperator, Operator
 
     @Override
     public ShareLevel getShareLevel() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    queryPrefix() + "RETURN n.shareLevel as shareLevel",
-                    parameters(
-                            "uri",
-                            this.uri().toString()
-                    )
-            ).single();
-            if (record.get("shareLevel").asObject() == null) {
-                return ShareLevel.PRIVATE;
-            }
-            Integer shareLevel = record.get("shareLevel").asInt();
-            return ShareLevel.get(shareLevel);
+        FriendlyResourceSnapshot snapshot = friendlyResource.getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getShareLevel();
         }
+        return OperatorScope.memoized(uri(), OperatorScope.Fact.shareLevel, () -> {
+            try (Session session = driver.session(READ)) {
+                return session.readTransaction(tx -> {
+                    Record record = tx.run(
+                            queryPrefix() + "RETURN n.shareLevel as shareLevel",
+                            parameters(
+                                    "uri",
+                                    this.uri().toString()
+                            )
+                    ).single();
+                    if (record.get("shareLevel").asObject() == null) {
+                        return ShareLevel.PRIVATE;
+                    }
+                    Integer shareLevel = record.get("shareLevel").asInt();
+                    return ShareLevel.get(shareLevel);
+                });
+            }
+        });
     }
 
     @Override
     public void removeTag(Tag tag, ShareLevel sourceShareLevel) {
+        friendlyResource.invalidateSnapshot();
         try (Session session = driver.session()) {
             String nbNeighborsPropertyName = sourceShareLevel.getNbNeighborsPropertyName();
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     String.format(
                             "%s MATCH (n)-[r:IDENTIFIED_TO]->(i{uri:$metaUri}) " +
                                     "DELETE r " +
-                                    "SET i.%s=i.%s -1, " +
+                                    "SET i.%s=i.%s -1," +
+                                    FriendlyResourceNeo4j.changeQueryPart("i") + "," +
                                     FriendlyResourceNeo4j.LAST_MODIFICATION_QUERY_PART +
                                     "RETURN i.uri as uri",
                             queryPrefix(),
@@ -472,12 +555,13 @@ public class GraphElementOperatorNeo4j implements GraphElementOperator, Operator
                             "last_modification_date",
                             new Date().getTime()
                     )
+            ).consume());
+        }
+        subGraphCache.invalidate(uri(), tag.uri());
+        if (tag.getExternalResourceUri() != null && tag.getExternalResourceUri().equals(this.uri())) {
+            identificationFactory.withUri(tag.uri()).setExternalResourceUri(
+                    tag.uri()
             );
-            if (tag.getExternalResourceUri() != null && tag.getExternalResourceUri().equals(this.uri())) {
-                identificationFactory.withUri(tag.uri()).setExternalResourceUri(
-                        tag.uri()
-                );
-            }
         }
     }
 
@@ -528,78 +612,82 @@ public class GraphElementOperatorNeo4j implements GraphElementOperator, Operator
     @Override
     public Map<URI, TagPojo> getTags() {
         Map<URI, TagPojo> identifications = new HashMap<>();
-        try (Session session = driver.session()) {
-            Result rs = session.run(
-                    String.format(
-                            "%sMATCH (n)-[r:IDENTIFIED_TO]->(tag) " +
-                                    "RETURN tag.uri as uri, " +
-                                    "tag.external_uri as external_uri, " +
-                                    "tag.nb_private_neighbors as nbPrivateNeighbors, " +
-                                    "tag.nb_friend_neighbors as nbFriendNeighbors, " +
-                                    "tag.nb_public_neighbors as nbPublicNeighbors, " +
-                                    "r.relation_external_uri as r_x_u",
-                            queryPrefix()
-                    ),
-                    parameters(
-                            "uri", uri().toString()
-                    )
-            );
-            while (rs.hasNext()) {
-                Record record = rs.next();
-                URI uri = URI.create(
-                        record.get("uri").asString()
-                );
-                URI externalUri = URI.create(
-                        record.get("external_uri").asString()
-                );
-                TagPojo tag = new TagPojo(
-                        externalUri,
-                        new GraphElementPojo(
-                                new FriendlyResourcePojo(
-                                        uri
-                                )
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Result rs = tx.run(
+                        String.format(
+                                "%sMATCH (n)-[r:IDENTIFIED_TO]->(tag) " +
+                                        "RETURN tag.uri as uri, " +
+                                        "tag.external_uri as external_uri, " +
+                                        "tag.nb_private_neighbors as nbPrivateNeighbors, " +
+                                        "tag.nb_friend_neighbors as nbFriendNeighbors, " +
+                                        "tag.nb_public_neighbors as nbPublicNeighbors, " +
+                                        "r.relation_external_uri as r_x_u",
+                                queryPrefix()
+                        ),
+                        parameters(
+                                "uri", uri().toString()
                         )
                 );
-                tag.getNbNeighbors().setPrivate(
-                        record.get("nbPrivateNeighbors").asObject() == null ? 0 :
-                                record.get("nbPrivateNeighbors").asInt()
-                );
-                tag.getNbNeighbors().setFriend(
-                        record.get("nbFriendNeighbors").asObject() == null ? 0 :
-                                record.get("nbFriendNeighbors").asInt()
-                );
-                tag.getNbNeighbors().setPublic(
-                        record.get("nbPublicNeighbors").asObject() == null ? 0 :
-                                record.get("nbPublicNeighbors").asInt()
-                );
-                String relationExternalUriString = record.get("r_x_u").asString();
-                tag.setRelationExternalResourceUri(
-                        relationExternalUriString == null ? Tag.DEFAULT_IDENTIFIER_RELATION_EXTERNAL_URI :
-                                URI.create(
-                                        relationExternalUriString
-                                )
-                );
-                identifications.put(
-                        externalUri,
-                        tag
-                );
-            }
-            return identifications;
+                while (rs.hasNext()) {
+                    Record record = rs.next();
+                    URI uri = URI.create(
+                            record.get("uri").asString()
+                    );
+                    URI externalUri = URI.create(
+                            record.get("external_uri").asString()
+                    );
+                    TagPojo tag = new TagPojo(
+                            externalUri,
+                            new GraphElementPojo(
+                                    new FriendlyResourcePojo(
+                                            uri
+                                    )
+                            )
+                    );
+                    tag.getNbNeighbors().setPrivate(
+                            record.get("nbPrivateNeighbors").asObject() == null ? 0 :
+                                    record.get("nbPrivateNeighbors").asInt()
+                    );
+                    tag.getNbNeighbors().setFriend(
+                            record.get("nbFriendNeighbors").asObject() == null ? 0 :
+                                    record.get("nbFriendNeighbors").asInt()
+                    );
+                    tag.getNbNeighbors().setPublic(
+                            record.get("nbPublicNeighbors").asObject() == null ? 0 :
+                                    record.get("nbPublicNeighbors").asInt()
+                    );
+                    String relationExternalUriString = record.get("r_x_u").asString();
+                    tag.setRelationExternalResourceUri(
+                            relationExternalUriString == null ? Tag.DEFAULT_IDENTIFIER_RELATION_EXTERNAL_URI :
+                                    URI.create(
+                                            relationExternalUriString
+                                    )
+                    );
+                    identifications.put(
+                            externalUri,
+                            tag
+                    );
+                }
+                return identifications;
+            });
         }
     }
 
     @Override
     public String getPrivateContext() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    queryPrefix() + "RETURN n.private_context as privateContext",
-                    parameters(
-                            "uri",
-                            this.uri().toString()
-                    )
-            ).single();
-            Value privateContext = record.get("privateContext");
-            return privateContext.asObject() == null ? "" : privateContext.asString();
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        queryPrefix() + "RETURN n.private_context as privateContext",
+                        parameters(
+                                "uri",
+                                this.uri().toString()
+                        )
+                ).single();
+                Value privateContext = record.get("privateContext");
+                return privateContext.asObject() == null ? "" : privateContext.asString();
+            });
         }
     }
 
@@ -0,0 +1,25 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.scope.OperatorScope;
+
+import javax.inject.Inject;
+import java.net.URI;
+
+public class ScopedGraphElementFactoryNeo4j implements GraphElementFactoryNeo4j {
+
+    @Inject
+    private UnscopedGraphElementFactoryNeo4j unscopedFactory;
+
+    @Override
+    public GraphElementOperatorNeo4j withUri(URI uri) {
+        return OperatorScope.operator(
+                GraphElementOperatorNeo4j.class,
+                uri,
+                unscopedFactory::withUri
+        );
+    }
+}
@@ -0,0 +1,11 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element;
+
+import java.net.URI;
+
+public interface UnscopedGraphElementFactoryNeo4j {
+    GraphElementOperatorNeo4j withUri(URI uri);
+}
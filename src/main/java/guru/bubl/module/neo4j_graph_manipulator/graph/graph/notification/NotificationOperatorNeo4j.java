@@ -15,6 +15,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
 import static org.neo4j.driver.Values.parameters;
 
 public class NotificationOperatorNeo4j implements NotificationOperator {
@@ -29,31 +30,34 @@ public class NotificationOperatorNeo4j implements NotificationOperator {
 
     @Override
     public List<Notification> listForUserAndNbSkip(User user, Integer nbSkip) {
-        List<Notification> notifications = new ArrayList<>();
-        try (Session session = driver.session()) {
-            String query = "MATCH (n:Notification{owner:$owner}) " +
-                    "RETURN n.uri, n.action, n.watchUri, n.rootUri, n.watchLabel, n.creationDate " +
-                    "ORDER BY n.creationDate DESC SKIP " + nbSkip + " LIMIT 10 ";
-            Result rs = session.run(
-                    query,
-                    parameters(
-                            "owner", user.username()
-                    )
-            );
-            while (rs.hasNext()) {
-                Record record = rs.next();
-                notifications.add(
-                        new Notification(
-                                URI.create(record.get("n.uri").asString()),
-                                URI.create(record.get("n.rootUri").asString()),
-                                URI.create(record.get("n.watchUri").asString()),
-                                new Date(record.get("n.creationDate").asLong()),
-                                record.get("n.action").asString(),
-                                record.get("n.watchLabel").asString()
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                List<Notification> notifications = new ArrayList<>();
+                String query = "MATCH (n:Notification{owner:$owner}) " +
+                        "RETURN n.uri, n.action, n.watchUri, n.rootUri, n.watchLabel, n.creationDate " +
+                        "ORDER BY n.creationDate DESC SKIP $skip LIMIT 10 ";
+                Result rs = tx.run(
+                        query,
+                        parameters(
+                                "owner", user.username(),
+                                "skip", nbSkip
                         )
                 );
-            }
+                while (rs.hasNext()) {
+                    Record record = rs.next();
+                    notifications.add(
+                            new Notification(
+                                    URI.create(record.get("n.uri").asString()),
+                                    URI.create(record.get("n.rootUri").asString()),
+                                    URI.create(record.get("n.watchUri").asString()),
+                                    new Date(record.get("n.creationDate").asLong()),
+                                    record.get("n.action").asString(),
+                                    record.get("n.watchLabel").asString()
+                            )
+                    );
+                }
+                return notifications;
+            });
         }
-        return notifications;
     }
 }
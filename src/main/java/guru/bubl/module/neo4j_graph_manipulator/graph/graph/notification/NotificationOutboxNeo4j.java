@@ -0,0 +1,216 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.notification;
+
+import com.google.inject.Inject;
+import guru.bubl.module.neo4j_graph_manipulator.graph.RestApiUtilsNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.transaction.GraphTransactionDriver;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.neo4j.driver.Values.parameters;
+
+/*
+edits only record a pending event, notifications for the copies are created by one worker thread
+in UNWIND batches. one notification per watched resource, copy owner, action and day, the day property
+is part of the MERGE key. when the queue is full the edit waits a little and then does its own fan-out,
+events are kept in memory only. closing the driver writes what is pending and stops the worker
+ */
+public class NotificationOutboxNeo4j {
+
+    private static final Long DAY_IN_MILLIS = 24L * 60 * 60 * 1000;
+
+    private static final String FAN_OUT_QUERY = "UNWIND $events as event " +
+            "MATCH (ge:Resource{copied_from_uri:event.watchUri}) WHERE ge.owner<>event.owner " +
+            "UNWIND event.actions as action " +
+            "MERGE (n:Resource:Notification{owner:ge.owner, watchUri:event.watchUri, day:event.day, action:action}) " +
+            "ON CREATE SET " +
+            "n.uri='/service/users/' + ge.owner + '/notification/' + apoc.create.uuid(), " +
+            "n.watchLabel=ge.label, " +
+            "n.rootUri=ge.copied_root_uri, " +
+            "n.creationDate=event.creationDate";
+
+    private static final Logger logger = Logger.getLogger(NotificationOutboxNeo4j.class.getName());
+
+    private final Driver driver;
+    private final NotificationOutboxSettings settings;
+    private final BlockingQueue<Map<String, Object>> queue;
+    private final AtomicInteger nbPending = new AtomicInteger();
+    private final Object idle = new Object();
+    private Thread worker;
+    private Boolean isClosed = false;
+
+    @Inject
+    public NotificationOutboxNeo4j(GraphTransactionDriver driver, NotificationOutboxSettings settings) {
+        this.driver = driver;
+        this.settings = settings;
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+        driver.onClose(this::close);
+    }
+
+    public void enqueue(URI watchUri, String owner, List<String> actions) {
+        if (actions.isEmpty()) {
+            return;
+        }
+        Long now = new Date().getTime();
+        Map<String, Object> event = RestApiUtilsNeo4j.map(
+                "watchUri", watchUri.toString(),
+                "owner", owner,
+                "actions", new ArrayList<>(actions),
+                "day", now / DAY_IN_MILLIS,
+                "creationDate", now
+        );
+        if (settings.isSynchronous() || !startWorkerIfNeeded()) {
+            fanOut(Collections.singletonList(event));
+            return;
+        }
+        nbPending.incrementAndGet();
+        Boolean isQueued;
+        try {
+            isQueued = queue.offer(event, settings.getEnqueueTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            isQueued = false;
+        }
+        if (!isQueued) {
+            markDone(1);
+            fanOut(Collections.singletonList(event));
+        }
+    }
+
+    /*
+    waits until every queued event is written
+     */
+    public void flush() {
+        synchronized (idle) {
+            while (nbPending.get() > 0) {
+                try {
+                    idle.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public Integer getNbPending() {
+        return nbPending.get();
+    }
+
+    /*
+    events still queued when the worker stops are written here
+     */
+    public void close() {
+        Thread stopped;
+        synchronized (this) {
+            isClosed = true;
+            stopped = worker;
+            worker = null;
+        }
+        flush();
+        if (stopped == null) {
+            return;
+        }
+        stopped.interrupt();
+        try {
+            stopped.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Map<String, Object>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            try {
+                fanOut(deduplicate(remaining));
+            } finally {
+                markDone(remaining.size());
+            }
+        }
+    }
+
+    /*
+    false once closed, the caller then does its own fan-out
+     */
+    private synchronized Boolean startWorkerIfNeeded() {
+        if (isClosed) {
+            return false;
+        }
+        if (worker != null) {
+            return true;
+        }
+        worker = new Thread(this::drain, "neo4j-notification-outbox");
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    private void drain() {
+        List<Map<String, Object>> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, settings.getBatchSize() - 1);
+                fanOut(deduplicate(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "notification fan-out failed for " + batch.size() + " events", e);
+            } finally {
+                markDone(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    /*
+    the MERGE already keeps one notification per action and day, this only spares rows for bursts of edits,
+    the actions of events for the same resource, owner and day are put together
+     */
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> deduplicate(List<Map<String, Object>> batch) {
+        Map<List<Object>, Map<String, Object>> events = new LinkedHashMap<>();
+        for (Map<String, Object> event : batch) {
+            List<Object> key = Arrays.asList(event.get("watchUri"), event.get("owner"), event.get("day"));
+            Map<String, Object> kept = events.get(key);
+            if (kept == null) {
+                events.put(key, new HashMap<>(event));
+                continue;
+            }
+            Set<String> actions = new LinkedHashSet<>((List<String>) kept.get("actions"));
+            actions.addAll((List<String>) event.get("actions"));
+            kept.put("actions", new ArrayList<>(actions));
+        }
+        return new ArrayList<>(events.values());
+    }
+
+    private void fanOut(List<Map<String, Object>> events) {
+        try (Session session = driver.session()) {
+            session.writeTransaction(tx -> tx.run(
+                    FAN_OUT_QUERY,
+                    parameters(
+                            "events", events
+                    )
+            ).consume());
+        }
+    }
+
+    private void markDone(Integer nbEvents) {
+        if (nbPending.addAndGet(-nbEvents) <= 0) {
+            synchronized (idle) {
+                idle.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.notification;
+
+import java.util.Properties;
+
+public class NotificationOutboxSettings {
+
+    public static final String PROPERTY_PREFIX = "neo4j.notification_outbox.";
+
+    public enum props {
+        queue_capacity,
+        batch_size,
+        enqueue_timeout_ms,
+        synchronous
+    }
+
+    private Integer queueCapacity = 10000;
+    private Integer batchSize = 500;
+    private Long enqueueTimeoutMs = 50L;
+    private Boolean synchronous = false;
+
+    public static NotificationOutboxSettings defaults() {
+        return new NotificationOutboxSettings();
+    }
+
+    public static NotificationOutboxSettings fromSystemProperties() {
+        return fromProperties(
+                System.getProperties()
+        );
+    }
+
+    public static NotificationOutboxSettings fromProperties(Properties properties) {
+        NotificationOutboxSettings settings = defaults();
+        String queueCapacity = get(properties, props.queue_capacity);
+        if (queueCapacity != null) {
+            settings.setQueueCapacity(Integer.valueOf(queueCapacity));
+        }
+        String batchSize = get(properties, props.batch_size);
+        if (batchSize != null) {
+            settings.setBatchSize(Integer.valueOf(batchSize));
+        }
+        String enqueueTimeout = get(properties, props.enqueue_timeout_ms);
+        if (enqueueTimeout != null) {
+            settings.setEnqueueTimeoutMs(Long.valueOf(enqueueTimeout));
+        }
+        String synchronous = get(properties, props.synchronous);
+        if (synchronous != null) {
+            settings.setSynchronous(Boolean.valueOf(synchronous));
+        }
+        return settings;
+    }
+
+    private static String get(Properties properties, props prop) {
+        String value = properties.getProperty(PROPERTY_PREFIX + prop.name());
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    protected NotificationOutboxSettings() {
+    }
+
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public NotificationOutboxSettings setQueueCapacity(Integer queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    /*
+    pending events written per UNWIND statement
+     */
+    public NotificationOutboxSettings setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public Long getEnqueueTimeoutMs() {
+        return enqueueTimeoutMs;
+    }
+
+    /*
+    how long an edit waits for room in a full queue before doing the fan-out itself
+     */
+    public NotificationOutboxSettings setEnqueueTimeoutMs(Long enqueueTimeoutMs) {
+        this.enqueueTimeoutMs = enqueueTimeoutMs;
+        return this;
+    }
+
+    public Boolean isSynchronous() {
+        return synchronous;
+    }
+
+    /*
+    the fan-out is done by the edit itself, for tests that read notifications right after an edit
+     */
+    public NotificationOutboxSettings setSynchronous(Boolean synchronous) {
+        this.synchronous = synchronous;
+        return this;
+    }
+}
@@ -6,12 +6,11 @@ import guru.bubl.module.model.User;
 import guru.bubl.module.model.UserUris;
 import guru.bubl.module.model.graph.FriendlyResourcePojo;
 import guru.bubl.module.model.graph.ShareLevel;
-import guru.bubl.module.model.graph.graph_element.GraphElementOperator;
-import guru.bubl.module.model.graph.graph_element.GraphElementOperatorFactory;
 import guru.bubl.module.model.graph.graph_element.GraphElementPojo;
 import guru.bubl.module.model.graph.tag.Tag;
 import guru.bubl.module.model.graph.tag.TagPojo;
 import guru.bubl.module.model.graph.pattern.PatternUser;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.BulkTagOperatorNeo4j;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Session;
@@ -28,19 +27,19 @@ import static org.neo4j.driver.Values.parameters;
 public class PatternUserNeo4j implements PatternUser {
 
     private Driver driver;
-    private GraphElementOperatorFactory graphElementFactory;
+    private BulkTagOperatorNeo4j bulkTagOperator;
     private User user;
     private URI patternUri;
 
     @AssistedInject
     protected PatternUserNeo4j(
             Driver driver,
-            GraphElementOperatorFactory graphElementFactory,
+            BulkTagOperatorNeo4j bulkTagOperator,
             @Assisted User user,
             @Assisted URI patternUri
     ) {
         this.driver = driver;
-        this.graphElementFactory = graphElementFactory;
+        this.bulkTagOperator = bulkTagOperator;
         this.user = user;
         this.patternUri = patternUri;
     }
@@ -68,6 +67,7 @@ public class PatternUserNeo4j implements PatternUser {
                 "c.nb_public_neighbors=0," +
                 "c.nb_friend_neighbors=0, " +
                 "c.last_modification_date=timestamp(), " +
+                "c.last_change_date=timestamp(), " +
                 "c.copied_from_uri = c.uri, " +
                 "c.uri='" + userUris.graphUri() + "/'+ split(c.uri, '/')[5] + '/' + apoc.create.uuid() " +
                 "WITH c, n " +
@@ -119,22 +119,14 @@ public class PatternUserNeo4j implements PatternUser {
                     ));
                 }
             }
-            graphElementFactory.withUri(
-                    centerUri
-            ).addTag(
-                    patternAsTag,
+            if (!tagThoseGraphElements.containsKey(centerUri)) {
+                tagThoseGraphElements.put(centerUri, new HashSet<>());
+            }
+            tagThoseGraphElements.get(centerUri).add(patternAsTag);
+            bulkTagOperator.addTags(
+                    tagThoseGraphElements,
                     ShareLevel.PRIVATE
             );
-            for (URI uri : tagThoseGraphElements.keySet()) {
-                GraphElementOperator graphElementOperator = graphElementFactory.withUri(uri);
-                Set<TagPojo> tags = tagThoseGraphElements.get(uri);
-                for (TagPojo tag : tags) {
-                    graphElementOperator.addTag(
-                            tag,
-                            ShareLevel.PRIVATE
-                    );
-                }
-            }
             return centerUri;
         }
     }
@@ -20,6 +20,7 @@ import guru.bubl.module.model.graph.vertex.VertexPojo;
 import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.OperatorNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.RestApiUtilsNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementOperatorNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.group_relation.GroupRelationFactoryNeo4j;
@@ -61,6 +62,9 @@ public class RelationOperatorNeo4J implements RelationOperator, OperatorNeo4j {
     @Inject
     protected GroupRelationFactoryNeo4j groupRelationFactoryNeo4j;
 
+    @Inject
+    protected SubGraphCacheNeo4j subGraphCache;
+
     @AssistedInject
     protected RelationOperatorNeo4J(
             VertexFactoryNeo4j vertexFactory,
@@ -156,6 +160,7 @@ public class RelationOperatorNeo4J implements RelationOperator, OperatorNeo4j {
                     )
             );
         }
+        subGraphCache.invalidate(uri());
     }
 
     @Override
@@ -339,6 +344,7 @@ public class RelationOperatorNeo4J implements RelationOperator, OperatorNeo4j {
                             "MERGE (gr)-[:SOURCE]->(s) " +
                             "MERGE (n)-[:SOURCE]->(gr) " +
                             "DELETE r " +
+                            "SET" + FriendlyResourceNeo4j.CHANGE_QUERY_PART +
                             "WITH n,gr " +
                             "MATCH (n)-[r:IDENTIFIED_TO]->(t) " +
                             "MERGE (gr)-[:IDENTIFIED_TO]->(t) " +
@@ -357,6 +363,7 @@ public class RelationOperatorNeo4J implements RelationOperator, OperatorNeo4j {
                     )
             );
         }
+        subGraphCache.invalidate(uri());
         return new GroupRelationPojo(
                 newGroupRelationUri
         );
@@ -4,6 +4,7 @@
 
 package guru.bubl.module.neo4j_graph_manipulator.graph.graph.tag;
 
+import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.assistedinject.AssistedInject;
 import guru.bubl.module.model.Image;
@@ -20,9 +21,13 @@ import guru.bubl.module.model.graph.tag.TagPojo;
 import guru.bubl.module.model.graph.fork.NbNeighbors;
 import guru.bubl.module.model.graph.fork.NbNeighborsPojo;
 import guru.bubl.module.model.graph.fork.ForkOperatorFactory;
+import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.OperatorNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphTombstones;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementOperatorNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.scope.OperatorScope;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Session;
@@ -34,6 +39,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
 import static org.neo4j.driver.Values.parameters;
 
 public class TagOperatorNeo4J implements TagOperator, OperatorNeo4j {
@@ -50,6 +56,9 @@ public class TagOperatorNeo4J implements TagOperator, OperatorNeo4j {
     private TagFactory tagFactory;
     protected ForkOperatorFactory forkOperatorFactory;
 
+    @Inject
+    protected SubGraphCacheNeo4j subGraphCache;
+
     @AssistedInject
     protected TagOperatorNeo4J(
             Driver driver,
@@ -74,111 +83,123 @@ public class TagOperatorNeo4J implements TagOperator, OperatorNeo4j {
                 queryPrefix(),
                 props.relation_external_uri
         );
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    query,
-                    parameters(
-                            "uri",
-                            uri().toString()
-                    )
-            ).single();
-            return URI.create(
-                    record.get("relationExternalUri").asString()
-            );
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        query,
+                        parameters(
+                                "uri",
+                                uri().toString()
+                        )
+                ).single();
+                return URI.create(
+                        record.get("relationExternalUri").asString()
+                );
+            });
         }
     }
 
     @Override
     public URI getExternalResourceUri() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    queryPrefix() + "RETURN n.external_uri as externalUri",
-                    parameters(
-                            "uri",
-                            this.uri().toString()
-                    )
-            ).single();
-            return URI.create(
-                    record.get("externalUri").asString()
-            );
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        queryPrefix() + "RETURN n.external_uri as externalUri",
+                        parameters(
+                                "uri",
+                                this.uri().toString()
+                        )
+                ).single();
+                return URI.create(
+                        record.get("externalUri").asString()
+                );
+            });
         }
     }
 
     @Override
     public void setExternalResourceUri(URI uri) {
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     queryPrefix() + "SET n.external_uri=$external_uri",
                     parameters(
                             "uri", this.uri().toString(),
                             "external_uri", uri.toString()
                     )
-            );
+            ).consume());
         }
     }
 
     @Override
     public TagPojo buildPojo() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    queryPrefix() + "RETURN n.uri as uri, n.label as label, n.comment as comment, n.external_uri as externalUri, n.nb_private_neighbors as nbPrivateNeighbors, n.nb_friend_neighbors as nbFriendNeighbors, n.nb_public_neighbors as nbPublicNeighbors",
-                    parameters(
-                            "uri", this.uri().toString()
-                    )
-            ).single();
-            FriendlyResourcePojo friendlyResourcePojo = new FriendlyResourcePojo(
-                    URI.create(record.get("uri").asString()),
-                    record.get("label").asString()
-            );
-            friendlyResourcePojo.setComment(
-                    record.get("comment").asString()
-            );
-            return new TagPojo(
-                    URI.create(record.get("externalUri").asString()),
-                    new GraphElementPojo(
-                            friendlyResourcePojo
-                    ),
-                    new NbNeighborsPojo(
-                            record.get("nbPrivateNeighbors").asInt(),
-                            record.get("nbFriendNeighbors").asInt(),
-                            record.get("nbPublicNeighbors").asInt()
-                    )
-            );
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        queryPrefix() + "RETURN n.uri as uri, n.label as label, n.comment as comment, n.external_uri as externalUri, n.nb_private_neighbors as nbPrivateNeighbors, n.nb_friend_neighbors as nbFriendNeighbors, n.nb_public_neighbors as nbPublicNeighbors",
+                        parameters(
+                                "uri", this.uri().toString()
+                        )
+                ).single();
+                FriendlyResourcePojo friendlyResourcePojo = new FriendlyResourcePojo(
+                        URI.create(record.get("uri").asString()),
+                        record.get("label").asString()
+                );
+                friendlyResourcePojo.setComment(
+                        record.get("comment").asString()
+                );
+                return new TagPojo(
+                        URI.create(record.get("externalUri").asString()),
+                        new GraphElementPojo(
+                                friendlyResourcePojo
+                        ),
+                        new NbNeighborsPojo(
+                                record.get("nbPrivateNeighbors").asInt(),
+                                record.get("nbFriendNeighbors").asInt(),
+                                record.get("nbPublicNeighbors").asInt()
+                        )
+                );
+            });
         }
     }
 
     @Override
     public void mergeTo(Tag mergeTo) {
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     queryPrefix() + ", (mergeTo:Resource{uri:$mergeToUri}) " +
                             "SET mergeTo.nb_private_neighbors = mergeTo.nb_private_neighbors + n.nb_private_neighbors," +
                             "mergeTo.nb_friend_neighbors = mergeTo.nb_friend_neighbors + n.nb_friend_neighbors," +
-                            "mergeTo.nb_public_neighbors = mergeTo.nb_public_neighbors + n.nb_public_neighbors " +
+                            "mergeTo.nb_public_neighbors = mergeTo.nb_public_neighbors + n.nb_public_neighbors," +
+                            FriendlyResourceNeo4j.changeQueryPart("mergeTo") +
                             "WITH n, mergeTo " +
                             "OPTIONAL MATCH (n)<-[:IDENTIFIED_TO]-(ge) " +
                             "MERGE (mergeTo)<-[:IDENTIFIED_TO]-(ge) " +
+                            "WITH DISTINCT n " +
+                            SubGraphTombstones.queryPart("n") +
                             "DETACH DELETE n ",
                     parameters(
                             "uri", this.uri().toString(),
                             "mergeToUri", mergeTo.uri().toString()
                     )
-            );
+            ).consume());
         }
+        subGraphCache.invalidate(uri(), mergeTo.uri());
     }
 
     @Override
     public void setShareLevel(ShareLevel shareLevel) {
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     queryPrefix()
                             + "SET n.shareLevel=$shareLevel",
                     parameters(
                             "uri", uri().toString(),
                             "shareLevel", shareLevel.getIndex()
                     )
-            );
+            ).consume());
         }
+        OperatorScope.factsChanged();
+        subGraphCache.invalidate(uri());
     }
 
     @Override
@@ -0,0 +1,11 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.graph.tree_copier;
+
+import guru.bubl.module.model.User;
+
+public interface TreeCopierFactoryNeo4j {
+    TreeCopierNeo4j forCopier(User copier);
+}
@@ -10,11 +10,12 @@ import guru.bubl.module.model.friend.FriendStatus;
 import guru.bubl.module.model.graph.FriendlyResourcePojo;
 import guru.bubl.module.model.graph.ShareLevel;
 import guru.bubl.module.model.graph.Tree;
-import guru.bubl.module.model.graph.graph_element.GraphElementOperator;
-import guru.bubl.module.model.graph.graph_element.GraphElementOperatorFactory;
 import guru.bubl.module.model.graph.tag.TagPojo;
 import guru.bubl.module.model.graph.tree_copier.TreeCopier;
-import guru.bubl.module.model.json.ImageJson;
+import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.BulkTagOperatorNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.image.ImageJsonCache;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 import org.neo4j.driver.Driver;
@@ -37,10 +38,13 @@ public class TreeCopierNeo4j implements TreeCopier {
     private Driver driver;
 
     @Inject
-    private GraphElementOperatorFactory graphElementOperatorFactory;
+    private FriendManagerFactory friendManagerFactory;
 
     @Inject
-    private FriendManagerFactory friendManagerFactory;
+    private BulkTagOperatorNeo4j bulkTagOperator;
+
+    @Inject
+    private SubGraphCacheNeo4j subGraphCache;
 
     @AssistedInject
     protected TreeCopierNeo4j(
@@ -127,6 +131,7 @@ public class TreeCopierNeo4j implements TreeCopier {
                             (isOwner ? "" : "%s") +
                             "c.creation_date=timestamp(), " +
                             "c.last_modification_date=timestamp(), " +
+                            "c.last_change_date=timestamp(), " +
                             "c.copied_from_uri = c.uri, " +
                             "c.copied_root_uri=$rootUri, " +
                             "c.uri='" + userUris.graphUri() + "/'+ split(c.uri, '/')[5] + '/' + apoc.create.uuid() " +
@@ -178,7 +183,7 @@ public class TreeCopierNeo4j implements TreeCopier {
                                     tagJson.optString("desc")
                             );
                             friendlyResourcePojo.setImages(
-                                    ImageJson.fromJson(tagJson.optString("images"))
+                                    ImageJsonCache.fromJson(tagJson.optString("images"))
                             );
                             tags.add(
                                     new TagPojo(
@@ -194,26 +199,28 @@ public class TreeCopierNeo4j implements TreeCopier {
             throw new RuntimeException(e);
         }
 
+        Map<URI, Set<TagPojo>> tagsOfCopiedUri = new HashMap<>();
         for (URI originalUri : tagsOfUri.keySet()) {
             URI copiedUri = uriAndCopyUri.get(originalUri);
             if (copiedUri != null) {
-                GraphElementOperator copiedGe = graphElementOperatorFactory.withUri(copiedUri);
-                for (TagPojo tag : tagsOfUri.get(originalUri)) {
-                    copiedGe.addTag(
-                            tag,
-                            ShareLevel.PRIVATE
-                    );
-                }
+                tagsOfCopiedUri.put(
+                        copiedUri,
+                        tagsOfUri.get(originalUri)
+                );
             }
-
         }
+        bulkTagOperator.addTags(
+                tagsOfCopiedUri,
+                ShareLevel.PRIVATE
+        );
         if (UserUris.isUriOfAGroupRelation(tree.getRootUri())) {
             String nbNeighborsProperty = ShareLevel.PRIVATE.getNbNeighborsPropertyName();
             String query = String.format(
                     "MATCH(gr:GroupRelation{uri:$grUri})  " +
                             "MATCH(source:GraphElement{uri:$sourceUri}) " +
                             "MERGE (gr)-[:SOURCE]->(source) " +
-                            "SET source.%s = source.%s + 1",
+                            "SET source.%s = source.%s + 1," +
+                            FriendlyResourceNeo4j.changeQueryPart("source"),
                     nbNeighborsProperty,
                     nbNeighborsProperty
             );
@@ -229,6 +236,9 @@ public class TreeCopierNeo4j implements TreeCopier {
                 );
             }
         }
+        if (newParentUri != null) {
+            subGraphCache.invalidate(newParentUri);
+        }
         return uriAndCopyUri;
     }
 
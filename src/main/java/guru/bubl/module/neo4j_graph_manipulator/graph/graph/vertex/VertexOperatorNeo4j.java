@@ -21,10 +21,13 @@ import guru.bubl.module.model.graph.vertex.*;
 import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.OperatorNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphTombstones;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementOperatorNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.relation.RelationFactoryNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.fork.ForkOperatorNeo4J;
+import guru.bubl.module.neo4j_graph_manipulator.graph.scope.OperatorScope;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Session;
@@ -37,6 +40,7 @@ import java.util.Map;
 import java.util.Set;
 
 import static guru.bubl.module.neo4j_graph_manipulator.graph.RestApiUtilsNeo4j.map;
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
 import static org.neo4j.driver.Values.parameters;
 
 public class VertexOperatorNeo4j implements VertexOperator, OperatorNeo4j {
@@ -60,6 +64,9 @@ public class VertexOperatorNeo4j implements VertexOperator, OperatorNeo4j {
     @Inject
     protected FriendlyResourceFactoryNeo4j friendlyResourceFactory;
 
+    @Inject
+    protected SubGraphCacheNeo4j subGraphCache;
+
     @AssistedInject
     protected VertexOperatorNeo4j(
             VertexFactoryNeo4j vertexFactory,
@@ -104,19 +111,21 @@ public class VertexOperatorNeo4j implements VertexOperator, OperatorNeo4j {
         FriendlyResourceNeo4j edgeFriendlyResource = friendlyResourceFactory.withUri(
                 relation.uri()
         );
-        try (Session session = driver.session()) {
-            Result rs = session.run(
-                    String.format(
-                            "%s, %s, (n)<-[:SOURCE|DESTINATION]-(edge) RETURN edge",
-                            queryPrefix(),
-                            edgeFriendlyResource.addToSelectUsingVariableName("edge", "edgeUri")
-                    ),
-                    parameters(
-                            "uri", uri().toString(),
-                            "edgeUri", edgeFriendlyResource.uri().toString()
-                    )
-            );
-            return rs.hasNext();
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Result rs = tx.run(
+                        String.format(
+                                "%s, %s, (n)<-[:SOURCE|DESTINATION]-(edge) RETURN edge",
+                                queryPrefix(),
+                                edgeFriendlyResource.addToSelectUsingVariableName("edge", "edgeUri")
+                        ),
+                        parameters(
+                                "uri", uri().toString(),
+                                "edgeUri", edgeFriendlyResource.uri().toString()
+                        )
+                );
+                return rs.hasNext();
+            });
         }
     }
 
@@ -125,33 +134,35 @@ public class VertexOperatorNeo4j implements VertexOperator, OperatorNeo4j {
         FriendlyResourceNeo4j destinationVertexOperator = friendlyResourceFactory.withUri(
                 destinationVertex.uri()
         );
-        try (Session session = driver.session()) {
-            Result rs = session.run(
-                    String.format(
-                            "%s, %s, (n)<-[:SOURCE|DESTINATION]-(r), " +
-                                    "(r)-[:SOURCE|DESTINATION]->(d) " +
-                                    "RETURN r.uri as uri",
-                            queryPrefix(),
-                            destinationVertexOperator.addToSelectUsingVariableName("d", "destinationUri")
-                    ),
-                    parameters(
-                            "uri", uri().toString(),
-                            "destinationUri", destinationVertexOperator.uri().toString()
-                    )
-            );
-            if (!rs.hasNext()) {
-                throw new RuntimeException(
-                        "Edge between vertex with " + uri() +
-                                " and vertex with uri " + destinationVertex.uri() +
-                                " was not found"
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Result rs = tx.run(
+                        String.format(
+                                "%s, %s, (n)<-[:SOURCE|DESTINATION]-(r), " +
+                                        "(r)-[:SOURCE|DESTINATION]->(d) " +
+                                        "RETURN r.uri as uri",
+                                queryPrefix(),
+                                destinationVertexOperator.addToSelectUsingVariableName("d", "destinationUri")
+                        ),
+                        parameters(
+                                "uri", uri().toString(),
+                                "destinationUri", destinationVertexOperator.uri().toString()
+                        )
                 );
-            }
-            Record record = rs.next();
-            return edgeFactory.withUri(URI.create(
-                    record.get(
-                            "uri"
-                    ).asString()
-            ));
+                if (!rs.hasNext()) {
+                    throw new RuntimeException(
+                            "Edge between vertex with " + uri() +
+                                    " and vertex with uri " + destinationVertex.uri() +
+                                    " was not found"
+                    );
+                }
+                Record record = rs.next();
+                return edgeFactory.withUri(URI.create(
+                        record.get(
+                                "uri"
+                        ).asString()
+                ));
+            });
         }
     }
 
@@ -160,22 +171,24 @@ public class VertexOperatorNeo4j implements VertexOperator, OperatorNeo4j {
         FriendlyResourceNeo4j destinationVertexOperator = friendlyResourceFactory.withUri(
                 destinationVertex.uri()
         );
-        try (Session session = driver.session()) {
-            Result rs = session.run(
-                    String.format(
-                            "%s, %s, " +
-                                    "(n)<-[:SOURCE]-(r), " +
-                                    "(r)-[:DESTINATION]->(d) " +
-                                    "RETURN n.uri",
-                            queryPrefix(),
-                            destinationVertexOperator.addToSelectUsingVariableName("d", "destinationUri")
-                    ),
-                    parameters(
-                            "uri", uri().toString(),
-                            "destinationUri", destinationVertexOperator.uri().toString()
-                    )
-            );
-            return rs.hasNext();
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Result rs = tx.run(
+                        String.format(
+                                "%s, %s, " +
+                                        "(n)<-[:SOURCE]-(r), " +
+                                        "(r)-[:DESTINATION]->(d) " +
+                                        "RETURN n.uri",
+                                queryPrefix(),
+                                destinationVertexOperator.addToSelectUsingVariableName("d", "destinationUri")
+                        ),
+                        parameters(
+                                "uri", uri().toString(),
+                                "destinationUri", destinationVertexOperator.uri().toString()
+                        )
+                );
+                return rs.hasNext();
+            });
         }
     }
 
@@ -206,31 +219,33 @@ public class VertexOperatorNeo4j implements VertexOperator, OperatorNeo4j {
     @Override
     public Map<URI, RelationOperator> connectedEdges() {
         Map<URI, RelationOperator> edges = new HashMap<>();
-        try (Session session = driver.session()) {
-            Result rs = session.run(
-                    queryPrefix() +
-                            "MATCH (n)<-[:SOURCE|DESTINATION]-(edge) " +
-                            "RETURN edge.uri as uri",
-                    parameters(
-                            "uri",
-                            this.uri().toString()
-                    )
-            );
-            while (rs.hasNext()) {
-                Record record = rs.next();
-                URI edgeUri = URI.create(
-                        record.get(
-                                "uri"
-                        ).asString()
-                );
-                edges.put(
-                        edgeUri,
-                        edgeFactory.withUri(
-                                edgeUri
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Result rs = tx.run(
+                        queryPrefix() +
+                                "MATCH (n)<-[:SOURCE|DESTINATION]-(edge) " +
+                                "RETURN edge.uri as uri",
+                        parameters(
+                                "uri",
+                                this.uri().toString()
                         )
                 );
-            }
-            return edges;
+                while (rs.hasNext()) {
+                    Record record = rs.next();
+                    URI edgeUri = URI.create(
+                            record.get(
+                                    "uri"
+                            ).asString()
+                    );
+                    edges.put(
+                            edgeUri,
+                            edgeFactory.withUri(
+                                    edgeUri
+                            )
+                    );
+                }
+                return edges;
+            });
         }
     }
 
@@ -404,14 +419,16 @@ public class VertexOperatorNeo4j implements VertexOperator, OperatorNeo4j {
             return false;
         }
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     queryPrefix() + ", (mergeTo:Resource{uri:$mergeToUri}) " +
                             "SET mergeTo.nb_private_neighbors = mergeTo.nb_private_neighbors + n.nb_private_neighbors," +
                             "mergeTo.nb_friend_neighbors = mergeTo.nb_friend_neighbors + n.nb_friend_neighbors," +
-                            "mergeTo.nb_public_neighbors = mergeTo.nb_public_neighbors + n.nb_public_neighbors " +
+                            "mergeTo.nb_public_neighbors = mergeTo.nb_public_neighbors + n.nb_public_neighbors," +
+                            FriendlyResourceNeo4j.changeQueryPart("mergeTo") +
                             "WITH n,mergeTo " +
                             "OPTIONAL MATCH (n)<-[r:SOURCE|DESTINATION]-(e) " +
                             "OPTIONAL MATCH (e)-[:SOURCE|DESTINATION]-(nv)-[:SOURCE|DESTINATION]-(nve)-[:SOURCE|DESTINATION]-(mergeTo) " +
+                            SubGraphTombstones.queryPart("nve") +
                             "DETACH DELETE nve " +
                             "WITH n, mergeTo " +
                             "OPTIONAL MATCH (n)<-[r:SOURCE]-(e) " +
@@ -426,13 +443,15 @@ public class VertexOperatorNeo4j implements VertexOperator, OperatorNeo4j {
                             "MERGE (mergeTo)-[:IDENTIFIED_TO]->(t) " +
                             "DELETE r " +
                             "WITH n " +
+                            SubGraphTombstones.queryPart("n") +
                             "DETACH DELETE n ",
                     parameters(
                             "uri", this.uri().toString(),
                             "mergeToUri", vertexOperator.uri().toString()
                     )
-            );
+            ).consume());
         }
+        subGraphCache.invalidate(uri(), vertexOperator.uri());
         return true;
     }
 
@@ -462,7 +481,7 @@ public class VertexOperatorNeo4j implements VertexOperator, OperatorNeo4j {
             return false;
         }
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     queryPrefix() + "SET n:Pattern,n.nbPatternUsage=0 " +
                             "WITH n " +
                             "CALL apoc.path.subgraphAll(n, {relationshipFilter:'SOURCE, DESTINATION'}) YIELD nodes " +
@@ -471,25 +490,28 @@ public class VertexOperatorNeo4j implements VertexOperator, OperatorNeo4j {
                             "s.isUnderPattern=true," +
                             "s.nb_public_neighbors=(s.nb_private_neighbors + s.nb_friend_neighbors + s.nb_public_neighbors)," +
                             "s.nb_private_neighbors=0," +
-                            "s.nb_friend_neighbors=0 " +
+                            "s.nb_friend_neighbors=0," +
+                            FriendlyResourceNeo4j.changeQueryPart("s") +
                             "WITH s,n " +
                             "REMOVE n.isUnderPattern " +
                             "WITH s " +
                             "MATCH (s)-[:IDENTIFIED_TO]->(tag) " +
-                            "SET tag.shareLevel=40"
+                            "SET tag.shareLevel=40," +
+                            FriendlyResourceNeo4j.changeQueryPart("tag")
                     ,
                     parameters(
                             "uri", uri().toString()
                     )
-            );
+            ).consume());
         }
+        OperatorScope.factsChanged();
         return true;
     }
 
     @Override
     public void undoPattern() {
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     queryPrefix() + "remove n:Pattern " +
                             "WITH n " +
                             "CALL apoc.path.subgraphAll(n, {relationshipFilter:'SOURCE, DESTINATION'}) YIELD nodes " +
@@ -498,31 +520,32 @@ public class VertexOperatorNeo4j implements VertexOperator, OperatorNeo4j {
                     parameters(
                             "uri", uri().toString()
                     )
-            );
+            ).consume());
         }
+        OperatorScope.factsChanged();
     }
 
     @Override
     public Integer getNbPatternUsage() {
-        try (Session session = driver.session()) {
-            return session.run(
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> tx.run(
                     queryPrefix() + "RETURN n.nbPatternUsage",
                     parameters(
                             "uri", uri().toString()
                     )
-            ).single().get("n.nbPatternUsage").asInt();
+            ).single().get("n.nbPatternUsage").asInt());
         }
     }
 
     @Override
     public Boolean isPattern() {
-        try (Session session = driver.session()) {
-            return session.run(
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> tx.run(
                     queryPrefix() + "RETURN 'Pattern' IN LABELS(n) as isPattern",
                     parameters(
                             "uri", uri().toString()
                     )
-            ).single().get("isPattern").asBoolean();
+            ).single().get("isPattern").asBoolean());
         }
     }
 
@@ -539,15 +562,15 @@ public class VertexOperatorNeo4j implements VertexOperator, OperatorNeo4j {
                 props
         );
         try (Session session = driver.session()) {
-            session.run(
+            session.writeTransaction(tx -> tx.run(
                     "CREATE(n:Resource:GraphElement:Vertex $vertex)",
                     parameters(
                             "vertex",
                             props
                     )
-            );
-            return vertexPojo;
+            ).consume());
         }
+        return vertexPojo;
     }
 
     @Override
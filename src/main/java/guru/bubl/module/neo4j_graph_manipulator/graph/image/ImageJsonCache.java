@@ -0,0 +1,50 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.image;
+
+import guru.bubl.module.model.Image;
+import guru.bubl.module.model.json.ImageJson;
+
+import java.util.*;
+
+/*
+the same images json is found on many rows, copies, tags shared by many bubbles,
+it is parsed once and callers get their own copy of the set
+ */
+public class ImageJsonCache {
+
+    private static final Integer MAX_NB_CACHED = 10000;
+
+    private static final Map<String, Set<Image>> parsed = Collections.synchronizedMap(
+            new LinkedHashMap<String, Set<Image>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Set<Image>> eldest) {
+                    return size() > MAX_NB_CACHED;
+                }
+            }
+    );
+
+    public static Set<Image> fromJson(String json) {
+        if (json == null || json.isEmpty()) {
+            return new HashSet<>();
+        }
+        Set<Image> images = parsed.get(json);
+        if (images == null) {
+            images = Collections.unmodifiableSet(
+                    ImageJson.fromJson(json)
+            );
+            parsed.put(json, images);
+        }
+        return new HashSet<>(images);
+    }
+
+    public static Integer getNbCached() {
+        return parsed.size();
+    }
+
+    public static void clear() {
+        parsed.clear();
+    }
+}
@@ -9,6 +9,8 @@ import com.google.inject.assistedinject.AssistedInject;
 import guru.bubl.module.model.Image;
 import guru.bubl.module.model.json.ImageJson;
 import guru.bubl.module.neo4j_graph_manipulator.graph.FriendlyResourceNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.QueryTemplates;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphCacheNeo4j;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Session;
@@ -17,6 +19,7 @@ import javax.inject.Inject;
 import java.util.HashSet;
 import java.util.Set;
 
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
 import static org.neo4j.driver.Values.parameters;
 
 public class ImagesNeo4j {
@@ -30,6 +33,9 @@ public class ImagesNeo4j {
     @Inject
     protected Driver driver;
 
+    @Inject
+    protected SubGraphCacheNeo4j subGraphCache;
+
     @AssistedInject
     public ImagesNeo4j(
             @Assisted FriendlyResourceNeo4j friendlyResource
@@ -37,31 +43,51 @@ public class ImagesNeo4j {
         this.friendlyResource = friendlyResource;
     }
 
+    /*
+    the node is locked before its images are read so concurrent uploads are all kept
+     */
     public void addAll(Set<Image> images) {
-        Set<Image> current = get();
-        current.addAll(images);
+        friendlyResource.invalidateSnapshot();
+        if (images.isEmpty()) {
+            return;
+        }
         try (Session session = driver.session()) {
-            session.run(
-                    friendlyResource.queryPrefix() + "SET n.images=$image",
+            session.writeTransaction(tx -> tx.run(
+                    QueryTemplates.get(
+                            () -> friendlyResource.queryPrefix() +
+                                    "CALL apoc.lock.nodes([n]) " +
+                                    "WITH n, CASE WHEN n.images IS NULL THEN [] ELSE apoc.convert.fromJsonList(n.images) END as current " +
+                                    "WITH n, current, [image IN apoc.convert.fromJsonList($images) WHERE NOT image IN current] as added " +
+                                    "SET n.images=apoc.convert.toJson(current + added)," +
+                                    FriendlyResourceNeo4j.CHANGE_QUERY_PART,
+                            "ImagesNeo4j.addAll",
+                            friendlyResource.getClass()
+                    ),
                     parameters(
                             "uri", friendlyResource.uri().toString(),
-                            "image", ImageJson.toJsonArray(current)
+                            "images", ImageJson.toJsonArray(images)
                     )
-            );
+            ).consume());
         }
+        subGraphCache.invalidate(friendlyResource.uri());
     }
 
     public Set<Image> get() {
-        try (Session session = driver.session()) {
-            Record record = session.run(
-                    friendlyResource.queryPrefix() + "RETURN n.images as images",
-                    parameters(
-                            "uri", friendlyResource.uri().toString()
-                    )
-            ).single();
-            return record.get("images").asObject() == null ? new HashSet<Image>() : ImageJson.fromJson(
-                    record.get("images").asString()
-            );
+        if (friendlyResource.getSnapshot() != null) {
+            return friendlyResource.getSnapshot().getImages();
+        }
+        try (Session session = driver.session(READ)) {
+            return session.readTransaction(tx -> {
+                Record record = tx.run(
+                        friendlyResource.queryPrefix() + "RETURN n.images as images",
+                        parameters(
+                                "uri", friendlyResource.uri().toString()
+                        )
+                ).single();
+                return record.get("images").asObject() == null ? new HashSet<Image>() : ImageJsonCache.fromJson(
+                        record.get("images").asString()
+                );
+            });
         }
     }
 
@@ -0,0 +1,34 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryQueryMetricsRegistry implements QueryMetricsRegistry {
+
+    private final Map<String, QueryTemplateMetrics> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(QueryExecution execution) {
+        metrics.computeIfAbsent(
+                execution.getTemplateId(),
+                QueryTemplateMetrics::new
+        ).record(execution);
+    }
+
+    public QueryTemplateMetrics get(String templateId) {
+        return metrics.get(templateId);
+    }
+
+    public Collection<QueryTemplateMetrics> getAll() {
+        return metrics.values();
+    }
+
+    public void reset() {
+        metrics.clear();
+    }
+}
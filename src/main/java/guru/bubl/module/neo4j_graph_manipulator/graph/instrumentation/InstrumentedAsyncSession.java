@@ -0,0 +1,106 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.driver.ForwardingAsyncSession;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.async.AsyncTransaction;
+import org.neo4j.driver.async.AsyncTransactionWork;
+import org.neo4j.driver.async.ResultCursor;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+public class InstrumentedAsyncSession extends ForwardingAsyncSession {
+
+    private final QueryMetricsRegistry registry;
+
+    public InstrumentedAsyncSession(AsyncSession delegate, QueryMetricsRegistry registry) {
+        super(delegate);
+        this.registry = registry;
+    }
+
+    @Override
+    public CompletionStage<AsyncTransaction> beginTransactionAsync() {
+        return delegate.beginTransactionAsync().thenApply(this::instrumented);
+    }
+
+    @Override
+    public CompletionStage<AsyncTransaction> beginTransactionAsync(TransactionConfig config) {
+        return delegate.beginTransactionAsync(config).thenApply(this::instrumented);
+    }
+
+    @Override
+    public <T> CompletionStage<T> readTransactionAsync(AsyncTransactionWork<CompletionStage<T>> work) {
+        return delegate.readTransactionAsync(tx -> work.execute(instrumented(tx)));
+    }
+
+    @Override
+    public <T> CompletionStage<T> readTransactionAsync(AsyncTransactionWork<CompletionStage<T>> work, TransactionConfig config) {
+        return delegate.readTransactionAsync(tx -> work.execute(instrumented(tx)), config);
+    }
+
+    @Override
+    public <T> CompletionStage<T> writeTransactionAsync(AsyncTransactionWork<CompletionStage<T>> work) {
+        return delegate.writeTransactionAsync(tx -> work.execute(instrumented(tx)));
+    }
+
+    @Override
+    public <T> CompletionStage<T> writeTransactionAsync(AsyncTransactionWork<CompletionStage<T>> work, TransactionConfig config) {
+        return delegate.writeTransactionAsync(tx -> work.execute(instrumented(tx)), config);
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, TransactionConfig config) {
+        return InstrumentedResultCursor.run(query, Values.EmptyMap, registry, () -> delegate.runAsync(query, config));
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Map<String, Object> parameters, TransactionConfig config) {
+        return InstrumentedResultCursor.run(query, Values.value(parameters), registry, () -> delegate.runAsync(query, parameters, config));
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(Query query, TransactionConfig config) {
+        return InstrumentedResultCursor.run(query.text(), query.parameters(), registry, () -> delegate.runAsync(query, config));
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Value parameters) {
+        return InstrumentedResultCursor.run(query, parameters, registry, () -> delegate.runAsync(query, parameters));
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Map<String, Object> parameters) {
+        return InstrumentedResultCursor.run(query, Values.value(parameters), registry, () -> delegate.runAsync(query, parameters));
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Record parameters) {
+        return InstrumentedResultCursor.run(query, Values.value(parameters.asMap()), registry, () -> delegate.runAsync(query, parameters));
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query) {
+        return InstrumentedResultCursor.run(query, Values.EmptyMap, registry, () -> delegate.runAsync(query));
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(Query query) {
+        return InstrumentedResultCursor.run(query.text(), query.parameters(), registry, () -> delegate.runAsync(query));
+    }
+
+    private AsyncTransaction instrumented(AsyncTransaction tx) {
+        return new InstrumentedAsyncTransaction(
+                tx,
+                registry
+        );
+    }
+}
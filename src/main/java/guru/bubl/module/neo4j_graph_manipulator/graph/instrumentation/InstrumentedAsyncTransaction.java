@@ -0,0 +1,51 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.driver.ForwardingAsyncTransaction;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.async.AsyncTransaction;
+import org.neo4j.driver.async.ResultCursor;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+public class InstrumentedAsyncTransaction extends ForwardingAsyncTransaction {
+
+    private final QueryMetricsRegistry registry;
+
+    public InstrumentedAsyncTransaction(AsyncTransaction delegate, QueryMetricsRegistry registry) {
+        super(delegate);
+        this.registry = registry;
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Value parameters) {
+        return InstrumentedResultCursor.run(query, parameters, registry, () -> delegate.runAsync(query, parameters));
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Map<String, Object> parameters) {
+        return InstrumentedResultCursor.run(query, Values.value(parameters), registry, () -> delegate.runAsync(query, parameters));
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query, Record parameters) {
+        return InstrumentedResultCursor.run(query, Values.value(parameters.asMap()), registry, () -> delegate.runAsync(query, parameters));
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(String query) {
+        return InstrumentedResultCursor.run(query, Values.EmptyMap, registry, () -> delegate.runAsync(query));
+    }
+
+    @Override
+    public CompletionStage<ResultCursor> runAsync(Query query) {
+        return InstrumentedResultCursor.run(query.text(), query.parameters(), registry, () -> delegate.runAsync(query));
+    }
+}
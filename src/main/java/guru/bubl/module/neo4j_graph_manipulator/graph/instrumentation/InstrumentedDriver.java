@@ -0,0 +1,74 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.driver.ForwardingDriver;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.reactive.RxSession;
+
+public class InstrumentedDriver extends ForwardingDriver {
+
+    private final QueryMetricsRegistry registry;
+
+    public InstrumentedDriver(Driver delegate, QueryMetricsRegistry registry) {
+        super(delegate);
+        this.registry = registry;
+    }
+
+    public QueryMetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    @Override
+    public Session session() {
+        return new InstrumentedSession(
+                delegate.session(),
+                registry
+        );
+    }
+
+    @Override
+    public Session session(SessionConfig sessionConfig) {
+        return new InstrumentedSession(
+                delegate.session(sessionConfig),
+                registry
+        );
+    }
+
+    @Override
+    public AsyncSession asyncSession() {
+        return new InstrumentedAsyncSession(
+                delegate.asyncSession(),
+                registry
+        );
+    }
+
+    @Override
+    public AsyncSession asyncSession(SessionConfig sessionConfig) {
+        return new InstrumentedAsyncSession(
+                delegate.asyncSession(sessionConfig),
+                registry
+        );
+    }
+
+    @Override
+    public RxSession rxSession() {
+        return new InstrumentedRxSession(
+                delegate.rxSession(),
+                registry
+        );
+    }
+
+    @Override
+    public RxSession rxSession(SessionConfig sessionConfig) {
+        return new InstrumentedRxSession(
+                delegate.rxSession(sessionConfig),
+                registry
+        );
+    }
+}
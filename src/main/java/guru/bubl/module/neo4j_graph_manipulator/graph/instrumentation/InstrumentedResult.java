@@ -0,0 +1,120 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.summary.ResultSummary;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public class InstrumentedResult implements Result {
+
+    private final Result delegate;
+    private final String query;
+    private final Value parameters;
+    private final QueryMetricsRegistry registry;
+    private final Long startNanos;
+    private Long nbRows = 0L;
+    private ResultSummary summary;
+
+    public InstrumentedResult(Result delegate, String query, Value parameters, Long startNanos, QueryMetricsRegistry registry) {
+        this.delegate = delegate;
+        this.query = query;
+        this.parameters = parameters;
+        this.startNanos = startNanos;
+        this.registry = registry;
+    }
+
+    @Override
+    public List<String> keys() {
+        return delegate.keys();
+    }
+
+    @Override
+    public boolean hasNext() {
+        boolean hasNext = delegate.hasNext();
+        if (!hasNext) {
+            finish();
+        }
+        return hasNext;
+    }
+
+    @Override
+    public Record next() {
+        Record record = delegate.next();
+        nbRows++;
+        return record;
+    }
+
+    @Override
+    public Record single() {
+        Record record = delegate.single();
+        nbRows++;
+        finish();
+        return record;
+    }
+
+    @Override
+    public Record peek() {
+        return delegate.peek();
+    }
+
+    @Override
+    public Stream<Record> stream() {
+        return delegate.stream().peek(record -> nbRows++);
+    }
+
+    @Override
+    public List<Record> list() {
+        List<Record> records = delegate.list();
+        nbRows += records.size();
+        finish();
+        return records;
+    }
+
+    @Override
+    public <T> List<T> list(Function<Record, T> mapFunction) {
+        List<T> values = delegate.list(mapFunction);
+        nbRows += values.size();
+        finish();
+        return values;
+    }
+
+    @Override
+    public ResultSummary consume() {
+        finish();
+        return summary;
+    }
+
+    /*
+    for results the caller left partially read,
+    a failing consume here is left for the transaction to surface
+     */
+    void finishQuietly() {
+        try {
+            finish();
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    private void finish() {
+        if (summary != null) {
+            return;
+        }
+        summary = delegate.consume();
+        registry.record(new QueryExecution(
+                QueryTemplateIds.of(query),
+                query,
+                parameters,
+                System.nanoTime() - startNanos,
+                nbRows,
+                summary
+        ));
+    }
+}
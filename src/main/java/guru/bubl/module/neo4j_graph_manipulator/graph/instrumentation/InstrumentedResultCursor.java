@@ -0,0 +1,112 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.async.ResultCursor;
+import org.neo4j.driver.summary.ResultSummary;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class InstrumentedResultCursor implements ResultCursor {
+
+    private final ResultCursor delegate;
+    private final PendingQueryExecution execution;
+
+    static CompletionStage<ResultCursor> run(String query, Value parameters, QueryMetricsRegistry registry, Supplier<CompletionStage<ResultCursor>> run) {
+        PendingQueryExecution execution = new PendingQueryExecution(
+                query,
+                parameters,
+                registry
+        );
+        execution.start();
+        return run.get().thenApply(
+                cursor -> new InstrumentedResultCursor(cursor, execution)
+        );
+    }
+
+    private InstrumentedResultCursor(ResultCursor delegate, PendingQueryExecution execution) {
+        this.delegate = delegate;
+        this.execution = execution;
+    }
+
+    @Override
+    public List<String> keys() {
+        return delegate.keys();
+    }
+
+    @Override
+    public CompletionStage<ResultSummary> consumeAsync() {
+        return finish();
+    }
+
+    @Override
+    public CompletionStage<Record> nextAsync() {
+        return delegate.nextAsync().thenCompose(record -> {
+            if (record == null) {
+                return finish().thenApply(summary -> (Record) null);
+            }
+            execution.addRows(1);
+            return CompletableFuture.completedFuture(record);
+        });
+    }
+
+    @Override
+    public CompletionStage<Record> peekAsync() {
+        return delegate.peekAsync();
+    }
+
+    @Override
+    public CompletionStage<Record> singleAsync() {
+        return delegate.singleAsync().thenCompose(record -> {
+            execution.addRows(1);
+            return finish().thenApply(summary -> record);
+        });
+    }
+
+    @Override
+    public CompletionStage<ResultSummary> forEachAsync(Consumer<Record> action) {
+        return delegate.forEachAsync(record -> {
+            execution.addRows(1);
+            action.accept(record);
+        }).thenApply(summary -> {
+            execution.finish(summary);
+            return summary;
+        });
+    }
+
+    @Override
+    public CompletionStage<List<Record>> listAsync() {
+        return delegate.listAsync().thenCompose(records -> {
+            execution.addRows(records.size());
+            return finish().thenApply(summary -> records);
+        });
+    }
+
+    @Override
+    public <T> CompletionStage<List<T>> listAsync(Function<Record, T> mapFunction) {
+        return delegate.listAsync(mapFunction).thenCompose(values -> {
+            execution.addRows(values.size());
+            return finish().thenApply(summary -> values);
+        });
+    }
+
+    private CompletionStage<ResultSummary> finish() {
+        ResultSummary summary = execution.getSummary();
+        if (summary != null) {
+            return CompletableFuture.completedFuture(summary);
+        }
+        return delegate.consumeAsync().thenApply(consumed -> {
+            execution.finish(consumed);
+            return consumed;
+        });
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+class InstrumentedResults {
+
+    private final QueryMetricsRegistry registry;
+    private final List<InstrumentedResult> results = new ArrayList<>();
+
+    InstrumentedResults(QueryMetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    Result run(String query, Value parameters, Supplier<Result> run) {
+        Long startNanos = System.nanoTime();
+        InstrumentedResult result = new InstrumentedResult(
+                run.get(),
+                query,
+                parameters,
+                startNanos,
+                registry
+        );
+        results.add(result);
+        return result;
+    }
+
+    void finish() {
+        for (InstrumentedResult result : results) {
+            result.finishQuietly();
+        }
+        results.clear();
+    }
+}
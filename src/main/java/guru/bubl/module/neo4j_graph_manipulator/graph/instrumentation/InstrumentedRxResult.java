@@ -0,0 +1,60 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.reactive.RxResult;
+import org.neo4j.driver.summary.ResultSummary;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/*
+the query runs once subscribed to, the time is taken from the first subscription
+ */
+public class InstrumentedRxResult implements RxResult {
+
+    private final RxResult delegate;
+    private final PendingQueryExecution execution;
+
+    public InstrumentedRxResult(RxResult delegate, String query, Value parameters, QueryMetricsRegistry registry) {
+        this.delegate = delegate;
+        this.execution = new PendingQueryExecution(
+                query,
+                parameters,
+                registry
+        );
+    }
+
+    @Override
+    public Publisher<List<String>> keys() {
+        return Flux.from(delegate.keys()).doOnSubscribe(
+                subscription -> execution.start()
+        );
+    }
+
+    @Override
+    public Publisher<Record> records() {
+        return Flux.from(delegate.records()).doOnSubscribe(
+                subscription -> execution.start()
+        ).doOnNext(
+                record -> execution.addRows(1)
+        ).concatWith(
+                Mono.from(consume()).then(Mono.<Record>empty())
+        );
+    }
+
+    @Override
+    public Publisher<ResultSummary> consume() {
+        return Mono.from(delegate.consume()).doOnSubscribe(
+                subscription -> execution.start()
+        ).doOnNext(
+                execution::finish
+        );
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.driver.ForwardingRxSession;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.reactive.RxResult;
+import org.neo4j.driver.reactive.RxSession;
+import org.neo4j.driver.reactive.RxTransaction;
+import org.neo4j.driver.reactive.RxTransactionWork;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+public class InstrumentedRxSession extends ForwardingRxSession {
+
+    private final QueryMetricsRegistry registry;
+
+    public InstrumentedRxSession(RxSession delegate, QueryMetricsRegistry registry) {
+        super(delegate);
+        this.registry = registry;
+    }
+
+    @Override
+    public Publisher<RxTransaction> beginTransaction() {
+        return Flux.from(delegate.beginTransaction()).map(this::instrumented);
+    }
+
+    @Override
+    public Publisher<RxTransaction> beginTransaction(TransactionConfig config) {
+        return Flux.from(delegate.beginTransaction(config)).map(this::instrumented);
+    }
+
+    @Override
+    public <T> Publisher<T> readTransaction(RxTransactionWork<? extends Publisher<T>> work) {
+        return delegate.readTransaction(tx -> work.execute(instrumented(tx)));
+    }
+
+    @Override
+    public <T> Publisher<T> readTransaction(RxTransactionWork<? extends Publisher<T>> work, TransactionConfig config) {
+        return delegate.readTransaction(tx -> work.execute(instrumented(tx)), config);
+    }
+
+    @Override
+    public <T> Publisher<T> writeTransaction(RxTransactionWork<? extends Publisher<T>> work) {
+        return delegate.writeTransaction(tx -> work.execute(instrumented(tx)));
+    }
+
+    @Override
+    public <T> Publisher<T> writeTransaction(RxTransactionWork<? extends Publisher<T>> work, TransactionConfig config) {
+        return delegate.writeTransaction(tx -> work.execute(instrumented(tx)), config);
+    }
+
+    @Override
+    public RxResult run(String query, TransactionConfig config) {
+        return new InstrumentedRxResult(delegate.run(query, config), query, Values.EmptyMap, registry);
+    }
+
+    @Override
+    public RxResult run(String query, Map<String, Object> parameters, TransactionConfig config) {
+        return new InstrumentedRxResult(delegate.run(query, parameters, config), query, Values.value(parameters), registry);
+    }
+
+    @Override
+    public RxResult run(Query query, TransactionConfig config) {
+        return new InstrumentedRxResult(delegate.run(query, config), query.text(), query.parameters(), registry);
+    }
+
+    @Override
+    public RxResult run(String query, Value parameters) {
+        return new InstrumentedRxResult(delegate.run(query, parameters), query, parameters, registry);
+    }
+
+    @Override
+    public RxResult run(String query, Map<String, Object> parameters) {
+        return new InstrumentedRxResult(delegate.run(query, parameters), query, Values.value(parameters), registry);
+    }
+
+    @Override
+    public RxResult run(String query, Record parameters) {
+        return new InstrumentedRxResult(delegate.run(query, parameters), query, Values.value(parameters.asMap()), registry);
+    }
+
+    @Override
+    public RxResult run(String query) {
+        return new InstrumentedRxResult(delegate.run(query), query, Values.EmptyMap, registry);
+    }
+
+    @Override
+    public RxResult run(Query query) {
+        return new InstrumentedRxResult(delegate.run(query), query.text(), query.parameters(), registry);
+    }
+
+    private RxTransaction instrumented(RxTransaction tx) {
+        return new InstrumentedRxTransaction(
+                tx,
+                registry
+        );
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.driver.ForwardingRxTransaction;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.reactive.RxResult;
+import org.neo4j.driver.reactive.RxTransaction;
+
+import java.util.Map;
+
+public class InstrumentedRxTransaction extends ForwardingRxTransaction {
+
+    private final QueryMetricsRegistry registry;
+
+    public InstrumentedRxTransaction(RxTransaction delegate, QueryMetricsRegistry registry) {
+        super(delegate);
+        this.registry = registry;
+    }
+
+    @Override
+    public RxResult run(String query, Value parameters) {
+        return new InstrumentedRxResult(delegate.run(query, parameters), query, parameters, registry);
+    }
+
+    @Override
+    public RxResult run(String query, Map<String, Object> parameters) {
+        return new InstrumentedRxResult(delegate.run(query, parameters), query, Values.value(parameters), registry);
+    }
+
+    @Override
+    public RxResult run(String query, Record parameters) {
+        return new InstrumentedRxResult(delegate.run(query, parameters), query, Values.value(parameters.asMap()), registry);
+    }
+
+    @Override
+    public RxResult run(String query) {
+        return new InstrumentedRxResult(delegate.run(query), query, Values.EmptyMap, registry);
+    }
+
+    @Override
+    public RxResult run(Query query) {
+        return new InstrumentedRxResult(delegate.run(query), query.text(), query.parameters(), registry);
+    }
+}
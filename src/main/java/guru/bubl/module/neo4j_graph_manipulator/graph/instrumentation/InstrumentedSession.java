@@ -0,0 +1,128 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.driver.ForwardingSession;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.TransactionWork;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+
+import java.util.Map;
+
+public class InstrumentedSession extends ForwardingSession {
+
+    private final QueryMetricsRegistry registry;
+    private final InstrumentedResults results;
+
+    public InstrumentedSession(Session delegate, QueryMetricsRegistry registry) {
+        super(delegate);
+        this.registry = registry;
+        this.results = new InstrumentedResults(registry);
+    }
+
+    @Override
+    public Transaction beginTransaction() {
+        results.finish();
+        return new InstrumentedTransaction(
+                delegate.beginTransaction(),
+                registry
+        );
+    }
+
+    @Override
+    public Transaction beginTransaction(TransactionConfig config) {
+        results.finish();
+        return new InstrumentedTransaction(
+                delegate.beginTransaction(config),
+                registry
+        );
+    }
+
+    @Override
+    public <T> T readTransaction(TransactionWork<T> work) {
+        results.finish();
+        return delegate.readTransaction(tx -> execute(work, tx));
+    }
+
+    @Override
+    public <T> T readTransaction(TransactionWork<T> work, TransactionConfig config) {
+        results.finish();
+        return delegate.readTransaction(tx -> execute(work, tx), config);
+    }
+
+    @Override
+    public <T> T writeTransaction(TransactionWork<T> work) {
+        results.finish();
+        return delegate.writeTransaction(tx -> execute(work, tx));
+    }
+
+    @Override
+    public <T> T writeTransaction(TransactionWork<T> work, TransactionConfig config) {
+        results.finish();
+        return delegate.writeTransaction(tx -> execute(work, tx), config);
+    }
+
+    @Override
+    public Result run(String query, TransactionConfig config) {
+        return results.run(query, Values.EmptyMap, () -> delegate.run(query, config));
+    }
+
+    @Override
+    public Result run(String query, Map<String, Object> parameters, TransactionConfig config) {
+        return results.run(query, Values.value(parameters), () -> delegate.run(query, parameters, config));
+    }
+
+    @Override
+    public Result run(Query query, TransactionConfig config) {
+        return results.run(query.text(), query.parameters(), () -> delegate.run(query, config));
+    }
+
+    @Override
+    public Result run(String query, Value parameters) {
+        return results.run(query, parameters, () -> delegate.run(query, parameters));
+    }
+
+    @Override
+    public Result run(String query, Map<String, Object> parameters) {
+        return results.run(query, Values.value(parameters), () -> delegate.run(query, parameters));
+    }
+
+    @Override
+    public Result run(String query, Record parameters) {
+        return results.run(query, Values.value(parameters.asMap()), () -> delegate.run(query, parameters));
+    }
+
+    @Override
+    public Result run(String query) {
+        return results.run(query, Values.EmptyMap, () -> delegate.run(query));
+    }
+
+    @Override
+    public Result run(Query query) {
+        return results.run(query.text(), query.parameters(), () -> delegate.run(query));
+    }
+
+    @Override
+    public void close() {
+        results.finish();
+        delegate.close();
+    }
+
+    /*
+    results still open when the unit of work returns are measured before the driver commits
+     */
+    private <T> T execute(TransactionWork<T> work, Transaction tx) {
+        InstrumentedTransaction transaction = new InstrumentedTransaction(tx, registry);
+        T value = work.execute(transaction);
+        transaction.finishResults();
+        return value;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.driver.ForwardingTransaction;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+
+import java.util.Map;
+
+public class InstrumentedTransaction extends ForwardingTransaction {
+
+    private final InstrumentedResults results;
+
+    public InstrumentedTransaction(Transaction delegate, QueryMetricsRegistry registry) {
+        super(delegate);
+        this.results = new InstrumentedResults(registry);
+    }
+
+    @Override
+    public Result run(String query, Value parameters) {
+        return results.run(query, parameters, () -> delegate.run(query, parameters));
+    }
+
+    @Override
+    public Result run(String query, Map<String, Object> parameters) {
+        return results.run(query, Values.value(parameters), () -> delegate.run(query, parameters));
+    }
+
+    @Override
+    public Result run(String query, Record parameters) {
+        return results.run(query, Values.value(parameters.asMap()), () -> delegate.run(query, parameters));
+    }
+
+    @Override
+    public Result run(String query) {
+        return results.run(query, Values.EmptyMap, () -> delegate.run(query));
+    }
+
+    @Override
+    public Result run(Query query) {
+        return results.run(query.text(), query.parameters(), () -> delegate.run(query));
+    }
+
+    @Override
+    public void commit() {
+        results.finish();
+        delegate.commit();
+    }
+
+    @Override
+    public void rollback() {
+        results.finish();
+        delegate.rollback();
+    }
+
+    @Override
+    public void close() {
+        results.finish();
+        delegate.close();
+    }
+
+    void finishResults() {
+        results.finish();
+    }
+}
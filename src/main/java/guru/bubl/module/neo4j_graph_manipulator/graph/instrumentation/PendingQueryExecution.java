@@ -0,0 +1,57 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import org.neo4j.driver.Value;
+import org.neo4j.driver.summary.ResultSummary;
+
+/*
+rows read so far for an async or reactive result, recorded once when its summary arrives
+ */
+class PendingQueryExecution {
+
+    private final String query;
+    private final Value parameters;
+    private final QueryMetricsRegistry registry;
+    private Long startNanos;
+    private Long nbRows = 0L;
+    private ResultSummary summary;
+
+    PendingQueryExecution(String query, Value parameters, QueryMetricsRegistry registry) {
+        this.query = query;
+        this.parameters = parameters;
+        this.registry = registry;
+    }
+
+    synchronized void start() {
+        if (startNanos == null) {
+            startNanos = System.nanoTime();
+        }
+    }
+
+    synchronized void addRows(Integer nbRows) {
+        this.nbRows += nbRows;
+    }
+
+    synchronized ResultSummary getSummary() {
+        return summary;
+    }
+
+    synchronized void finish(ResultSummary summary) {
+        if (this.summary != null) {
+            return;
+        }
+        this.summary = summary;
+        start();
+        registry.record(new QueryExecution(
+                QueryTemplateIds.of(query),
+                query,
+                parameters,
+                System.nanoTime() - startNanos,
+                nbRows,
+                summary
+        ));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import org.neo4j.driver.Value;
+import org.neo4j.driver.summary.ResultSummary;
+
+import java.util.concurrent.TimeUnit;
+
+public class QueryExecution {
+
+    private String templateId;
+    private String query;
+    private Value parameters;
+    private Long wallTimeNanos;
+    private Long nbRows;
+    private ResultSummary summary;
+
+    public QueryExecution(String templateId, String query, Value parameters, Long wallTimeNanos, Long nbRows, ResultSummary summary) {
+        this.templateId = templateId;
+        this.query = query;
+        this.parameters = parameters;
+        this.wallTimeNanos = wallTimeNanos;
+        this.nbRows = nbRows;
+        this.summary = summary;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public Value getParameters() {
+        return parameters;
+    }
+
+    public Long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    public Long getWallTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(wallTimeNanos);
+    }
+
+    public Long getNbRows() {
+        return nbRows;
+    }
+
+    public Long getResultAvailableAfterMillis() {
+        return summary.resultAvailableAfter(TimeUnit.MILLISECONDS);
+    }
+
+    public Long getResultConsumedAfterMillis() {
+        return summary.resultConsumedAfter(TimeUnit.MILLISECONDS);
+    }
+
+    public ResultSummary getSummary() {
+        return summary;
+    }
+}
@@ -0,0 +1,9 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+public interface QueryMetricsRegistry {
+    void record(QueryExecution execution);
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.QueryTemplates;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+the id is the template name when the query comes from QueryTemplates,
+otherwise the operator class and method that ran it, resolved once per query text
+ */
+public class QueryTemplateIds {
+
+    public static final String UNKNOWN = "unknown";
+
+    private static final String MODULE_PACKAGE = "guru.bubl.module.neo4j_graph_manipulator.";
+    private static final String[] SKIPPED_PACKAGES = {
+            MODULE_PACKAGE + "graph.instrumentation.",
+            MODULE_PACKAGE + "graph.driver.",
+            MODULE_PACKAGE + "graph.transaction."
+    };
+    private static final Integer MAX_NB_CACHED = 10000;
+
+    private static final Map<String, String> ids = new ConcurrentHashMap<>();
+
+    public static String of(String query) {
+        String id = ids.get(query);
+        if (id != null) {
+            return id;
+        }
+        id = QueryTemplates.nameOf(query);
+        if (id == null) {
+            id = fromCaller();
+        }
+        if (ids.size() < MAX_NB_CACHED) {
+            ids.putIfAbsent(query, id);
+        }
+        return id;
+    }
+
+    private static String fromCaller() {
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            String className = frame.getClassName();
+            if (!className.startsWith(MODULE_PACKAGE) || isSkipped(className)) {
+                continue;
+            }
+            String methodName = methodName(frame.getMethodName());
+            if (methodName.equals("null")) {
+                continue;
+            }
+            String simpleName = className.substring(className.lastIndexOf('.') + 1);
+            int innerClassIndex = simpleName.indexOf('$');
+            if (innerClassIndex > 0) {
+                simpleName = simpleName.substring(0, innerClassIndex);
+            }
+            return simpleName + "." + methodName;
+        }
+        return UNKNOWN;
+    }
+
+    private static String methodName(String frameMethodName) {
+        if (!frameMethodName.startsWith("lambda$")) {
+            return frameMethodName;
+        }
+        String methodName = frameMethodName.substring("lambda$".length());
+        int end = methodName.indexOf('$');
+        return end > 0 ? methodName.substring(0, end) : methodName;
+    }
+
+    private static Boolean isSkipped(String className) {
+        for (String skippedPackage : SKIPPED_PACKAGES) {
+            if (className.startsWith(skippedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import org.neo4j.driver.summary.SummaryCounters;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class QueryTemplateMetrics {
+
+    public static final long[] LATENCY_BUCKETS_MILLIS = {
+            1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000
+    };
+
+    private final String templateId;
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKETS_MILLIS.length + 1);
+    private final LongAdder nbExecutions = new LongAdder();
+    private final LongAdder wallTimeNanos = new LongAdder();
+    private final LongAdder nbRows = new LongAdder();
+    private final LongAdder resultAvailableAfterMillis = new LongAdder();
+    private final LongAdder resultConsumedAfterMillis = new LongAdder();
+    private final LongAdder nodesCreated = new LongAdder();
+    private final LongAdder nodesDeleted = new LongAdder();
+    private final LongAdder relationshipsCreated = new LongAdder();
+    private final LongAdder relationshipsDeleted = new LongAdder();
+    private final LongAdder propertiesSet = new LongAdder();
+    private final LongAdder labelsAdded = new LongAdder();
+    private final LongAdder labelsRemoved = new LongAdder();
+
+    public QueryTemplateMetrics(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public void record(QueryExecution execution) {
+        latencyBuckets.incrementAndGet(
+                bucketIndex(execution.getWallTimeMillis())
+        );
+        nbExecutions.increment();
+        wallTimeNanos.add(execution.getWallTimeNanos());
+        nbRows.add(execution.getNbRows());
+        resultAvailableAfterMillis.add(
+                Math.max(0, execution.getResultAvailableAfterMillis())
+        );
+        resultConsumedAfterMillis.add(
+                Math.max(0, execution.getResultConsumedAfterMillis())
+        );
+        SummaryCounters counters = execution.getSummary().counters();
+        nodesCreated.add(counters.nodesCreated());
+        nodesDeleted.add(counters.nodesDeleted());
+        relationshipsCreated.add(counters.relationshipsCreated());
+        relationshipsDeleted.add(counters.relationshipsDeleted());
+        propertiesSet.add(counters.propertiesSet());
+        labelsAdded.add(counters.labelsAdded());
+        labelsRemoved.add(counters.labelsRemoved());
+    }
+
+    /*
+    upper bound of the bucket holding the percentile, Long.MAX_VALUE for the overflow bucket
+     */
+    public Long getLatencyPercentileMillis(Double percentile) {
+        long total = 0;
+        for (int i = 0; i < latencyBuckets.length(); i++) {
+            total += latencyBuckets.get(i);
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long threshold = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+            seen += latencyBuckets.get(i);
+            if (seen >= threshold) {
+                return LATENCY_BUCKETS_MILLIS[i];
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public long[] getLatencyBucketCounts() {
+        long[] counts = new long[latencyBuckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = latencyBuckets.get(i);
+        }
+        return counts;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public Long getNbExecutions() {
+        return nbExecutions.sum();
+    }
+
+    public Long getTotalWallTimeNanos() {
+        return wallTimeNanos.sum();
+    }
+
+    public Long getNbRows() {
+        return nbRows.sum();
+    }
+
+    public Long getTotalResultAvailableAfterMillis() {
+        return resultAvailableAfterMillis.sum();
+    }
+
+    public Long getTotalResultConsumedAfterMillis() {
+        return resultConsumedAfterMillis.sum();
+    }
+
+    public Long getNodesCreated() {
+        return nodesCreated.sum();
+    }
+
+    public Long getNodesDeleted() {
+        return nodesDeleted.sum();
+    }
+
+    public Long getRelationshipsCreated() {
+        return relationshipsCreated.sum();
+    }
+
+    public Long getRelationshipsDeleted() {
+        return relationshipsDeleted.sum();
+    }
+
+    public Long getPropertiesSet() {
+        return propertiesSet.sum();
+    }
+
+    public Long getLabelsAdded() {
+        return labelsAdded.sum();
+    }
+
+    public Long getLabelsRemoved() {
+        return labelsRemoved.sum();
+    }
+
+    private static int bucketIndex(long millis) {
+        for (int i = 0; i < LATENCY_BUCKETS_MILLIS.length; i++) {
+            if (millis <= LATENCY_BUCKETS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKETS_MILLIS.length;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.summary.ProfiledPlan;
+import org.neo4j.driver.summary.QueryType;
+import org.neo4j.driver.summary.ResultSummary;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.FileHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
+
+/*
+wraps the metrics registry, profiling runs on its own thread and is dropped when it falls behind,
+only read only queries are profiled since PROFILE executes the query
+ */
+public class SlowQueryLog implements QueryMetricsRegistry {
+
+    private static final Integer PROFILE_QUEUE_SIZE = 16;
+
+    private final QueryMetricsRegistry delegate;
+    private final Driver driver;
+    private final SlowQuerySettings settings;
+    private final Logger logger;
+    private final ThreadPoolExecutor profiler;
+
+    public SlowQueryLog(QueryMetricsRegistry delegate, Driver driver, SlowQuerySettings settings) {
+        this.delegate = delegate;
+        this.driver = driver;
+        this.settings = settings;
+        this.logger = buildLogger(settings);
+        this.profiler = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(PROFILE_QUEUE_SIZE),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "neo4j-slow-query-profiler");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy()
+        );
+    }
+
+    @Override
+    public void record(QueryExecution execution) {
+        delegate.record(execution);
+        if (settings.getThresholdMs() < 0 || execution.getWallTimeMillis() < settings.getThresholdMs()) {
+            return;
+        }
+        logger.warning(String.format(
+                "slow query %s %dms rows=%d availableAfter=%dms consumedAfter=%dms parameters=%s%n%s",
+                execution.getTemplateId(),
+                execution.getWallTimeMillis(),
+                execution.getNbRows(),
+                execution.getResultAvailableAfterMillis(),
+                execution.getResultConsumedAfterMillis(),
+                redact(execution.getParameters()),
+                execution.getQuery()
+        ));
+        if (shouldProfile(execution)) {
+            profiler.execute(() -> profile(execution));
+        }
+    }
+
+    public void close() {
+        profiler.shutdownNow();
+        for (Handler handler : logger.getHandlers()) {
+            handler.close();
+        }
+    }
+
+    private Boolean shouldProfile(QueryExecution execution) {
+        return execution.getSummary().queryType() == QueryType.READ_ONLY &&
+                !execution.getQuery().trim().toUpperCase().startsWith("PROFILE") &&
+                !execution.getQuery().trim().toUpperCase().startsWith("EXPLAIN") &&
+                ThreadLocalRandom.current().nextDouble() < settings.getProfileSampleRate();
+    }
+
+    private void profile(QueryExecution execution) {
+        try (Session session = driver.session(READ)) {
+            ResultSummary summary = session.readTransaction(
+                    tx -> tx.run(
+                            "PROFILE " + execution.getQuery(),
+                            execution.getParameters()
+                    ).consume()
+            );
+            if (!summary.hasProfile()) {
+                return;
+            }
+            StringBuilder plan = new StringBuilder();
+            appendPlan(summary.profile(), 0, plan);
+            logger.info(String.format(
+                    "profile %s totalDbHits=%d%n%s",
+                    execution.getTemplateId(),
+                    totalDbHits(summary.profile()),
+                    plan
+            ));
+        } catch (RuntimeException e) {
+            logger.log(
+                    Level.INFO,
+                    "could not profile " + execution.getTemplateId(),
+                    e
+            );
+        }
+    }
+
+    private static void appendPlan(ProfiledPlan plan, Integer depth, StringBuilder builder) {
+        for (int i = 0; i < depth; i++) {
+            builder.append("  ");
+        }
+        builder.append(plan.operatorType())
+                .append(" dbHits=").append(plan.dbHits())
+                .append(" rows=").append(plan.records())
+                .append(System.lineSeparator());
+        for (ProfiledPlan child : plan.children()) {
+            appendPlan(child, depth + 1, builder);
+        }
+    }
+
+    private static Long totalDbHits(ProfiledPlan plan) {
+        long dbHits = plan.dbHits();
+        for (ProfiledPlan child : plan.children()) {
+            dbHits += totalDbHits(child);
+        }
+        return dbHits;
+    }
+
+    /*
+    keeps the shape of the parameters, not their content
+     */
+    static String redact(Value parameters) {
+        return redact(parameters.asObject());
+    }
+
+    private static String redact(Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean) {
+            return String.valueOf(value);
+        }
+        if (value instanceof String) {
+            return "string(" + ((String) value).length() + ")";
+        }
+        if (value instanceof Collection) {
+            return "list(" + ((Collection<?>) value).size() + ")";
+        }
+        if (value instanceof Map) {
+            StringBuilder map = new StringBuilder("{");
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (map.length() > 1) {
+                    map.append(", ");
+                }
+                map.append(entry.getKey()).append(": ").append(redact(entry.getValue()));
+            }
+            return map.append("}").toString();
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    private static Logger buildLogger(SlowQuerySettings settings) {
+        Logger logger = Logger.getLogger(SlowQueryLog.class.getName());
+        logger.setUseParentHandlers(false);
+        for (Handler handler : logger.getHandlers()) {
+            logger.removeHandler(handler);
+            handler.close();
+        }
+        try {
+            File directory = new File(settings.getLogFile()).getParentFile();
+            if (directory != null) {
+                directory.mkdirs();
+            }
+            FileHandler fileHandler = new FileHandler(
+                    settings.getLogFile(),
+                    settings.getLogFileSizeBytes(),
+                    settings.getLogFileCount(),
+                    true
+            );
+            fileHandler.setFormatter(new SimpleFormatter());
+            logger.addHandler(fileHandler);
+        } catch (IOException e) {
+            throw new RuntimeException(
+                    "could not open slow query log " + settings.getLogFile(),
+                    e
+            );
+        }
+        return logger;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation;
+
+import java.util.Properties;
+
+public class SlowQuerySettings {
+
+    public static final String PROPERTY_PREFIX = "neo4j.slow_query.";
+
+    public enum props {
+        threshold_ms,
+        profile_sample_rate,
+        log_file,
+        log_file_size_bytes,
+        log_file_count
+    }
+
+    private Long thresholdMs = -1L;
+    private Double profileSampleRate = 0.01;
+    private String logFile = "/tmp/triple_brain/neo4j/slow_queries.%g.log";
+    private Integer logFileSizeBytes = 10 * 1024 * 1024;
+    private Integer logFileCount = 5;
+
+    public static SlowQuerySettings defaults() {
+        return new SlowQuerySettings();
+    }
+
+    public static SlowQuerySettings fromSystemProperties() {
+        return fromProperties(
+                System.getProperties()
+        );
+    }
+
+    public static SlowQuerySettings fromProperties(Properties properties) {
+        SlowQuerySettings settings = defaults();
+        String threshold = get(properties, props.threshold_ms);
+        if (threshold != null) {
+            settings.setThresholdMs(Long.valueOf(threshold));
+        }
+        String profileSampleRate = get(properties, props.profile_sample_rate);
+        if (profileSampleRate != null) {
+            settings.setProfileSampleRate(Double.valueOf(profileSampleRate));
+        }
+        String logFile = get(properties, props.log_file);
+        if (logFile != null) {
+            settings.setLogFile(logFile);
+        }
+        String logFileSize = get(properties, props.log_file_size_bytes);
+        if (logFileSize != null) {
+            settings.setLogFileSizeBytes(Integer.valueOf(logFileSize));
+        }
+        String logFileCount = get(properties, props.log_file_count);
+        if (logFileCount != null) {
+            settings.setLogFileCount(Integer.valueOf(logFileCount));
+        }
+        return settings;
+    }
+
+    private static String get(Properties properties, props prop) {
+        String value = properties.getProperty(PROPERTY_PREFIX + prop.name());
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    protected SlowQuerySettings() {
+    }
+
+    public Long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    /*
+    -1, the default, disables the slow query log
+     */
+    public SlowQuerySettings setThresholdMs(Long thresholdMs) {
+        this.thresholdMs = thresholdMs;
+        return this;
+    }
+
+    public Double getProfileSampleRate() {
+        return profileSampleRate;
+    }
+
+    /*
+    share of the slow read queries that are run again with PROFILE, between 0 and 1
+     */
+    public SlowQuerySettings setProfileSampleRate(Double profileSampleRate) {
+        this.profileSampleRate = profileSampleRate;
+        return this;
+    }
+
+    public String getLogFile() {
+        return logFile;
+    }
+
+    /*
+    java.util.logging file pattern, %g is the rotation number
+     */
+    public SlowQuerySettings setLogFile(String logFile) {
+        this.logFile = logFile;
+        return this;
+    }
+
+    public Integer getLogFileSizeBytes() {
+        return logFileSizeBytes;
+    }
+
+    public SlowQuerySettings setLogFileSizeBytes(Integer logFileSizeBytes) {
+        this.logFileSizeBytes = logFileSizeBytes;
+        return this;
+    }
+
+    public Integer getLogFileCount() {
+        return logFileCount;
+    }
+
+    public SlowQuerySettings setLogFileCount(Integer logFileCount) {
+        this.logFileCount = logFileCount;
+        return this;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.scope;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+optional, usually one per request. while it is open on a thread, factories hand out the same operator
+for a uri and facts that rarely change are read once
+ */
+public class OperatorScope implements AutoCloseable {
+
+    public enum Fact {
+        shareLevel,
+        underPattern,
+        patternOrUnderPattern
+    }
+
+    /*
+    scoped operators that keep what they read, it is dropped with the facts
+     */
+    public interface Snapshotted {
+        void invalidateSnapshot();
+    }
+
+    private static final ThreadLocal<OperatorScope> current = new ThreadLocal<>();
+
+    private Map<List<Object>, Object> operators = new HashMap<>();
+    private Map<List<Object>, Object> facts = new HashMap<>();
+    private OperatorScope outer;
+
+    public static OperatorScope current() {
+        return current.get();
+    }
+
+    public static Boolean isActive() {
+        return current.get() != null;
+    }
+
+    /*
+    a begin while another scope is open on this thread joins it, only the outermost one closes it
+     */
+    public static OperatorScope begin() {
+        OperatorScope outer = current.get();
+        if (outer != null) {
+            return new OperatorScope(outer);
+        }
+        OperatorScope scope = new OperatorScope(null);
+        current.set(scope);
+        return scope;
+    }
+
+    public static <T> T operator(Class<T> type, URI uri, Function<URI, T> factory) {
+        OperatorScope scope = current.get();
+        if (scope == null) {
+            return factory.apply(uri);
+        }
+        Map<List<Object>, Object> operators = scope.root().operators;
+        List<Object> key = Arrays.asList(type, uri);
+        /*
+        not computeIfAbsent because building an operator can ask for other operators
+         */
+        Object operator = operators.get(key);
+        if (operator == null) {
+            operator = factory.apply(uri);
+            operators.put(key, operator);
+        }
+        return type.cast(operator);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T memoized(URI uri, Fact fact, Supplier<T> loader) {
+        OperatorScope scope = current.get();
+        if (scope == null) {
+            return loader.get();
+        }
+        Map<List<Object>, Object> facts = scope.root().facts;
+        List<Object> key = Arrays.asList(fact, uri);
+        if (facts.containsKey(key)) {
+            return (T) facts.get(key);
+        }
+        T value = loader.get();
+        facts.put(key, value);
+        return value;
+    }
+
+    /*
+    writes that change share levels or pattern state can touch many elements, everything is read again
+     */
+    public static void factsChanged() {
+        OperatorScope scope = current.get();
+        if (scope == null) {
+            return;
+        }
+        OperatorScope root = scope.root();
+        root.facts.clear();
+        for (Object operator : root.operators.values()) {
+            if (operator instanceof Snapshotted) {
+                ((Snapshotted) operator).invalidateSnapshot();
+            }
+        }
+    }
+
+    private OperatorScope(OperatorScope outer) {
+        this.outer = outer;
+    }
+
+    public Boolean isNested() {
+        return outer != null;
+    }
+
+    @Override
+    public void close() {
+        if (isNested()) {
+            return;
+        }
+        operators.clear();
+        facts.clear();
+        current.remove();
+    }
+
+    private OperatorScope root() {
+        return outer == null ? this : outer.root();
+    }
+}
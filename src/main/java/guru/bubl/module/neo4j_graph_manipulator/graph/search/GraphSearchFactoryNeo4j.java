@@ -0,0 +1,17 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.search;
+
+import com.google.inject.assistedinject.Assisted;
+
+public interface GraphSearchFactoryNeo4j {
+    GraphSearchNeo4j usingSearchTerm(String searchTerm);
+
+    GraphSearchNeo4j usingSearchTermSkipAndLimit(
+            String searchTerm,
+            @Assisted("skip") Integer skip,
+            @Assisted("limit") Integer limit
+    );
+}
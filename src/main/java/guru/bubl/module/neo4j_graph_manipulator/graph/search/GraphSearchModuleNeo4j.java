@@ -17,5 +17,7 @@ public class GraphSearchModuleNeo4j extends AbstractModule {
         install(factoryModuleBuilder
                 .implement(GraphSearch.class, GraphSearchNeo4j.class)
                 .build(GraphSearchFactory.class));
+        install(factoryModuleBuilder
+                .build(GraphSearchFactoryNeo4j.class));
     }
 }
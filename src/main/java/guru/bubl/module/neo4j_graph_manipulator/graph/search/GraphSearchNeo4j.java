@@ -10,15 +10,20 @@ import guru.bubl.module.model.User;
 import guru.bubl.module.model.graph.ShareLevel;
 import guru.bubl.module.model.search.GraphElementSearchResult;
 import guru.bubl.module.model.search.GraphSearch;
+import guru.bubl.module.neo4j_graph_manipulator.graph.driver.AsyncSessionsNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.QueryTemplates;
 import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.TagQueryBuilder;
 import org.apache.commons.lang.StringUtils;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Session;
 import org.neo4j.driver.Result;
+import org.neo4j.driver.async.AsyncSession;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.READ;
 import static org.neo4j.driver.Values.parameters;
 
 public class GraphSearchNeo4j implements GraphSearch {
@@ -96,6 +101,46 @@ public class GraphSearchNeo4j implements GraphSearch {
         );
     }
 
+    public CompletionStage<List<GraphElementSearchResult>> searchForAllOwnResourcesAsync(User user) {
+        return new Getter<>().getAsync(
+                true,
+                user.username(),
+                "graphElementLabel"
+        );
+    }
+
+    public CompletionStage<List<GraphElementSearchResult>> searchOnlyForOwnVerticesForAutoCompletionByLabelAsync(User user) {
+        return new Getter<>().getAsync(
+                true,
+                user.username(),
+                "vertexLabel"
+        );
+    }
+
+    public CompletionStage<List<GraphElementSearchResult>> searchOwnTagsForAutoCompletionByLabelAsync(User user) {
+        return new Getter<>().getAsync(
+                true,
+                user.username(),
+                "tagLabel"
+        );
+    }
+
+    public CompletionStage<List<GraphElementSearchResult>> searchRelationsForAutoCompletionByLabelAsync(User user) {
+        return new Getter<GraphElementSearchResult>().getAsync(
+                false,
+                user.username(),
+                "graphElementLabel"
+        );
+    }
+
+    public CompletionStage<List<GraphElementSearchResult>> searchAllPatternsAsync() {
+        return new Getter<GraphElementSearchResult>().getAsync(
+                false,
+                "",
+                "patternLabel"
+        );
+    }
+
     private class Getter<ResultType extends GraphElementSearchResult> {
 
         public List<ResultType> get(
@@ -104,23 +149,69 @@ public class GraphSearchNeo4j implements GraphSearch {
                 String indexDomain
         ) {
             Set<ShareLevel> inShareLevels = forPersonal ? ShareLevel.allShareLevels : ShareLevel.publicShareLevels;
-            try (Session session = driver.session()) {
-                Result rs = session.run(
-                        buildQuery(forPersonal, username, indexDomain, inShareLevels),
-                        parameters(
-                                "label", formatSearchTerm(searchTerm) + "*",
-                                "owner", username
-                        )
-                );
-                return new SearchResultGetter<ResultType>(rs, inShareLevels).get();
+            try (Session session = driver.session(READ)) {
+                return session.readTransaction(tx -> {
+                    Result rs = tx.run(
+                            buildQuery(forPersonal, username, indexDomain, inShareLevels),
+                            parameters(
+                                    "label", formatSearchTerm(searchTerm) + "*",
+                                    "owner", username,
+                                    "skip", skip,
+                                    "limit", limit
+                            )
+                    );
+                    return new SearchResultGetter<ResultType>(rs, inShareLevels).get();
+                });
             }
         }
 
+        public CompletionStage<List<ResultType>> getAsync(
+                Boolean forPersonal,
+                String username,
+                String indexDomain
+        ) {
+            Set<ShareLevel> inShareLevels = forPersonal ? ShareLevel.allShareLevels : ShareLevel.publicShareLevels;
+            AsyncSession session = driver.asyncSession(READ);
+            return AsyncSessionsNeo4j.closeAfter(
+                    session,
+                    session.readTransactionAsync(tx -> {
+                        SearchResultGetter<ResultType> searchResultGetter = new SearchResultGetter<>(inShareLevels);
+                        return tx.runAsync(
+                                buildQuery(forPersonal, username, indexDomain, inShareLevels),
+                                parameters(
+                                        "label", formatSearchTerm(searchTerm) + "*",
+                                        "owner", username,
+                                        "skip", skip,
+                                        "limit", limit
+                                )
+                        ).thenCompose(
+                                cursor -> cursor.forEachAsync(searchResultGetter::addRow)
+                        ).thenApply(
+                                summary -> searchResultGetter.getSearchResults()
+                        );
+                    })
+            );
+        }
+
         private String buildQuery(
                 Boolean forPersonal,
                 String username,
                 String indexDomain,
                 Set<ShareLevel> inShareLevels
+        ) {
+            return QueryTemplates.get(
+                    () -> buildQueryTemplate(forPersonal, username, indexDomain, inShareLevels),
+                    "GraphSearchNeo4j." + indexDomain,
+                    forPersonal,
+                    StringUtils.isEmpty(username)
+            );
+        }
+
+        private String buildQueryTemplate(
+                Boolean forPersonal,
+                String username,
+                String indexDomain,
+                Set<ShareLevel> inShareLevels
         ) {
             return
                     String.format(
@@ -142,8 +233,7 @@ public class GraphSearchNeo4j implements GraphSearch {
                                     "n.nb_public_neighbors DESC," +
                                     "n.nb_friend_neighbors DESC," +
                                     "n.nb_private_neighbors DESC " +
-                                    "SKIP " + skip +
-                                    " LIMIT " + limit,
+                                    "SKIP $skip LIMIT $limit",
                             indexDomain
                     );
 
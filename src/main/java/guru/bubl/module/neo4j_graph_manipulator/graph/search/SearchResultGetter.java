@@ -28,6 +28,10 @@ public class SearchResultGetter<ResultType extends GraphElementSearchResult> {
         this.inShareLevels = inShareLevels;
     }
 
+    public SearchResultGetter(Set<ShareLevel> inShareLevels) {
+        this(null, inShareLevels);
+    }
+
     public List<ResultType> get() {
         return NoEx.wrap(() -> {
             while (result.hasNext()) {
@@ -37,6 +41,14 @@ public class SearchResultGetter<ResultType extends GraphElementSearchResult> {
         }).get();
     }
 
+    public void addRow(Record row) {
+        addResult(row);
+    }
+
+    public List<ResultType> getSearchResults() {
+        return searchResults;
+    }
+
     private void addResult(Record row) {
         SearchResultBuilder searchResultBuilder = getFromRow(row);
         GraphElementSearchResult graphElementSearchResult = searchResultBuilder.build();
@@ -0,0 +1,117 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.test;
+
+import guru.bubl.module.model.User;
+import guru.bubl.module.model.UserUris;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+vertex uris are derived from their index so large graphs don't have to be kept in memory
+ */
+public class GeneratedUserGraph {
+
+    private User user;
+    private UserUris userUris;
+    private int[] parents;
+    private int[] depths;
+    private Integer nbHubs;
+    private Integer nbGroupRelations;
+    private Integer nbTags;
+    private Integer nbTaggedElements;
+
+    GeneratedUserGraph(User user, int[] parents, Integer nbHubs, Integer nbGroupRelations, Integer nbTags, Integer nbTaggedElements) {
+        this.user = user;
+        this.userUris = new UserUris(user);
+        this.parents = parents;
+        this.nbHubs = nbHubs;
+        this.nbGroupRelations = nbGroupRelations;
+        this.nbTags = nbTags;
+        this.nbTaggedElements = nbTaggedElements;
+    }
+
+    public static String vertexShortId(Integer index) {
+        return "gen-v-" + index;
+    }
+
+    public static String edgeShortId(Integer index) {
+        return "gen-e-" + index;
+    }
+
+    public static String groupRelationShortId(Integer index) {
+        return "gen-g-" + index;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public URI getCenterUri() {
+        return getVertexUri(0);
+    }
+
+    public URI getVertexUri(Integer index) {
+        return userUris.vertexUriFromShortId(vertexShortId(index));
+    }
+
+    public URI getEdgeUri(Integer index) {
+        return userUris.edgeUriFromShortId(edgeShortId(index));
+    }
+
+    public Integer getParentIndex(Integer index) {
+        return parents[index];
+    }
+
+    public List<URI> getHubUris() {
+        List<URI> hubUris = new ArrayList<>();
+        for (int i = 0; i < nbHubs; i++) {
+            hubUris.add(getVertexUri(i));
+        }
+        return hubUris;
+    }
+
+    public List<URI> getUrisAtDepth(Integer depth) {
+        if (depths == null) {
+            depths = new int[parents.length];
+            for (int i = 1; i < parents.length; i++) {
+                depths[i] = depths[parents[i]] + 1;
+            }
+        }
+        List<URI> uris = new ArrayList<>();
+        for (int i = 0; i < depths.length; i++) {
+            if (depths[i] == depth) {
+                uris.add(getVertexUri(i));
+            }
+        }
+        return uris;
+    }
+
+    public Integer getNbVertices() {
+        return parents.length;
+    }
+
+    public Integer getNbEdges() {
+        return parents.length - 1;
+    }
+
+    public Integer getNbHubs() {
+        return nbHubs;
+    }
+
+    public Integer getNbGroupRelations() {
+        return nbGroupRelations;
+    }
+
+    public Integer getNbTags() {
+        return nbTags;
+    }
+
+    public Integer getNbTaggedElements() {
+        return nbTaggedElements;
+    }
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.test;
+
+import guru.bubl.module.model.User;
+import guru.bubl.module.model.UserUris;
+import guru.bubl.module.model.graph.ShareLevel;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+
+import javax.inject.Inject;
+import java.util.*;
+
+import static guru.bubl.module.neo4j_graph_manipulator.graph.driver.SessionConfigsNeo4j.WRITE;
+import static org.neo4j.driver.Values.parameters;
+
+/*
+bulk writes with UNWIND, each user gets a random recursive tree where a share of the vertices
+attach to a few hubs, tags are picked with a zipf distribution so the first ones are shared by many elements
+ */
+public class LargeGraphGenerator {
+
+    private static final List<String> NB_NEIGHBORS_PROPERTIES = Arrays.asList(
+            ShareLevel.PRIVATE.getNbNeighborsPropertyName(),
+            ShareLevel.FRIENDS.getNbNeighborsPropertyName(),
+            ShareLevel.PUBLIC.getNbNeighborsPropertyName()
+    );
+
+    private static final String[] WORDS = {
+            "idea", "project", "music", "garden", "physics", "travel",
+            "recipe", "history", "language", "software", "health", "finance",
+            "book", "movie", "family", "meeting", "research", "design"
+    };
+
+    private static final String TAG_EXTERNAL_URI_PREFIX = "https://example.org/generated-tag/";
+
+    private Driver driver;
+    private Long seed = 7L;
+    private Integer nbVerticesPerUser = 1000;
+    private Double hubRatio = 0.001;
+    private Double hubAttachmentProbability = 0.2;
+    private Double groupRelationProbability = 0.02;
+    private Integer nbTagsPerUser = 100;
+    private Double tagProbability = 0.2;
+    private Double tagSkew = 1.0;
+    private Integer batchSize = 5000;
+    private Map<ShareLevel, Integer> shareLevelWeights = new LinkedHashMap<>();
+
+    @Inject
+    public LargeGraphGenerator(Driver driver) {
+        this.driver = driver;
+        shareLevelWeights.put(ShareLevel.PRIVATE, 70);
+        shareLevelWeights.put(ShareLevel.FRIENDS, 10);
+        shareLevelWeights.put(ShareLevel.PUBLIC, 20);
+    }
+
+    public List<GeneratedUserGraph> generateForUsers(List<User> users) {
+        List<GeneratedUserGraph> graphs = new ArrayList<>();
+        for (User user : users) {
+            graphs.add(generateForUser(user));
+        }
+        return graphs;
+    }
+
+    public GeneratedUserGraph generateForUser(User user) {
+        Random random = new Random(seed + user.username().hashCode());
+        UserUris userUris = new UserUris(user);
+        Long now = new Date().getTime();
+        Integer nbVertices = Math.max(1, nbVerticesPerUser);
+        Integer nbHubs = Math.min(nbVertices, Math.max(1, (int) Math.round(nbVertices * hubRatio)));
+        int[] parents = new int[nbVertices];
+        ShareLevel[] shareLevels = new ShareLevel[nbVertices];
+        int[][] nbNeighbors = new int[nbVertices][NB_NEIGHBORS_PROPERTIES.size()];
+        List<List<Integer>> children = new ArrayList<>();
+        parents[0] = -1;
+        for (int i = 0; i < nbVertices; i++) {
+            shareLevels[i] = randomShareLevel(random);
+            children.add(new ArrayList<>());
+            if (i == 0) {
+                continue;
+            }
+            if (i < nbHubs) {
+                parents[i] = 0;
+            } else if (random.nextDouble() < hubAttachmentProbability) {
+                parents[i] = random.nextInt(nbHubs);
+            } else {
+                parents[i] = random.nextInt(i);
+            }
+            children.get(parents[i]).add(i);
+            nbNeighbors[parents[i]][neighborsIndex(shareLevels[i])]++;
+            nbNeighbors[i][neighborsIndex(shareLevels[parents[i]])]++;
+        }
+
+        List<Map<String, Object>> groupRelations = new ArrayList<>();
+        List<Map<String, Object>> sources = new ArrayList<>();
+        List<Map<String, Object>> destinations = new ArrayList<>();
+        String[] edgeSourceUris = new String[nbVertices];
+        for (int i = 0; i < nbVertices; i++) {
+            String vertexUri = userUris.vertexUriFromShortId(GeneratedUserGraph.vertexShortId(i)).toString();
+            for (Integer child : children.get(i)) {
+                edgeSourceUris[child] = vertexUri;
+            }
+            if (children.get(i).size() < 2 || random.nextDouble() >= groupRelationProbability) {
+                continue;
+            }
+            String groupRelationUri = userUris.groupRelationUriFromShortId(
+                    GeneratedUserGraph.groupRelationShortId(groupRelations.size())
+            ).toString();
+            int[] groupRelationNbNeighbors = new int[NB_NEIGHBORS_PROPERTIES.size()];
+            groupRelationNbNeighbors[neighborsIndex(shareLevels[i])]++;
+            for (Integer child : children.get(i)) {
+                edgeSourceUris[child] = groupRelationUri;
+                groupRelationNbNeighbors[neighborsIndex(shareLevels[child])]++;
+            }
+            groupRelations.add(graphElementProperties(
+                    groupRelationUri,
+                    user,
+                    WORDS[random.nextInt(WORDS.length)] + " group " + groupRelations.size(),
+                    shareLevels[i],
+                    groupRelationNbNeighbors,
+                    now
+            ));
+            sources.add(link(groupRelationUri, vertexUri));
+        }
+
+        List<Map<String, Object>> vertices = new ArrayList<>();
+        List<Map<String, Object>> edges = new ArrayList<>();
+        for (int i = 0; i < nbVertices; i++) {
+            String vertexUri = userUris.vertexUriFromShortId(GeneratedUserGraph.vertexShortId(i)).toString();
+            Map<String, Object> vertex = graphElementProperties(
+                    vertexUri,
+                    user,
+                    WORDS[random.nextInt(WORDS.length)] + " " + i,
+                    shareLevels[i],
+                    nbNeighbors[i],
+                    now
+            );
+            if (i < nbHubs) {
+                vertex.put("last_center_date", now);
+                vertex.put("nb_visits", 1 + random.nextInt(100));
+            }
+            vertices.add(vertex);
+            if (i == 0) {
+                continue;
+            }
+            String edgeUri = userUris.edgeUriFromShortId(GeneratedUserGraph.edgeShortId(i)).toString();
+            edges.add(graphElementProperties(
+                    edgeUri,
+                    user,
+                    random.nextInt(4) == 0 ? WORDS[random.nextInt(WORDS.length)] : "",
+                    shareLevels[i],
+                    new int[NB_NEIGHBORS_PROPERTIES.size()],
+                    now
+            ));
+            sources.add(link(edgeUri, edgeSourceUris[i]));
+            destinations.add(link(edgeUri, vertexUri));
+        }
+
+        Integer nbTags = Math.max(0, nbTagsPerUser);
+        double[] cumulativeTagWeights = cumulativeZipfWeights(nbTags);
+        int[][] tagNbNeighbors = new int[nbTags][NB_NEIGHBORS_PROPERTIES.size()];
+        int[] tagShareLevels = new int[nbTags];
+        Arrays.fill(tagShareLevels, ShareLevel.PRIVATE.getIndex());
+        Boolean[] isTagUsed = new Boolean[nbTags];
+        Arrays.fill(isTagUsed, false);
+        String[] tagUris = new String[nbTags];
+        List<Map<String, Object>> taggings = new ArrayList<>();
+        for (int i = 0; i < nbVertices && nbTags > 0; i++) {
+            if (random.nextDouble() >= tagProbability) {
+                continue;
+            }
+            int tag = zipfIndex(cumulativeTagWeights, random);
+            if (!isTagUsed[tag]) {
+                isTagUsed[tag] = true;
+                tagUris[tag] = userUris.generateTagUri().toString();
+            }
+            tagNbNeighbors[tag][neighborsIndex(shareLevels[i])]++;
+            tagShareLevels[tag] = Math.max(tagShareLevels[tag], shareLevels[i].getIndex());
+            taggings.add(link(
+                    userUris.vertexUriFromShortId(GeneratedUserGraph.vertexShortId(i)).toString(),
+                    tagUris[tag]
+            ));
+        }
+        List<Map<String, Object>> tags = new ArrayList<>();
+        for (int tag = 0; tag < nbTags; tag++) {
+            if (!isTagUsed[tag]) {
+                continue;
+            }
+            Map<String, Object> tagProperties = graphElementProperties(
+                    tagUris[tag],
+                    user,
+                    "tag " + tag,
+                    ShareLevel.get(tagShareLevels[tag]),
+                    tagNbNeighbors[tag],
+                    now
+            );
+            tagProperties.put("external_uri", TAG_EXTERNAL_URI_PREFIX + tag);
+            tags.add(tagProperties);
+        }
+
+        createNodes("Vertex", vertices);
+        createNodes("Edge", edges);
+        createNodes("GroupRelation", groupRelations);
+        createNodes("Meta", tags);
+        createRelationships("SOURCE", sources);
+        createRelationships("DESTINATION", destinations);
+        createRelationships("IDENTIFIED_TO", taggings);
+        return new GeneratedUserGraph(
+                user,
+                parents,
+                nbHubs,
+                groupRelations.size(),
+                tags.size(),
+                taggings.size()
+        );
+    }
+
+    private void createNodes(String label, List<Map<String, Object>> rows) {
+        write(
+                "UNWIND $rows AS row CREATE (n:Resource:GraphElement:" + label + ") SET n = row",
+                rows
+        );
+    }
+
+    private void createRelationships(String type, List<Map<String, Object>> rows) {
+        write(
+                "UNWIND $rows AS row " +
+                        "MATCH (from:Resource{uri:row.from}) " +
+                        "MATCH (to:Resource{uri:row.to}) " +
+                        "CREATE (from)-[:" + type + "]->(to)",
+                rows
+        );
+    }
+
+    private void write(String query, List<Map<String, Object>> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Map<String, Object>> batch = rows.subList(
+                    from,
+                    Math.min(rows.size(), from + batchSize)
+            );
+            try (Session session = driver.session(WRITE)) {
+                session.writeTransaction(tx -> tx.run(
+                        query,
+                        parameters(
+                                "rows",
+                                batch
+                        )
+                ).consume());
+            }
+        }
+    }
+
+    private Map<String, Object> graphElementProperties(String uri, User user, String label, ShareLevel shareLevel, int[] nbNeighbors, Long now) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("uri", uri);
+        properties.put("owner", user.username());
+        properties.put("label", label);
+        properties.put("comment", "");
+        properties.put("shareLevel", shareLevel.getIndex());
+        properties.put("creation_date", now);
+        properties.put("last_modification_date", now);
+        properties.put("last_change_date", now);
+        properties.put("nb_visits", 0);
+        for (int i = 0; i < NB_NEIGHBORS_PROPERTIES.size(); i++) {
+            properties.put(NB_NEIGHBORS_PROPERTIES.get(i), nbNeighbors[i]);
+        }
+        return properties;
+    }
+
+    private static Map<String, Object> link(String from, String to) {
+        Map<String, Object> link = new HashMap<>();
+        link.put("from", from);
+        link.put("to", to);
+        return link;
+    }
+
+    private static int neighborsIndex(ShareLevel shareLevel) {
+        return NB_NEIGHBORS_PROPERTIES.indexOf(
+                shareLevel.getNbNeighborsPropertyName()
+        );
+    }
+
+    private ShareLevel randomShareLevel(Random random) {
+        Integer total = 0;
+        for (Integer weight : shareLevelWeights.values()) {
+            total += weight;
+        }
+        int pick = random.nextInt(total);
+        for (Map.Entry<ShareLevel, Integer> shareLevelWeight : shareLevelWeights.entrySet()) {
+            pick -= shareLevelWeight.getValue();
+            if (pick < 0) {
+                return shareLevelWeight.getKey();
+            }
+        }
+        return ShareLevel.PRIVATE;
+    }
+
+    private double[] cumulativeZipfWeights(Integer nbTags) {
+        double[] cumulative = new double[nbTags];
+        double total = 0;
+        for (int i = 0; i < nbTags; i++) {
+            total += 1 / Math.pow(i + 1, tagSkew);
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    private static int zipfIndex(double[] cumulativeWeights, Random random) {
+        double pick = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, pick);
+        return Math.min(
+                cumulativeWeights.length - 1,
+                index >= 0 ? index : -index - 1
+        );
+    }
+
+    public LargeGraphGenerator setSeed(Long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public LargeGraphGenerator setNbVerticesPerUser(Integer nbVerticesPerUser) {
+        this.nbVerticesPerUser = nbVerticesPerUser;
+        return this;
+    }
+
+    /*
+    share of the vertices that are hubs, hubs are the first vertices and hang under the center
+     */
+    public LargeGraphGenerator setHubRatio(Double hubRatio) {
+        this.hubRatio = hubRatio;
+        return this;
+    }
+
+    /*
+    share of the other vertices attached to a hub instead of a uniformly picked earlier vertex
+     */
+    public LargeGraphGenerator setHubAttachmentProbability(Double hubAttachmentProbability) {
+        this.hubAttachmentProbability = hubAttachmentProbability;
+        return this;
+    }
+
+    public LargeGraphGenerator setGroupRelationProbability(Double groupRelationProbability) {
+        this.groupRelationProbability = groupRelationProbability;
+        return this;
+    }
+
+    public LargeGraphGenerator setNbTagsPerUser(Integer nbTagsPerUser) {
+        this.nbTagsPerUser = nbTagsPerUser;
+        return this;
+    }
+
+    public LargeGraphGenerator setTagProbability(Double tagProbability) {
+        this.tagProbability = tagProbability;
+        return this;
+    }
+
+    public LargeGraphGenerator setTagSkew(Double tagSkew) {
+        this.tagSkew = tagSkew;
+        return this;
+    }
+
+    public LargeGraphGenerator setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public LargeGraphGenerator setShareLevelWeight(ShareLevel shareLevel, Integer weight) {
+        this.shareLevelWeights.put(shareLevel, weight);
+        return this;
+    }
+}
@@ -19,6 +19,10 @@ public class SetupNeo4jDatabaseForTests {
             "CALL db.index.fulltext.createNodeIndex('username',['User'],['username'])",
             "CREATE INDEX ON :GraphElement(shareLevel)",
             "CREATE INDEX ON :GraphElement(last_center_date)",
+            "CREATE INDEX ON :GraphElement(last_change_date)",
+            "CREATE INDEX ON :Tombstone(uri)",
+            "CREATE INDEX ON :Tombstone(owner)",
+            "CREATE INDEX ON :Notification(owner, watchUri, day, action)",
             "CREATE INDEX ON :Meta(external_uri)",
             "CREATE INDEX ON :GraphElement(isUnderPattern)",
             "CREATE INDEX ON :GraphElement(nb_visits)",
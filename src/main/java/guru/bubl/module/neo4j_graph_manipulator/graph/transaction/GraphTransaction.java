@@ -0,0 +1,128 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.transaction;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GraphTransaction implements AutoCloseable {
+
+    private static final ThreadLocal<GraphTransaction> current = new ThreadLocal<>();
+
+    private Session session;
+    private Transaction transaction;
+    private GraphTransaction outer;
+    private Boolean committed = false;
+    private Boolean rollbackOnly = false;
+    private List<Runnable> onClose = new ArrayList<>();
+
+    public static GraphTransaction current() {
+        return current.get();
+    }
+
+    public static Boolean isActive() {
+        return current.get() != null;
+    }
+
+    /*
+    a begin while another graph transaction is active on this thread joins it,
+    only the outermost one commits
+     */
+    protected static GraphTransaction begin(Driver driver) {
+        GraphTransaction outer = current.get();
+        if (outer != null) {
+            return new GraphTransaction(outer);
+        }
+        Session session = driver.session();
+        GraphTransaction graphTransaction = new GraphTransaction(
+                session,
+                session.beginTransaction()
+        );
+        current.set(graphTransaction);
+        return graphTransaction;
+    }
+
+    private GraphTransaction(Session session, Transaction transaction) {
+        this.session = session;
+        this.transaction = transaction;
+    }
+
+    private GraphTransaction(GraphTransaction outer) {
+        this.outer = outer;
+        this.session = outer.session;
+        this.transaction = outer.transaction;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    protected Session getSession() {
+        return session;
+    }
+
+    public Boolean isNested() {
+        return outer != null;
+    }
+
+    public void commit() {
+        if (isNested()) {
+            committed = true;
+            return;
+        }
+        if (rollbackOnly) {
+            rollback();
+            throw new RuntimeException(
+                    "graph transaction was rolled back because a nested unit of work did not commit"
+            );
+        }
+        transaction.commit();
+        committed = true;
+    }
+
+    public void rollback() {
+        if (isNested()) {
+            outer.rollbackOnly = true;
+            return;
+        }
+        if (transaction.isOpen()) {
+            transaction.rollback();
+        }
+    }
+
+    /*
+    runs once the outermost graph transaction is closed, committed or not
+     */
+    public void onClose(Runnable runnable) {
+        if (isNested()) {
+            outer.onClose(runnable);
+            return;
+        }
+        onClose.add(runnable);
+    }
+
+    @Override
+    public void close() {
+        if (isNested()) {
+            if (!committed) {
+                outer.rollbackOnly = true;
+            }
+            return;
+        }
+        try {
+            transaction.close();
+        } finally {
+            current.remove();
+            session.close();
+            for (Runnable runnable : onClose) {
+                runnable.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.transaction;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.driver.ForwardingDriver;
+import guru.bubl.module.neo4j_graph_manipulator.graph.driver.ForwardingSession;
+import org.neo4j.driver.Bookmark;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class GraphTransactionDriver extends ForwardingDriver {
+
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+
+    /*
+    bookmark of the last session closed on this thread, the next sessions wait for it so a read
+    that follows a write is not answered by a follower that has not applied the write yet
+     */
+    private final ThreadLocal<Bookmark> lastBookmark = new ThreadLocal<>();
+
+    public GraphTransactionDriver(Driver delegate) {
+        super(delegate);
+    }
+
+    public GraphTransaction beginGraphTransaction() {
+        return GraphTransaction.begin(this);
+    }
+
+    @Override
+    public Session session() {
+        return session(
+                SessionConfig.defaultConfig()
+        );
+    }
+
+    @Override
+    public Session session(SessionConfig sessionConfig) {
+        return GraphTransaction.isActive() ?
+                new GraphTransactionSession(GraphTransaction.current()) :
+                new BookmarkKeepingSession(delegate.session(
+                        afterLastBookmark(sessionConfig)
+                ));
+    }
+
+    private SessionConfig afterLastBookmark(SessionConfig sessionConfig) {
+        Bookmark bookmark = lastBookmark.get();
+        if (bookmark == null) {
+            return sessionConfig;
+        }
+        List<Bookmark> bookmarks = new ArrayList<>();
+        if (sessionConfig.bookmarks() != null) {
+            sessionConfig.bookmarks().forEach(bookmarks::add);
+        }
+        bookmarks.add(bookmark);
+        SessionConfig.Builder builder = SessionConfig.builder()
+                .withDefaultAccessMode(sessionConfig.defaultAccessMode())
+                .withBookmarks(bookmarks);
+        sessionConfig.database().ifPresent(builder::withDatabase);
+        sessionConfig.fetchSize().ifPresent(builder::withFetchSize);
+        return builder.build();
+    }
+
+    /*
+    for components that still write with the driver, they run before it is closed
+     */
+    public void onClose(Runnable listener) {
+        closeListeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        notifyClose();
+        delegate.close();
+    }
+
+    @Override
+    public CompletionStage<Void> closeAsync() {
+        notifyClose();
+        return delegate.closeAsync();
+    }
+
+    private void notifyClose() {
+        for (Runnable listener : closeListeners) {
+            listener.run();
+        }
+        closeListeners.clear();
+    }
+
+    private class BookmarkKeepingSession extends ForwardingSession {
+
+        private BookmarkKeepingSession(Session delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+            Bookmark bookmark = delegate.lastBookmark();
+            if (bookmark != null) {
+                lastBookmark.set(bookmark);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.transaction;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+@Singleton
+public class GraphTransactionFactory {
+
+    @Inject
+    private GraphTransactionDriver driver;
+
+    public GraphTransaction begin() {
+        return driver.beginGraphTransaction();
+    }
+}
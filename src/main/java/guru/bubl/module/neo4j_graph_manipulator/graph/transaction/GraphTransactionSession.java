@@ -0,0 +1,125 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.transaction;
+
+import org.neo4j.driver.Bookmark;
+import org.neo4j.driver.Query;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.TransactionWork;
+import org.neo4j.driver.Value;
+
+import java.util.Map;
+
+/*
+session handed to operators while a graph transaction is active,
+everything runs on the shared transaction and closing it leaves the transaction open
+ */
+public class GraphTransactionSession implements Session {
+
+    private GraphTransaction graphTransaction;
+
+    protected GraphTransactionSession(GraphTransaction graphTransaction) {
+        this.graphTransaction = graphTransaction;
+    }
+
+    private Transaction transaction() {
+        return graphTransaction.getTransaction();
+    }
+
+    @Override
+    public Transaction beginTransaction() {
+        throw new RuntimeException(
+                "explicit transactions cannot be started inside a graph transaction"
+        );
+    }
+
+    @Override
+    public Transaction beginTransaction(TransactionConfig config) {
+        return beginTransaction();
+    }
+
+    @Override
+    public <T> T readTransaction(TransactionWork<T> work) {
+        return work.execute(transaction());
+    }
+
+    @Override
+    public <T> T readTransaction(TransactionWork<T> work, TransactionConfig config) {
+        return readTransaction(work);
+    }
+
+    @Override
+    public <T> T writeTransaction(TransactionWork<T> work) {
+        return work.execute(transaction());
+    }
+
+    @Override
+    public <T> T writeTransaction(TransactionWork<T> work, TransactionConfig config) {
+        return writeTransaction(work);
+    }
+
+    @Override
+    public Result run(String query, TransactionConfig config) {
+        return transaction().run(query);
+    }
+
+    @Override
+    public Result run(String query, Map<String, Object> parameters, TransactionConfig config) {
+        return transaction().run(query, parameters);
+    }
+
+    @Override
+    public Result run(Query query, TransactionConfig config) {
+        return transaction().run(query);
+    }
+
+    @Override
+    public Result run(String query, Value parameters) {
+        return transaction().run(query, parameters);
+    }
+
+    @Override
+    public Result run(String query, Map<String, Object> parameters) {
+        return transaction().run(query, parameters);
+    }
+
+    @Override
+    public Result run(String query, Record parameters) {
+        return transaction().run(query, parameters);
+    }
+
+    @Override
+    public Result run(String query) {
+        return transaction().run(query);
+    }
+
+    @Override
+    public Result run(Query query) {
+        return transaction().run(query);
+    }
+
+    @Override
+    public Bookmark lastBookmark() {
+        return graphTransaction.getSession().lastBookmark();
+    }
+
+    @Override
+    @Deprecated
+    public void reset() {
+    }
+
+    @Override
+    public boolean isOpen() {
+        return transaction().isOpen();
+    }
+
+    @Override
+    public void close() {
+    }
+}
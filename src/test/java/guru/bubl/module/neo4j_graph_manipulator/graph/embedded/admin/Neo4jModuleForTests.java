@@ -5,9 +5,15 @@ import apoc.meta.Meta;
 import apoc.path.PathExplorer;
 import apoc.refactor.GraphRefactoring;
 import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
 import guru.bubl.module.model.test.GraphComponentTest;
+import guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation.InstrumentedDriver;
+import guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation.QueryMetricsRegistry;
 import guru.bubl.module.neo4j_graph_manipulator.graph.test.GraphComponentTestNeo4j;
 import guru.bubl.module.neo4j_graph_manipulator.graph.test.SetupNeo4jDatabaseForTests;
+import guru.bubl.module.neo4j_graph_manipulator.graph.transaction.GraphTransactionDriver;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.configuration.connectors.BoltConnector;
 import org.neo4j.configuration.helpers.SocketAddress;
@@ -76,8 +82,26 @@ public class Neo4jModuleForTests extends AbstractModule {
                 AuthTokens.basic("neo4j", NEO4J_PASSWORD_FOR_TESTS)
         );
 
-        bind(Driver.class).toInstance(
-                driver
+        /*
+        instrumented like the driver of Neo4jModule so the queries are counted in the bound registry
+         */
+        final Driver boltDriver = driver;
+        bind(GraphTransactionDriver.class).toProvider(new Provider<GraphTransactionDriver>() {
+            @Inject
+            QueryMetricsRegistry queryMetricsRegistry;
+
+            @Override
+            public GraphTransactionDriver get() {
+                return new GraphTransactionDriver(
+                        new InstrumentedDriver(
+                                boltDriver,
+                                queryMetricsRegistry
+                        )
+                );
+            }
+        }).in(Singleton.class);
+        bind(Driver.class).to(
+                GraphTransactionDriver.class
         );
         new SetupNeo4jDatabaseForTests().doItWithDriver(driver);
     }
@@ -0,0 +1,75 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.embedded.admin;
+
+import guru.bubl.module.model.User;
+import guru.bubl.module.model.friend.FriendManager;
+import guru.bubl.module.model.friend.FriendManagerFactory;
+import guru.bubl.module.model.friend.FriendStatus;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/*
+for runs without the friend module, users are never friends. the status is the first one that
+is not confirmed, writes do nothing and reads are empty
+ */
+public class StrangersFriendManagerFactory implements FriendManagerFactory {
+
+    private static final FriendStatus NOT_FRIEND = Arrays.stream(FriendStatus.values()).filter(
+            status -> status != FriendStatus.confirmed
+    ).findFirst().orElseThrow(
+            () -> new RuntimeException("no friend status other than confirmed")
+    );
+
+    @Override
+    public FriendManager forUser(User user) {
+        return (FriendManager) Proxy.newProxyInstance(
+                FriendManager.class.getClassLoader(),
+                new Class<?>[]{FriendManager.class},
+                (proxy, method, args) -> answer(proxy, method, args)
+        );
+    }
+
+    private static Object answer(Object proxy, Method method, Object[] args) {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return StrangersFriendManagerFactory.class.getSimpleName();
+            }
+        }
+        Class<?> type = method.getReturnType();
+        if (type == Object.class) {
+            return null;
+        }
+        if (type == FriendStatus.class) {
+            return NOT_FRIEND;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return false;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 0;
+        }
+        if (type == Long.class || type == long.class) {
+            return 0L;
+        }
+        if (type.isAssignableFrom(ArrayList.class)) {
+            return new ArrayList<>();
+        }
+        if (type.isAssignableFrom(HashSet.class)) {
+            return new HashSet<>();
+        }
+        if (type.isAssignableFrom(HashMap.class)) {
+            return new HashMap<>();
+        }
+        return null;
+    }
+}
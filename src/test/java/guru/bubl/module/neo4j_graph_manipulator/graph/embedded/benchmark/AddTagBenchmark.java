@@ -0,0 +1,63 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.embedded.benchmark;
+
+import guru.bubl.module.model.graph.FriendlyResourcePojo;
+import guru.bubl.module.model.graph.ShareLevel;
+import guru.bubl.module.model.graph.graph_element.GraphElementPojo;
+import guru.bubl.module.model.graph.tag.TagPojo;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementFactoryNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.test.GeneratedUserGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.net.URI;
+import java.util.Map;
+
+/*
+the external uris cycle through NB_SHARED_TAGS tags, only the first invocations create the tag,
+after that the existing tag is matched by the MERGE and attached to the next vertex
+ */
+@State(Scope.Benchmark)
+public class AddTagBenchmark {
+
+    private static final Integer NB_SHARED_TAGS = 20;
+
+    private GraphElementFactoryNeo4j graphElementFactory;
+    private GeneratedUserGraph generatedGraph;
+    private Integer nbInvocations = 0;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkGraph graph) {
+        graphElementFactory = graph.getInstance(GraphElementFactoryNeo4j.class);
+        generatedGraph = graph.getGeneratedGraph();
+    }
+
+    @Benchmark
+    public Map<URI, TagPojo> addTag() {
+        nbInvocations++;
+        URI externalUri = URI.create(
+                "https://example.org/tag/" + (nbInvocations % NB_SHARED_TAGS)
+        );
+        TagPojo tag = new TagPojo(
+                externalUri,
+                new GraphElementPojo(
+                        new FriendlyResourcePojo(
+                                externalUri,
+                                "tag " + (nbInvocations % NB_SHARED_TAGS)
+                        )
+                )
+        );
+        return graphElementFactory.withUri(
+                generatedGraph.getVertexUri(nbInvocations % generatedGraph.getNbVertices())
+        ).addTag(
+                tag,
+                ShareLevel.PRIVATE
+        );
+    }
+}
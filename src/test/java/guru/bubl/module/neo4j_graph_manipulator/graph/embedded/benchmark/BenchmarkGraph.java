@@ -0,0 +1,92 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.embedded.benchmark;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import guru.bubl.module.model.User;
+import guru.bubl.module.model.friend.FriendManagerFactory;
+import guru.bubl.module.neo4j_graph_manipulator.graph.Neo4jModule;
+import guru.bubl.module.neo4j_graph_manipulator.graph.embedded.admin.Neo4jModuleForTests;
+import guru.bubl.module.neo4j_graph_manipulator.graph.embedded.admin.StrangersFriendManagerFactory;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.notification.NotificationOutboxSettings;
+import guru.bubl.module.neo4j_graph_manipulator.graph.test.GeneratedUserGraph;
+import guru.bubl.module.neo4j_graph_manipulator.graph.test.LargeGraphGenerator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.net.URI;
+import java.util.List;
+
+/*
+embedded database started by Neo4jModuleForTests, seeded with the same generated graph on every run
+ */
+@State(Scope.Benchmark)
+public class BenchmarkGraph {
+
+    public static final Long SEED = 7L;
+    public static final Integer NB_VERTICES = 5000;
+
+    private Injector injector;
+    private User user;
+    private GeneratedUserGraph generatedGraph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Neo4jModuleForTests.clearDb();
+        injector = Guice.createInjector(
+                Neo4jModule.usingEmbedded().withNotificationOutboxSettings(
+                        notificationOutboxSettings()
+                ),
+                Neo4jModuleForTests.usingEmbedded(),
+                /*
+                the friend module is not a dependency, benchmarks copy trees of their own user
+                 */
+                binder -> binder.bind(FriendManagerFactory.class).to(
+                        StrangersFriendManagerFactory.class
+                )
+        );
+        seed();
+    }
+
+    /*
+    the edits are measured with the notification outbox worker, not the synchronous test mode
+     */
+    protected NotificationOutboxSettings notificationOutboxSettings() {
+        return NotificationOutboxSettings.fromSystemProperties();
+    }
+
+    private void seed() {
+        user = User.withEmail(
+                "benchmark@example.org"
+        ).setUsername("benchmark");
+        generatedGraph = injector.getInstance(LargeGraphGenerator.class)
+                .setSeed(SEED)
+                .setNbVerticesPerUser(NB_VERTICES)
+                .generateForUser(user);
+    }
+
+    public <T> T getInstance(Class<T> type) {
+        return injector.getInstance(type);
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public URI getCenterUri() {
+        return generatedGraph.getCenterUri();
+    }
+
+    public List<URI> getUrisAtDepth(Integer depth) {
+        return generatedGraph.getUrisAtDepth(depth);
+    }
+
+    public GeneratedUserGraph getGeneratedGraph() {
+        return generatedGraph;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.embedded.benchmark;
+
+import guru.bubl.module.model.search.GraphElementSearchResult;
+import guru.bubl.module.neo4j_graph_manipulator.graph.search.GraphSearchFactoryNeo4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class GraphSearchBenchmark {
+
+    @Param({"pro", "physics", "ga"})
+    public String searchTerm;
+
+    private GraphSearchFactoryNeo4j graphSearchFactory;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkGraph graph) {
+        graphSearchFactory = graph.getInstance(GraphSearchFactoryNeo4j.class);
+    }
+
+    @Benchmark
+    public List<GraphElementSearchResult> autocompleteVertices(BenchmarkGraph graph) {
+        return graphSearchFactory.usingSearchTerm(
+                searchTerm
+        ).searchOnlyForOwnVerticesForAutoCompletionByLabel(
+                graph.getUser()
+        );
+    }
+
+    @Benchmark
+    public List<GraphElementSearchResult> autocompleteAllOwnResources(BenchmarkGraph graph) {
+        return graphSearchFactory.usingSearchTerm(
+                searchTerm
+        ).searchForAllOwnResources(
+                graph.getUser()
+        );
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.embedded.benchmark;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementFactoryNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.graph_element.GraphElementOperatorNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation.InMemoryQueryMetricsRegistry;
+import guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation.QueryMetricsRegistry;
+import guru.bubl.module.neo4j_graph_manipulator.graph.instrumentation.QueryTemplateMetrics;
+import guru.bubl.module.neo4j_graph_manipulator.graph.test.GeneratedUserGraph;
+import org.joda.time.DateTime;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+
+import static org.neo4j.driver.Values.parameters;
+
+/*
+compares the former label write, notification check read + notification query + SET,
+with the single statement write, roundTrips is reported next to ops so the ratio can be read directly.
+the outbox is synchronous so both write the notification in the measured round trips
+ */
+@State(Scope.Benchmark)
+public class LabelEditBenchmark {
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RoundTrips {
+        public long roundTrips;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            roundTrips = 0;
+        }
+    }
+
+    private GraphElementFactoryNeo4j graphElementFactory;
+    private GeneratedUserGraph generatedGraph;
+    private InMemoryQueryMetricsRegistry queryMetricsRegistry;
+    private Driver driver;
+    private Integer nbInvocations = 0;
+
+    @Setup(Level.Trial)
+    public void setUp(SynchronousOutboxBenchmarkGraph graph) {
+        graphElementFactory = graph.getInstance(GraphElementFactoryNeo4j.class);
+        generatedGraph = graph.getGeneratedGraph();
+        queryMetricsRegistry = (InMemoryQueryMetricsRegistry) graph.getInstance(QueryMetricsRegistry.class);
+        driver = graph.getInstance(Driver.class);
+    }
+
+    @Benchmark
+    public void separateQueries(RoundTrips roundTrips) {
+        Long nbQueriesBefore = getNbQueries();
+        GraphElementOperatorNeo4j graphElement = nextGraphElement();
+        Boolean notify = new DateTime(graphElement.lastModificationDate()).plusDays(1).isBefore(new DateTime());
+        try (Session session = driver.session()) {
+            if (notify) {
+                session.writeTransaction(tx -> tx.run(
+                        "MATCH (ge:Resource{copied_from_uri:$uri}) WHERE ge.owner<>$owner " +
+                                "CREATE (n:Resource:Notification{uri:'/service/users/' + ge.owner + '/notification/' + apoc.create.uuid(), " +
+                                "owner:ge.owner, watchUri:$uri, watchLabel:ge.label, rootUri:ge.copied_root_uri, " +
+                                "action:'label', creationDate:timestamp()})",
+                        parameters(
+                                "uri", graphElement.uri().toString(),
+                                "owner", graphElement.getOwnerUsername()
+                        )
+                ).consume());
+            }
+            session.writeTransaction(tx -> tx.run(
+                    graphElement.queryPrefix() + "SET n.label=$label, n.last_modification_date=$last_modification_date",
+                    parameters(
+                            "uri", graphElement.uri().toString(),
+                            "label", "label " + nbInvocations,
+                            "last_modification_date", new Date().getTime()
+                    )
+            ).consume());
+        }
+        roundTrips.roundTrips += getNbQueries() - nbQueriesBefore;
+    }
+
+    @Benchmark
+    public void singleStatement(RoundTrips roundTrips) {
+        Long nbQueriesBefore = getNbQueries();
+        nextGraphElement().label(
+                "label " + nbInvocations
+        );
+        roundTrips.roundTrips += getNbQueries() - nbQueriesBefore;
+    }
+
+    private GraphElementOperatorNeo4j nextGraphElement() {
+        nbInvocations++;
+        return graphElementFactory.withUri(
+                generatedGraph.getVertexUri(nbInvocations % generatedGraph.getNbVertices())
+        );
+    }
+
+    private Long getNbQueries() {
+        return queryMetricsRegistry.getAll().stream().mapToLong(
+                QueryTemplateMetrics::getNbExecutions
+        ).sum();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.embedded.benchmark;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.types.Node;
+import org.neo4j.driver.types.Relationship;
+import org.neo4j.driver.types.TypeSystem;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/*
+bytes a record takes as a bolt RECORD message following the packstream encoding, chunk headers left out
+ */
+public class PackStreamSize {
+
+    private static final TypeSystem TYPES = TypeSystem.getDefault();
+
+    public static Long ofRecords(List<Record> records) {
+        Long size = 0L;
+        for (Record record : records) {
+            size += 2 + sizeHeader(record.size());
+            for (Value value : record.values()) {
+                size += of(value);
+            }
+        }
+        return size;
+    }
+
+    public static Long of(Value value) {
+        if (value.isNull() || value.hasType(TYPES.BOOLEAN())) {
+            return 1L;
+        }
+        if (value.hasType(TYPES.INTEGER())) {
+            return ofInteger(value.asLong());
+        }
+        if (value.hasType(TYPES.FLOAT())) {
+            return 9L;
+        }
+        if (value.hasType(TYPES.STRING())) {
+            return ofString(value.asString());
+        }
+        if (value.hasType(TYPES.LIST())) {
+            Long size = sizeHeader(value.size());
+            for (Value element : value.values()) {
+                size += of(element);
+            }
+            return size;
+        }
+        if (value.hasType(TYPES.MAP())) {
+            return ofMap(value);
+        }
+        if (value.hasType(TYPES.NODE())) {
+            Node node = value.asNode();
+            Long size = 2 + ofInteger(node.id()) + sizeHeader(node.size());
+            size += sizeHeader(((List) node.labels()).size());
+            for (String label : node.labels()) {
+                size += ofString(label);
+            }
+            for (String key : node.keys()) {
+                size += ofString(key) + of(node.get(key));
+            }
+            return size;
+        }
+        if (value.hasType(TYPES.RELATIONSHIP())) {
+            Relationship relationship = value.asRelationship();
+            Long size = 2 + ofInteger(relationship.id()) +
+                    ofInteger(relationship.startNodeId()) +
+                    ofInteger(relationship.endNodeId()) +
+                    ofString(relationship.type()) +
+                    sizeHeader(relationship.size());
+            for (String key : relationship.keys()) {
+                size += ofString(key) + of(relationship.get(key));
+            }
+            return size;
+        }
+        throw new IllegalArgumentException("no size for " + value.type().name());
+    }
+
+    private static Long ofMap(Value map) {
+        Long size = sizeHeader(map.size());
+        for (String key : map.keys()) {
+            size += ofString(key) + of(map.get(key));
+        }
+        return size;
+    }
+
+    private static Long ofString(String string) {
+        Integer nbBytes = string.getBytes(StandardCharsets.UTF_8).length;
+        return sizeHeader(nbBytes) + nbBytes;
+    }
+
+    private static Long ofInteger(Long integer) {
+        if (integer >= -16 && integer <= 127) {
+            return 1L;
+        }
+        if (integer >= Byte.MIN_VALUE && integer <= Byte.MAX_VALUE) {
+            return 2L;
+        }
+        if (integer >= Short.MIN_VALUE && integer <= Short.MAX_VALUE) {
+            return 3L;
+        }
+        if (integer >= Integer.MIN_VALUE && integer <= Integer.MAX_VALUE) {
+            return 5L;
+        }
+        return 9L;
+    }
+
+    private static Long sizeHeader(Integer size) {
+        if (size < 16) {
+            return 1L;
+        }
+        if (size < 256) {
+            return 2L;
+        }
+        if (size < 65536) {
+            return 3L;
+        }
+        return 5L;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.embedded.benchmark;
+
+import guru.bubl.module.model.graph.ShareLevel;
+import guru.bubl.module.model.graph.subgraph.SubGraphPojo;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphExtractorFactoryNeo4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class SubGraphExtractorBenchmark {
+
+    @Param({"1", "3", "5"})
+    public Integer depth;
+
+    private SubGraphExtractorFactoryNeo4j subGraphExtractorFactory;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkGraph graph) {
+        subGraphExtractorFactory = graph.getInstance(SubGraphExtractorFactoryNeo4j.class);
+    }
+
+    @Benchmark
+    public SubGraphPojo load(BenchmarkGraph graph) {
+        return subGraphExtractorFactory.withCenterVertexInShareLevelsAndDepth(
+                graph.getCenterUri(),
+                depth,
+                ShareLevel.allShareLevelsInt
+        ).load();
+    }
+}
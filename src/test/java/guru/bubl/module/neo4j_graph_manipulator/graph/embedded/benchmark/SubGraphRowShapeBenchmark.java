@@ -0,0 +1,113 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.embedded.benchmark;
+
+import guru.bubl.module.model.graph.ShareLevel;
+import guru.bubl.module.model.graph.subgraph.SubGraphPojo;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphExtractorFactoryNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphExtractorNeo4j;
+import org.neo4j.driver.Record;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+
+/*
+the flat rows of load() against the compact rows of loadCompact() on a subgraph of at least
+NB_ELEMENTS elements, the smallest depth reaching it is used. load benchmarks run the query and
+decode, decode benchmarks only decode rows fetched once. boltBytes is the packstream size of the rows,
+the decode benchmarks report the shape of the fetched rows as counters
+ */
+@State(Scope.Benchmark)
+public class SubGraphRowShapeBenchmark {
+
+    public static final Integer NB_ELEMENTS = 5000;
+    private static final Integer MAX_DEPTH = 33;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class BoltBytes {
+        public long boltBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            boltBytes = 0;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RowShape {
+        public long depth;
+        public long nbElements;
+        public long nbRows;
+        public long rowsBytes;
+        public long compactRowsBytes;
+
+        @Setup(Level.Iteration)
+        public void report(SubGraphRowShapeBenchmark benchmark) {
+            depth = benchmark.depth;
+            nbElements = nbElements(benchmark.extractor().buildFromCompactRows(benchmark.compactRows));
+            nbRows = benchmark.rows.size();
+            rowsBytes = PackStreamSize.ofRecords(benchmark.rows);
+            compactRowsBytes = PackStreamSize.ofRecords(benchmark.compactRows);
+        }
+    }
+
+    private SubGraphExtractorFactoryNeo4j subGraphExtractorFactory;
+    private BenchmarkGraph graph;
+    private Integer depth;
+    private List<Record> rows;
+    private List<Record> compactRows;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkGraph graph) {
+        this.graph = graph;
+        subGraphExtractorFactory = graph.getInstance(SubGraphExtractorFactoryNeo4j.class);
+        depth = 1;
+        while (depth < MAX_DEPTH && nbElements(extractor().loadCompact()) < NB_ELEMENTS) {
+            depth += 2;
+        }
+        rows = extractor().fetchRows();
+        compactRows = extractor().fetchCompactRows();
+    }
+
+    @Benchmark
+    public SubGraphPojo loadRows(BoltBytes boltBytes) {
+        SubGraphExtractorNeo4j extractor = extractor();
+        List<Record> records = extractor.fetchRows();
+        boltBytes.boltBytes += PackStreamSize.ofRecords(records);
+        return extractor.buildFromRows(records);
+    }
+
+    @Benchmark
+    public SubGraphPojo loadCompactRows(BoltBytes boltBytes) {
+        SubGraphExtractorNeo4j extractor = extractor();
+        List<Record> records = extractor.fetchCompactRows();
+        boltBytes.boltBytes += PackStreamSize.ofRecords(records);
+        return extractor.buildFromCompactRows(records);
+    }
+
+    @Benchmark
+    public SubGraphPojo decodeRows(RowShape rowShape) {
+        return extractor().buildFromRows(rows);
+    }
+
+    @Benchmark
+    public SubGraphPojo decodeCompactRows(RowShape rowShape) {
+        return extractor().buildFromCompactRows(compactRows);
+    }
+
+    private SubGraphExtractorNeo4j extractor() {
+        return subGraphExtractorFactory.withCenterVertexInShareLevelsAndDepth(
+                graph.getCenterUri(),
+                depth,
+                ShareLevel.allShareLevelsInt
+        );
+    }
+
+    private static Integer nbElements(SubGraphPojo subGraph) {
+        return subGraph.vertices().size() + subGraph.edges().size() + subGraph.getGroupRelations().size();
+    }
+}
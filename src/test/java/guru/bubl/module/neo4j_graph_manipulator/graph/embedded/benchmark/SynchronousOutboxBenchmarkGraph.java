@@ -0,0 +1,21 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.embedded.benchmark;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.notification.NotificationOutboxSettings;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/*
+notifications are written in the statement of the edit, for benchmarks that count the round trips of an edit
+ */
+@State(Scope.Benchmark)
+public class SynchronousOutboxBenchmarkGraph extends BenchmarkGraph {
+
+    @Override
+    protected NotificationOutboxSettings notificationOutboxSettings() {
+        return NotificationOutboxSettings.fromSystemProperties().setSynchronous(true);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.embedded.benchmark;
+
+import guru.bubl.module.model.graph.FriendlyResourcePojo;
+import guru.bubl.module.model.graph.Tree;
+import guru.bubl.module.model.graph.graph_element.GraphElementPojo;
+import guru.bubl.module.model.graph.tag.TagPojo;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.tree_copier.TreeCopierFactoryNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.tree_copier.TreeCopierNeo4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/*
+copies the center and its children, the copies accumulate during the run
+ */
+@State(Scope.Benchmark)
+public class TreeCopierBenchmark {
+
+    private TreeCopierNeo4j treeCopier;
+    private Tree tree;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkGraph graph) {
+        treeCopier = graph.getInstance(TreeCopierFactoryNeo4j.class).forCopier(
+                graph.getUser()
+        );
+        Set<URI> urisOfGraphElements = new HashSet<>();
+        urisOfGraphElements.addAll(graph.getUrisAtDepth(0));
+        urisOfGraphElements.addAll(graph.getUrisAtDepth(1));
+        tree = new Tree(
+                urisOfGraphElements,
+                graph.getCenterUri(),
+                new TagPojo(
+                        graph.getCenterUri(),
+                        new GraphElementPojo(
+                                new FriendlyResourcePojo(
+                                        graph.getCenterUri(),
+                                        "center"
+                                )
+                        )
+                )
+        );
+    }
+
+    @Benchmark
+    public Map<URI, URI> copyTreeOfUser(BenchmarkGraph graph) {
+        return treeCopier.copyTreeOfUser(
+                tree,
+                graph.getUser()
+        );
+    }
+}
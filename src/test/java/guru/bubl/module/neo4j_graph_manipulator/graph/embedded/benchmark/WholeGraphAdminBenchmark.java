@@ -0,0 +1,28 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.embedded.benchmark;
+
+import guru.bubl.module.neo4j_graph_manipulator.graph.admin.WholeGraphAdminNeo4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class WholeGraphAdminBenchmark {
+
+    private WholeGraphAdminNeo4j wholeGraphAdmin;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkGraph graph) {
+        wholeGraphAdmin = graph.getInstance(WholeGraphAdminNeo4j.class);
+    }
+
+    @Benchmark
+    public void reindexAll() {
+        wholeGraphAdmin.reindexAll();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright Vincent Blouin under the GPL License version 3
+ */
+
+package guru.bubl.module.neo4j_graph_manipulator.graph.embedded.extractor;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import guru.bubl.module.model.User;
+import guru.bubl.module.model.friend.FriendManagerFactory;
+import guru.bubl.module.model.graph.ShareLevel;
+import guru.bubl.module.neo4j_graph_manipulator.graph.Neo4jModule;
+import guru.bubl.module.neo4j_graph_manipulator.graph.embedded.admin.Neo4jModuleForTests;
+import guru.bubl.module.neo4j_graph_manipulator.graph.embedded.admin.StrangersFriendManagerFactory;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.QueryTemplates;
+import guru.bubl.module.neo4j_graph_manipulator.graph.graph.extractor.subgraph.SubGraphExtractorFactoryNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.search.GraphSearchFactoryNeo4j;
+import guru.bubl.module.neo4j_graph_manipulator.graph.test.GeneratedUserGraph;
+import guru.bubl.module.neo4j_graph_manipulator.graph.test.LargeGraphGenerator;
+import guru.bubl.module.neo4j_graph_manipulator.graph.transaction.GraphTransactionDriver;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/*
+the query text does not depend on values passed as parameters so the plan cache of the server is hit,
+only depths and share levels choose the text
+ */
+public class QueryTemplatesTest {
+
+    private static Injector injector;
+    private static User user;
+    private static GeneratedUserGraph graph;
+
+    @BeforeClass
+    public static void beforeAllTests() {
+        Neo4jModuleForTests.clearDb();
+        injector = Guice.createInjector(
+                Neo4jModule.usingEmbedded(),
+                Neo4jModuleForTests.usingEmbedded(),
+                binder -> binder.bind(FriendManagerFactory.class).to(
+                        StrangersFriendManagerFactory.class
+                )
+        );
+        user = User.withEmail(
+                "templates@example.org"
+        ).setUsername("templates");
+        graph = injector.getInstance(LargeGraphGenerator.class)
+                .setSeed(7L)
+                .setNbVerticesPerUser(200)
+                .generateForUser(user);
+    }
+
+    @AfterClass
+    public static void afterAllTests() {
+        injector.getInstance(GraphTransactionDriver.class).close();
+    }
+
+    @Test
+    public void loading_again_at_the_same_depths_does_not_add_templates() {
+        loadAtDepths(1, 9);
+        Integer nbTemplates = QueryTemplates.getNbTemplates();
+        loadAtDepths(1, 9);
+        loadAtDepths(1, 9);
+        assertThat(
+                QueryTemplates.getNbTemplates(),
+                is(nbTemplates)
+        );
+    }
+
+    @Test
+    public void even_depths_use_the_template_of_the_next_odd_depth() {
+        loadAtDepths(1, 9);
+        Integer nbTemplates = QueryTemplates.getNbTemplates();
+        for (Integer depth = 2; depth <= 8; depth += 2) {
+            load(depth);
+        }
+        assertThat(
+                QueryTemplates.getNbTemplates(),
+                is(nbTemplates)
+        );
+    }
+
+    @Test
+    public void depths_above_the_exact_ones_share_a_bucket() {
+        load(35);
+        Integer nbTemplates = QueryTemplates.getNbTemplates();
+        loadAtDepths(36, 65);
+        assertThat(
+                QueryTemplates.getNbTemplates(),
+                is(nbTemplates)
+        );
+    }
+
+    @Test
+    public void skips_and_limits_do_not_add_templates() {
+        search(0, 10);
+        Integer nbTemplates = QueryTemplates.getNbTemplates();
+        for (Integer skip = 0; skip <= 50; skip += 10) {
+            for (Integer limit : new Integer[]{1, 5, 10, 20}) {
+                search(skip, limit);
+            }
+        }
+        assertThat(
+                QueryTemplates.getNbTemplates(),
+                is(nbTemplates)
+        );
+    }
+
+    private void loadAtDepths(Integer from, Integer to) {
+        for (Integer depth = from; depth <= to; depth++) {
+            load(depth);
+        }
+    }
+
+    private void load(Integer depth) {
+        injector.getInstance(SubGraphExtractorFactoryNeo4j.class).withCenterVertexInShareLevelsAndDepth(
+                graph.getCenterUri(),
+                depth,
+                ShareLevel.allShareLevelsInt
+        ).load();
+    }
+
+    private void search(Integer skip, Integer limit) {
+        injector.getInstance(GraphSearchFactoryNeo4j.class).usingSearchTermSkipAndLimit(
+                "pro",
+                skip,
+                limit
+        ).searchForAllOwnResources(
+                user
+        );
+    }
+}